@@ -7,6 +7,8 @@ import org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctio
 import org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.function.RequestPredicates;
 import org.springframework.web.servlet.function.RouterFunction;
@@ -77,6 +79,22 @@ public class GatewayConfig {
                 .build();
     }
 
+    /**
+     * Server-Sent Events streams are long-lived, so they bypass the circuit
+     * breaker (its time limiter would cut them off) and are matched before the
+     * general notification route. The proxy copies the body through as it
+     * arrives rather than buffering it.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> notificationStreamRoute() {
+        return route("notification-stream")
+                .route(RequestPredicates.path("/api/notifications/stream/**"), HandlerFunctions.http(notificationServiceUrl))
+                .filter(addResponseHeader("X-Powered-By", "Smart-Appointment-Booking-Gateway"))
+                .filter(addResponseHeader("X-Accel-Buffering", "no"))
+                .build();
+    }
+
     @Bean
     public RouterFunction<ServerResponse> notificationServiceRoute() {
         return route("notification-service")
@@ -5,6 +5,7 @@ import com.smartappointmentbooking.api_gateway.filter.LoggingFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -32,6 +33,10 @@ public class SecurityConfig {
                                 .csrf(AbstractHttpConfigurer::disable)
                                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .authorizeHttpRequests(auth -> auth
+                                                // Service-to-service endpoints are never reachable from outside
+                                                .requestMatchers("/api/users/bulk")
+                                                .denyAll()
+
                                                 // Public endpoints (no authentication required)
                                                 .requestMatchers(
                                                                 "/api/auth/**",
@@ -49,8 +54,30 @@ public class SecurityConfig {
 
                                                 // Admin-only endpoints
                                                 .requestMatchers(
-                                                                "/api/users/admin/**")
+                                                                "/api/users/admin/**",
+                                                                "/api/notifications/admin/**")
+                                                .hasRole("ADMIN")
+
+                                                // Doctor price overrides feed booking prices, so only admins change them
+                                                .requestMatchers(HttpMethod.PUT, "/api/services/pricing/doctors/**")
                                                 .hasRole("ADMIN")
+                                                .requestMatchers(HttpMethod.DELETE, "/api/services/pricing/doctors/**")
+                                                .hasRole("ADMIN")
+
+                                                // Same for the catalog itself: basePrice is the price bookings are stamped with
+                                                .requestMatchers(HttpMethod.POST, "/api/services", "/api/services/bulk")
+                                                .hasRole("ADMIN")
+                                                .requestMatchers(HttpMethod.PUT, "/api/services/*")
+                                                .hasRole("ADMIN")
+                                                .requestMatchers(HttpMethod.DELETE, "/api/services/*")
+                                                .hasRole("ADMIN")
+
+                                                // Doctor directory lookups serve patients too, so they sit ahead of the doctor-only rule
+                                                .requestMatchers(HttpMethod.GET, "/api/users/doctors/search",
+                                                                "/api/users/doctors/autocomplete")
+                                                .authenticated()
+                                                .requestMatchers(HttpMethod.POST, "/api/users/doctors/batch")
+                                                .authenticated()
 
                                                 // Doctor-only endpoints
                                                 .requestMatchers(
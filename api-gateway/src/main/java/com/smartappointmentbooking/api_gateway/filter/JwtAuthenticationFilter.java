@@ -1,5 +1,6 @@
 package com.smartappointmentbooking.api_gateway.filter;
 
+import com.smartappointmentbooking.api_gateway.service.TokenRevocationCache;
 import com.smartappointmentbooking.api_gateway.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,6 +23,7 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationCache tokenRevocationCache;
 
     @Override
     protected void doFilterInternal(
@@ -44,7 +46,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             username = jwtUtil.extractUsername(jwt);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(jwt)) {
+                if (jwtUtil.validateToken(jwt) && !isRevoked(jwt, username)) {
                     String role = jwtUtil.extractRole(jwt);
                     
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -67,4 +69,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isRevoked(String jwt, String username) {
+        long issuedAt = jwtUtil.extractIssuedAt(jwt).toInstant().getEpochSecond();
+        boolean revoked = tokenRevocationCache.isRevoked(jwtUtil.extractTokenId(jwt), username, issuedAt);
+        if (revoked) {
+            logger.warn("Rejected revoked token for " + username);
+        }
+        return revoked;
+    }
 }
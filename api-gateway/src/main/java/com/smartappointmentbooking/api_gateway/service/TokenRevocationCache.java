@@ -0,0 +1,180 @@
+package com.smartappointmentbooking.api_gateway.service;
+
+import com.smartappointmentbooking.api_gateway.util.RevocationBloomFilter;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local copy of auth-service's access-token revocation filter. Checks are
+ * pure memory lookups; only a Bloom filter hit costs a confirmation call,
+ * and confirmed false positives are remembered until the next change.
+ */
+@Service
+@Slf4j
+public class TokenRevocationCache {
+    private static final int MAX_CONFIRMED_ENTRIES = 10_000;
+
+    private final RestClient restClient;
+    private final AtomicReference<State> state = new AtomicReference<>();
+    private final Map<String, Boolean> confirmed = new ConcurrentHashMap<>();
+
+    public TokenRevocationCache(@Value("${auth-service.url}") String authServiceUrl,
+                                @Value("${internal.api-token:}") String internalApiToken) {
+        // The revocation endpoints expose user emails, so auth-service serves them to internal callers only
+        this.restClient = RestClient.builder()
+                .baseUrl(authServiceUrl)
+                .defaultHeader("X-Internal-Token", internalApiToken)
+                .build();
+    }
+
+    public boolean isRevoked(String jti, String subject, long issuedAtEpochSeconds) {
+        State current = state.get();
+        if (current == null) {
+            // Nothing loaded yet; do not lock every user out while auth-service starts
+            return false;
+        }
+
+        boolean mightBeRevoked = (jti != null && current.filter().mightContain(RevocationBloomFilter.jtiKey(jti)))
+                || current.filter().mightContain(RevocationBloomFilter.subjectKey(subject));
+        if (!mightBeRevoked) {
+            return false;
+        }
+
+        String cacheKey = jti != null ? jti : subject + "@" + issuedAtEpochSeconds;
+        Boolean cached = confirmed.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Boolean revoked = confirm(jti, subject, issuedAtEpochSeconds);
+        if (revoked == null) {
+            // Fail closed: a possible revocation we cannot confirm is treated as revoked
+            return true;
+        }
+        if (confirmed.size() >= MAX_CONFIRMED_ENTRIES) {
+            confirmed.clear();
+        }
+        confirmed.put(cacheKey, revoked);
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            State current = state.get();
+            if (current == null) {
+                loadSnapshot();
+                return;
+            }
+
+            DeltaResponse delta = restClient.get()
+                    .uri("/api/v1/auth/revocations/delta?since={since}", current.version())
+                    .retrieve()
+                    .body(DeltaResponse.class);
+            if (delta == null) {
+                return;
+            }
+            if (Boolean.TRUE.equals(delta.getSnapshotRequired())) {
+                loadSnapshot();
+                return;
+            }
+            if (delta.getKeys() == null || delta.getKeys().isEmpty()) {
+                return;
+            }
+
+            // Copy-on-write so concurrent readers never see a half-applied delta
+            RevocationBloomFilter next = new RevocationBloomFilter(current.filter().toLongArray(),
+                    current.filter().getNumBits(), current.filter().getNumHashes());
+            delta.getKeys().forEach(next::put);
+            state.set(new State(next, delta.getToVersion()));
+            confirmed.clear();
+            log.info("Applied {} revocations, now at version {}", delta.getKeys().size(), delta.getToVersion());
+        } catch (RestClientException e) {
+            log.warn("Could not sync revocation list from auth-service: {}", e.getMessage());
+        }
+    }
+
+    // Full reload sheds entries auth-service has dropped after their tokens expired
+    @Scheduled(fixedDelayString = "${gateway.revocation.snapshot-interval-ms:3600000}",
+            initialDelayString = "${gateway.revocation.snapshot-interval-ms:3600000}")
+    public void refreshSnapshot() {
+        try {
+            loadSnapshot();
+        } catch (RestClientException e) {
+            log.warn("Could not load revocation snapshot from auth-service: {}", e.getMessage());
+        }
+    }
+
+    private void loadSnapshot() {
+        SnapshotResponse snapshot = restClient.get()
+                .uri("/api/v1/auth/revocations/snapshot")
+                .retrieve()
+                .body(SnapshotResponse.class);
+        if (snapshot == null) {
+            return;
+        }
+
+        byte[] bytes = Base64.getDecoder().decode(snapshot.getBits());
+        long[] words = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(words);
+
+        RevocationBloomFilter filter = new RevocationBloomFilter(words, snapshot.getNumBits(), snapshot.getNumHashes());
+        state.set(new State(filter, snapshot.getVersion()));
+        confirmed.clear();
+        log.info("Loaded revocation snapshot at version {}", snapshot.getVersion());
+    }
+
+    private Boolean confirm(String jti, String subject, long issuedAtEpochSeconds) {
+        try {
+            ConfirmResponse response = restClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/v1/auth/revocations/check")
+                            .queryParamIfPresent("jti", Optional.ofNullable(jti))
+                            .queryParam("subject", subject)
+                            .queryParam("issuedAt", issuedAtEpochSeconds)
+                            .build())
+                    .retrieve()
+                    .body(ConfirmResponse.class);
+            return response != null ? Boolean.TRUE.equals(response.getRevoked()) : null;
+        } catch (RestClientException e) {
+            log.warn("Could not confirm revocation for {}: {}", subject, e.getMessage());
+            return null;
+        }
+    }
+
+    private record State(RevocationBloomFilter filter, long version) {
+    }
+
+    @Data
+    public static class SnapshotResponse {
+        private Long version;
+        private Integer numBits;
+        private Integer numHashes;
+        private String bits;
+    }
+
+    @Data
+    public static class DeltaResponse {
+        private Long fromVersion;
+        private Long toVersion;
+        private List<String> keys;
+        private Boolean snapshotRequired;
+    }
+
+    @Data
+    public static class ConfirmResponse {
+        private Boolean revoked;
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartappointmentbooking.api_gateway.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact Bloom filter over revoked token keys ("jti:&lt;id&gt;" or
+ * "sub:&lt;email&gt;"). The bit layout and hashing must stay identical to the
+ * copy in auth-service, which publishes the snapshots this filter is loaded from.
+ */
+public final class RevocationBloomFilter {
+    private final long[] bits;
+    private final int numBits;
+    private final int numHashes;
+
+    public RevocationBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, m));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new long[(numBits + 63) >>> 6];
+    }
+
+    public RevocationBloomFilter(long[] bits, int numBits, int numHashes) {
+        this.bits = bits.clone();
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int index = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int index = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long[] toLongArray() {
+        return bits.clone();
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    public static String jtiKey(String jti) {
+        return "jti:" + jti;
+    }
+
+    public static String subjectKey(String subject) {
+        return "sub:" + subject;
+    }
+
+    // FNV-1a over the UTF-8 bytes followed by a SplitMix64 finaliser
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        hash ^= hash >>> 31;
+        return hash;
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartappointmentbooking.appointment_service.client;
+
+import com.smartappointmentbooking.appointment_service.dto.PriceQuote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogPricingClient {
+    private final RestTemplate restTemplate;
+
+    @Value("${service-catalog-service.url:http://localhost:8004}")
+    private String catalogServiceUrl;
+
+    /**
+     * Fetches the authoritative price and duration for a doctor performing a
+     * service. Bookings are never priced from client input, so a failure here
+     * fails the booking.
+     */
+    public PriceQuote quote(Long doctorId, Long serviceId) {
+        String url = catalogServiceUrl + "/api/services/pricing/quote?doctorId={doctorId}&serviceId={serviceId}";
+        try {
+            PriceQuote quote = restTemplate.getForObject(url, PriceQuote.class, doctorId, serviceId);
+            if (quote == null || quote.getPrice() == null) {
+                throw new RuntimeException("Service not offered by this doctor");
+            }
+            return quote;
+        } catch (RestClientException e) {
+            log.warn("Pricing lookup failed for doctor {} and service {}: {}", doctorId, serviceId, e.getMessage());
+            throw new RuntimeException("Unable to price appointment for doctor " + doctorId + " and service " + serviceId, e);
+        }
+    }
+}
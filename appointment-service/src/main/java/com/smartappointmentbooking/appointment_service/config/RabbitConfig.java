@@ -0,0 +1,25 @@
+package com.smartappointmentbooking.appointment_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        // Boot's mapper writes dates as ISO-8601 strings
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public TopicExchange appointmentEventsExchange(
+            @Value("${appointment-events.exchange:appointment.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+}
@@ -17,6 +17,7 @@ public class AppointmentResponse {
     private String reason;
     private String notes;
     private Double totalPrice;
+    private Integer durationMinutes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
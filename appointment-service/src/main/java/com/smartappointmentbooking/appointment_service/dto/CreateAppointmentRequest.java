@@ -14,5 +14,6 @@ public class CreateAppointmentRequest {
     private LocalDateTime appointmentDate;
     private String reason;
     private String notes;
+    // Ignored; the price is stamped from the service catalog
     private Double totalPrice;
 }
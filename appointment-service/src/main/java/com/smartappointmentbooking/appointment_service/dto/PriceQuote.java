@@ -0,0 +1,16 @@
+package com.smartappointmentbooking.appointment_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuote {
+    private Long doctorId;
+    private Long serviceId;
+    private Double price;
+    private Integer durationMinutes;
+    private Boolean doctorSpecific;
+    private Long catalogVersion;
+}
@@ -41,6 +41,9 @@ public class Appointment {
     @Column
     private Double totalPrice;
 
+    @Column
+    private Integer durationMinutes;
+
     @Builder.Default
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
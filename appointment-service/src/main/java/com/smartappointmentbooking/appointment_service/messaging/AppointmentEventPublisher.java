@@ -0,0 +1,51 @@
+package com.smartappointmentbooking.appointment_service.messaging;
+
+import com.smartappointmentbooking.appointment_service.entity.Appointment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Publishes appointment lifecycle events to the {@code appointment.events}
+ * topic exchange with routing keys {@code appointment.created},
+ * {@code appointment.updated} and {@code appointment.cancelled}. Each event
+ * carries the appointment's full current state, so consumers can apply them
+ * as upserts.
+ */
+@Component
+@Slf4j
+public class AppointmentEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+
+    public AppointmentEventPublisher(RabbitTemplate rabbitTemplate,
+                                     @Value("${appointment-events.exchange:appointment.events}") String exchange) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = exchange;
+    }
+
+    public void publish(String eventType, Appointment appointment) {
+        AppointmentEvent event = AppointmentEvent.builder()
+                .eventType(eventType)
+                .appointmentId(appointment.getId())
+                .patientId(appointment.getPatientId())
+                .doctorId(appointment.getDoctorId())
+                .serviceId(appointment.getServiceId())
+                .appointmentDate(appointment.getAppointmentDate())
+                .status(appointment.getStatus().name())
+                .occurredAt(LocalDateTime.now())
+                .build();
+        try {
+            rabbitTemplate.convertAndSend(exchange, "appointment." + eventType.toLowerCase(Locale.ROOT), event);
+        } catch (AmqpException e) {
+            // The appointment is already saved; a lost event only costs its reminders
+            log.error("Failed to publish {} event for appointment {}: {}", eventType, appointment.getId(),
+                    e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.smartappointmentbooking.appointment_service.service;
 
+import com.smartappointmentbooking.appointment_service.client.CatalogPricingClient;
 import com.smartappointmentbooking.appointment_service.dto.CreateAppointmentRequest;
+import com.smartappointmentbooking.appointment_service.dto.PriceQuote;
 import com.smartappointmentbooking.appointment_service.dto.UpdateAppointmentRequest;
 import com.smartappointmentbooking.appointment_service.dto.AppointmentResponse;
 import com.smartappointmentbooking.appointment_service.entity.Appointment;
+import com.smartappointmentbooking.appointment_service.messaging.AppointmentEventPublisher;
 import com.smartappointmentbooking.appointment_service.repository.AppointmentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,8 +20,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
+    private final CatalogPricingClient catalogPricingClient;
+    private final AppointmentEventPublisher appointmentEventPublisher;
 
     public AppointmentResponse createAppointment(CreateAppointmentRequest request) {
+        if (request.getDoctorId() == null || request.getServiceId() == null) {
+            throw new IllegalArgumentException("doctorId and serviceId are required");
+        }
+
+        // The price always comes from the catalog; a client-supplied total is ignored
+        PriceQuote quote = catalogPricingClient.quote(request.getDoctorId(), request.getServiceId());
+        if (request.getTotalPrice() != null && !request.getTotalPrice().equals(quote.getPrice())) {
+            log.debug("Ignoring client price {} for doctor {} and service {}, catalog price is {}",
+                    request.getTotalPrice(), request.getDoctorId(), request.getServiceId(), quote.getPrice());
+        }
+
         Appointment appointment = Appointment.builder()
                 .patientId(request.getPatientId())
                 .doctorId(request.getDoctorId())
@@ -26,11 +42,13 @@ public class AppointmentService {
                 .appointmentDate(request.getAppointmentDate())
                 .reason(request.getReason())
                 .notes(request.getNotes())
-                .totalPrice(request.getTotalPrice())
+                .totalPrice(quote.getPrice())
+                .durationMinutes(quote.getDurationMinutes())
                 .status(Appointment.AppointmentStatus.SCHEDULED)
                 .build();
 
         appointment = appointmentRepository.save(appointment);
+        appointmentEventPublisher.publish("CREATED", appointment);
         log.info("Appointment created: {}", appointment.getId());
         return mapToResponse(appointment);
     }
@@ -66,6 +84,9 @@ public class AppointmentService {
 
         appointment.setUpdatedAt(LocalDateTime.now());
         appointment = appointmentRepository.save(appointment);
+        appointmentEventPublisher.publish(
+                appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED ? "CANCELLED" : "UPDATED",
+                appointment);
         log.info("Appointment updated: {}", id);
         return mapToResponse(appointment);
     }
@@ -78,6 +99,7 @@ public class AppointmentService {
         appointment.setCancelledAt(LocalDateTime.now());
         appointment.setCancellationReason(cancellationReason);
         appointmentRepository.save(appointment);
+        appointmentEventPublisher.publish("CANCELLED", appointment);
         log.info("Appointment cancelled: {}", id);
     }
 
@@ -104,6 +126,7 @@ public class AppointmentService {
                 .reason(appointment.getReason())
                 .notes(appointment.getNotes())
                 .totalPrice(appointment.getTotalPrice())
+                .durationMinutes(appointment.getDurationMinutes())
                 .createdAt(appointment.getCreatedAt())
                 .updatedAt(appointment.getUpdatedAt())
                 .build();
@@ -40,15 +40,65 @@ CREATE TABLE IF NOT EXISTS user_roles (
 );
 
 -- Refresh Tokens Table
+-- token_hash holds the SHA-256 hex digest of the issued JWT, never the raw token
 CREATE TABLE IF NOT EXISTS refresh_tokens (
     id BIGSERIAL PRIMARY KEY,
-    token VARCHAR(500) UNIQUE NOT NULL,
+    token_hash CHAR(64) UNIQUE NOT NULL,
     user_id BIGINT NOT NULL,
     expiry_date TIMESTAMP NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Revocation list version; the single row is bumped (and locked) by every revocation
+CREATE TABLE IF NOT EXISTS revocation_state (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+INSERT INTO revocation_state (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+-- Revoked Tokens Table
+-- version is the revocation list version published to the gateway, assigned in commit order
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    version BIGINT,
+    jti VARCHAR(64),
+    subject VARCHAR(255),
+    revoked_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Outbox Table (user-service provisioning, written in the registration transaction)
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create import_jobs table
+CREATE TABLE IF NOT EXISTS import_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    stored_path VARCHAR(255) NOT NULL,
+    format VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    processed_lines BIGINT NOT NULL DEFAULT 0,
+    imported_count BIGINT NOT NULL DEFAULT 0,
+    skipped_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    last_error VARCHAR(2000),
+    requested_by VARCHAR(255) NOT NULL,
+    owner VARCHAR(64),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Insert default roles
 INSERT INTO roles (name, description) VALUES 
     ('ROLE_ADMIN', 'Administrator role with full access'),
@@ -59,10 +109,20 @@ ON CONFLICT (name) DO NOTHING;
 -- Create indexes for performance
 CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_is_deleted ON users(is_deleted);
-CREATE INDEX IF NOT EXISTS idx_refresh_tokens_token ON refresh_tokens(token);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
 CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens(user_id);
 CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles(user_id);
 CREATE INDEX IF NOT EXISTS idx_user_roles_role_id ON user_roles(role_id);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_jti ON revoked_tokens(jti);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_subject ON revoked_tokens(subject);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_version ON revoked_tokens(version);
+CREATE INDEX IF NOT EXISTS idx_outbox_events_status_next_attempt ON outbox_events(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_import_jobs_status ON import_jobs(status);
+
+-- Migration from raw refresh tokens: the service runs
+-- src/main/resources/db/refresh-token-hash-migration.sql on startup, which backfills
+-- token_hash from the raw tokens and drops the token column, so sessions survive.
 
 -- Connect to the database
 \c auth_db;
@@ -0,0 +1,112 @@
+package com.smartappointmentbooking.auth_service.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.auth_service.entity.OutboxEvent;
+import com.smartappointmentbooking.auth_service.service.UserProvisioningService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes outbox events to the {@code user.events} topic exchange with
+ * publisher confirms, so a batch only counts as delivered once the broker has
+ * accepted every message. Messages are mandatory: one that no queue is bound
+ * to receive (user-service never started, or its queue was deleted) comes
+ * back as a return, which fails the batch instead of letting the broker
+ * confirm and drop it. Consumers deduplicate by email, which makes a
+ * republished batch harmless.
+ */
+@Component
+@Slf4j
+public class UserEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+    private final UserProvisioningService userProvisioningService;
+    private final ObjectMapper objectMapper;
+    private final String exchange;
+    private final long confirmTimeoutMs;
+    // Message ids the broker returned as unroutable; checked once the batch is confirmed
+    private final Set<String> returned = ConcurrentHashMap.newKeySet();
+
+    public UserEventPublisher(RabbitTemplate rabbitTemplate,
+                              UserProvisioningService userProvisioningService,
+                              ObjectMapper objectMapper,
+                              @Value("${auth.user-events.exchange:user.events}") String exchange,
+                              @Value("${auth.user-events.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.userProvisioningService = userProvisioningService;
+        this.objectMapper = objectMapper;
+        this.exchange = exchange;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setReturnsCallback(message ->
+                returned.add(message.getMessage().getMessageProperties().getMessageId()));
+    }
+
+    /**
+     * @throws AmqpException if the broker is unreachable, does not confirm the
+     *                       batch in time, or returns any message as unroutable
+     */
+    public void publish(List<OutboxEvent> events) {
+        List<String> messageIds = new ArrayList<>(events.size());
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : events) {
+                Message message = toMessage(event);
+                messageIds.add(message.getMessageProperties().getMessageId());
+                operations.send(exchange, routingKey(event.getEventType()), message);
+            }
+            // The broker sends basic.return before the ack, so returns are in by now
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+
+        long unroutable = messageIds.stream().filter(returned::remove).count();
+        if (unroutable > 0) {
+            throw new AmqpException(unroutable + " of " + events.size()
+                    + " user events were unroutable on " + exchange + "; is user-service's queue bound?");
+        }
+        log.info("Published {} user events to {}", events.size(), exchange);
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>(userProvisioningService.readPayload(event));
+        body.put("eventId", event.getId());
+        body.put("eventType", event.getEventType().name());
+        body.put("userId", event.getAggregateId());
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise user event " + event.getId(), e);
+        }
+        return MessageBuilder.withBody(json)
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId("auth-outbox-" + event.getId())
+                .setTimestamp(Date.from(event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()))
+                .build();
+    }
+
+    // USER_CREATED -> user.created
+    private static String routingKey(OutboxEvent.EventType eventType) {
+        return eventType.name().toLowerCase(Locale.ROOT).replace('_', '.');
+    }
+}
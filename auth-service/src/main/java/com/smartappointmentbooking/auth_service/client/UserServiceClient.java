@@ -1,18 +1,18 @@
 package com.smartappointmentbooking.auth_service.client;
 
-import com.smartappointmentbooking.auth_service.dto.RegisterRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -24,35 +24,28 @@ public class UserServiceClient {
     @Value("${user-service.url:http://localhost:8002}")
     private String userServiceUrl;
 
-    public void createUserInUserService(RegisterRequest registerRequest, Long userId) {
-        try {
-            Map<String, Object> userPayload = new HashMap<>();
-            userPayload.put("email", registerRequest.getEmail());
-            userPayload.put("firstName", registerRequest.getFirstName());
-            userPayload.put("lastName", registerRequest.getLastName());
-            userPayload.put("phoneNumber", registerRequest.getPhoneNumber());
-            userPayload.put("role", "ROLE_" + registerRequest.getRole());
-            userPayload.put("address", "");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(userPayload, headers);
-            String url = userServiceUrl + "/api/users";
-
-            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("User created in user-service with email: {}", registerRequest.getEmail());
-            } else {
-                log.warn("Failed to create user in user-service. Status: {}", response.getStatusCode());
-            }
-        } catch (RestClientException e) {
-            log.error("Error calling user-service to create user: {}", registerRequest.getEmail(), e);
-            // Don't throw exception - let auth service registration succeed even if user-service call fails
-            // This prevents cascading failures between services
-        } catch (Exception e) {
-            log.error("Unexpected error while creating user in user-service", e);
+    @Value("${internal.api-token:}")
+    private String internalApiToken;
+
+    /**
+     * Creates or updates a batch of users in user-service. The endpoint upserts
+     * by email, so a batch that is retried after a partial failure is harmless.
+     *
+     * @throws RestClientException if user-service is unreachable or rejects the batch
+     */
+    public void upsertUsers(List<Map<String, Object>> userPayloads) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Internal-Token", internalApiToken);
+
+        HttpEntity<List<Map<String, Object>>> request = new HttpEntity<>(userPayloads, headers);
+        String url = userServiceUrl + "/api/users/bulk";
+
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PUT, request, String.class);
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("user-service responded with " + response.getStatusCode());
         }
+        log.info("Provisioned {} users in user-service", userPayloads.size());
     }
 }
@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.auth_service.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public TopicExchange userEventsExchange(@Value("${auth.user-events.exchange:user.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+}
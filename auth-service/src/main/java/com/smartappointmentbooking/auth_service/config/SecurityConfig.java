@@ -1,7 +1,10 @@
 package com.smartappointmentbooking.auth_service.config;
 
+import com.smartappointmentbooking.auth_service.security.BCryptCostCalibrator;
 import com.smartappointmentbooking.auth_service.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +20,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -25,13 +30,21 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt.strength:0}") int strength,
+                                           @Value("${auth.password.bcrypt.target-ms:250}") long targetMs) {
+        // A fixed strength wins; otherwise pick the cost that fits the target on this host
+        int cost = strength > 0
+                ? strength
+                : BCryptCostCalibrator.calibrate(targetMs, BCryptCostCalibrator.MIN_COST, BCryptCostCalibrator.MAX_COST);
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        return builder
+                .connectTimeout(Duration.ofSeconds(2))
+                .readTimeout(Duration.ofSeconds(10))
+                .build();
     }
 
     @Bean
@@ -48,6 +61,11 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/auth/register", "/api/v1/auth/login", "/api/v1/auth/refresh")
                         .permitAll()
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/api-docs", "/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // No user JWT here; RevocationController requires the internal service token instead
+                        .requestMatchers(HttpMethod.GET, "/api/v1/auth/revocations/snapshot",
+                                "/api/v1/auth/revocations/delta", "/api/v1/auth/revocations/check")
+                        .permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
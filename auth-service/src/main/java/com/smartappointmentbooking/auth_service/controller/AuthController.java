@@ -4,12 +4,15 @@ import com.smartappointmentbooking.auth_service.dto.AuthResponse;
 import com.smartappointmentbooking.auth_service.dto.LoginRequest;
 import com.smartappointmentbooking.auth_service.dto.RegisterRequest;
 import com.smartappointmentbooking.auth_service.dto.UserDTO;
+import com.smartappointmentbooking.auth_service.security.ClientIpResolver;
 import com.smartappointmentbooking.auth_service.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Authentication", description = "Authentication and authorization endpoints")
 public class AuthController {
     private final AuthService authService;
+    private final ClientIpResolver clientIpResolver;
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
@@ -31,8 +35,9 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Login user and get tokens")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        AuthResponse response = authService.login(loginRequest);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        AuthResponse response = authService.login(loginRequest, clientIpResolver.resolve(request));
         return ResponseEntity.ok(response);
     }
 
@@ -43,6 +48,13 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the current access token and its refresh tokens", security = { @SecurityRequirement(name = "bearer") })
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Get current authenticated user", security = { @SecurityRequirement(name = "bearer") })
     public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
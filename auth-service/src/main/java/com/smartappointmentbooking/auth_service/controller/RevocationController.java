@@ -0,0 +1,85 @@
+package com.smartappointmentbooking.auth_service.controller;
+
+import com.smartappointmentbooking.auth_service.dto.RevocationDelta;
+import com.smartappointmentbooking.auth_service.dto.RevocationSnapshot;
+import com.smartappointmentbooking.auth_service.dto.RevokeTokenRequest;
+import com.smartappointmentbooking.auth_service.service.AuthService;
+import com.smartappointmentbooking.auth_service.service.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/auth/revocations")
+@RequiredArgsConstructor
+@Tag(name = "Token Revocation", description = "Access token revocation list and admin kill-switch")
+public class RevocationController {
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthService authService;
+
+    // Delta keys and checks name users by email, so only the gateway may read them
+    @Value("${internal.api-token:}")
+    private String internalApiToken;
+
+    @GetMapping("/snapshot")
+    @Operation(summary = "Get the full revocation Bloom filter at its current version (internal)")
+    public ResponseEntity<RevocationSnapshot> getSnapshot(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token) {
+        if (!isInternalCaller(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(tokenRevocationService.getSnapshot());
+    }
+
+    @GetMapping("/delta")
+    @Operation(summary = "Get revocation keys added after the given version (internal)")
+    public ResponseEntity<RevocationDelta> getDelta(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token,
+            @RequestParam long since) {
+        if (!isInternalCaller(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(tokenRevocationService.getDelta(since));
+    }
+
+    @GetMapping("/check")
+    @Operation(summary = "Confirm whether a token is revoked after a Bloom filter hit (internal)")
+    public ResponseEntity<Map<String, Boolean>> check(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token,
+            @RequestParam(required = false) String jti,
+            @RequestParam String subject,
+            @RequestParam long issuedAt) {
+        if (!isInternalCaller(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        LocalDateTime issued = LocalDateTime.ofInstant(Instant.ofEpochSecond(issuedAt), ZoneId.systemDefault());
+        return ResponseEntity.ok(Map.of("revoked", tokenRevocationService.isRevoked(jti, subject, issued)));
+    }
+
+    @PostMapping
+    @Operation(summary = "Revoke a token by jti or every token of a subject (admin only)", security = { @SecurityRequirement(name = "bearer") })
+    public ResponseEntity<Void> revoke(@RequestBody RevokeTokenRequest request, Authentication authentication) {
+        authService.revokeTokens(request, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isInternalCaller(String token) {
+        // No configured token means no internal callers, not open access
+        return internalApiToken != null && !internalApiToken.isBlank() && token != null
+                && MessageDigest.isEqual(internalApiToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
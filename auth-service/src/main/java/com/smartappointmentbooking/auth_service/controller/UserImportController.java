@@ -0,0 +1,40 @@
+package com.smartappointmentbooking.auth_service.controller;
+
+import com.smartappointmentbooking.auth_service.dto.ImportJobResponse;
+import com.smartappointmentbooking.auth_service.service.AuthService;
+import com.smartappointmentbooking.auth_service.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/auth/imports")
+@RequiredArgsConstructor
+@Tag(name = "User Import", description = "Bulk user import from CSV or NDJSON (admin only)")
+public class UserImportController {
+    private final UserImportService userImportService;
+    private final AuthService authService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Start a bulk user import", security = { @SecurityRequirement(name = "bearer") })
+    public ResponseEntity<ImportJobResponse> startImport(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(required = false) String format,
+                                                         Authentication authentication) throws IOException {
+        return ResponseEntity.accepted().body(userImportService.startImport(file, format, authentication.getName()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get the progress of a bulk user import", security = { @SecurityRequirement(name = "bearer") })
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable Long id, Authentication authentication) {
+        authService.requireAdmin(authentication.getName());
+        return ResponseEntity.ok(userImportService.getJob(id));
+    }
+}
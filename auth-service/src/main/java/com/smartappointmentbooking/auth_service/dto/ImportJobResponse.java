@@ -0,0 +1,22 @@
+package com.smartappointmentbooking.auth_service.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private Long id;
+    private String fileName;
+    private String format;
+    private String status;
+    private Long processedLines;
+    private Long importedCount;
+    private Long skippedCount;
+    private Long failedCount;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
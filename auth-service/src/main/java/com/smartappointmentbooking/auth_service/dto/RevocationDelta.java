@@ -0,0 +1,16 @@
+package com.smartappointmentbooking.auth_service.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationDelta {
+    private Long fromVersion;
+    private Long toVersion;
+    private List<String> keys;
+    // Set when the caller is too far behind and should fetch a full snapshot
+    private Boolean snapshotRequired;
+}
@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.auth_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationSnapshot {
+    private Long version;
+    private Integer numBits;
+    private Integer numHashes;
+    // Base64 of the filter words, big-endian
+    private String bits;
+}
@@ -0,0 +1,13 @@
+package com.smartappointmentbooking.auth_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokeTokenRequest {
+    // Either a single token id or a subject (email) whose tokens should all be revoked
+    private String jti;
+    private String subject;
+}
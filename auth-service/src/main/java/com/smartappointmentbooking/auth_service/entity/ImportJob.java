@@ -0,0 +1,76 @@
+package com.smartappointmentbooking.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String storedPath;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Format format;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    // Last input line whose chunk has been committed; a restarted job resumes after it
+    @Column(nullable = false)
+    private Long processedLines;
+
+    @Column(nullable = false)
+    private Long importedCount;
+
+    @Column(nullable = false)
+    private Long skippedCount;
+
+    @Column(nullable = false)
+    private Long failedCount;
+
+    @Column(length = 2000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private String requestedBy;
+
+    // Instance currently processing the job; claimed with a conditional update, see ImportJobRepository
+    @Column(length = 64)
+    private String owner;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
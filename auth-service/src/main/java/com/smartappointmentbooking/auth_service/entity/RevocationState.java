@@ -0,0 +1,24 @@
+package com.smartappointmentbooking.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row table holding the revocation list version. Every revocation bumps
+ * it with a row-locking update, so versions are assigned in commit order.
+ */
+@Entity
+@Table(name = "revocation_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationState {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,41 @@
+package com.smartappointmentbooking.auth_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_jti", columnList = "jti"),
+        @Index(name = "idx_revoked_tokens_subject", columnList = "subject"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_version", columnList = "version")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Revocation list version from revocation_state; unlike the id it follows commit order
+    @Column
+    private Long version;
+
+    // Set when a single access token is revoked
+    @Column(length = 64)
+    private String jti;
+
+    // Set when every token issued to a subject before revokedAt is revoked
+    @Column
+    private String subject;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    // Once this passes, every token covered by the entry has expired on its own
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
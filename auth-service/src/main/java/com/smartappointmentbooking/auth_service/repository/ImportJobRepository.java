@@ -0,0 +1,50 @@
+package com.smartappointmentbooking.auth_service.repository;
+
+import com.smartappointmentbooking.auth_service.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findByStatusIn(Collection<ImportJob.Status> statuses);
+
+    // Takes a pending job, or a running one whose owner has stopped reporting progress
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :running, j.owner = :owner, j.updatedAt = :now "
+            + "WHERE j.id = :id AND (j.status = :pending OR (j.status = :running AND j.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore,
+              @Param("pending") ImportJob.Status pending,
+              @Param("running") ImportJob.Status running);
+
+    // Run inside each chunk's transaction; 0 means another instance has taken the job over
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.updatedAt = :now WHERE j.id = :id AND j.owner = :owner AND j.status = :running")
+    int heartbeat(@Param("id") Long id,
+                  @Param("owner") String owner,
+                  @Param("now") LocalDateTime now,
+                  @Param("running") ImportJob.Status running);
+
+    // Ends the job only while this instance still owns it; 0 means it was taken over
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :status, j.lastError = COALESCE(:lastError, j.lastError), "
+            + "j.updatedAt = :now WHERE j.id = :id AND j.owner = :owner AND j.status = :running")
+    int finish(@Param("id") Long id,
+               @Param("owner") String owner,
+               @Param("status") ImportJob.Status status,
+               @Param("lastError") String lastError,
+               @Param("now") LocalDateTime now,
+               @Param("running") ImportJob.Status running);
+}
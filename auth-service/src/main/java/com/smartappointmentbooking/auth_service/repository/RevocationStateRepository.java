@@ -0,0 +1,17 @@
+package com.smartappointmentbooking.auth_service.repository;
+
+import com.smartappointmentbooking.auth_service.entity.RevocationState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevocationStateRepository extends JpaRepository<RevocationState, Integer> {
+    @Modifying
+    @Query("UPDATE RevocationState s SET s.version = s.version + 1 WHERE s.id = 1")
+    int incrementVersion();
+
+    @Query("SELECT s.version FROM RevocationState s WHERE s.id = 1")
+    Long currentVersion();
+}
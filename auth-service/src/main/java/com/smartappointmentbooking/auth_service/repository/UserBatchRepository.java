@@ -0,0 +1,109 @@
+package com.smartappointmentbooking.auth_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain JDBC batch writes for bulk imports. Users use IDENTITY keys, which
+ * disables Hibernate insert batching, so these statements bypass JPA and
+ * are issued as real JDBC batches instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails), String.class));
+    }
+
+    /**
+     * Inserts the users, silently skipping any whose email was registered
+     * concurrently since the existence check; {@link #findInsertedIds} tells
+     * which rows this batch actually wrote.
+     */
+    public void insertUsers(List<NewUser> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO users (email, password, first_name, last_name, phone_number, email_verified, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                users, users.size(), (ps, user) -> {
+                    ps.setString(1, user.email());
+                    ps.setString(2, user.passwordHash());
+                    ps.setString(3, user.firstName());
+                    ps.setString(4, user.lastName());
+                    ps.setString(5, user.phoneNumber());
+                    ps.setBoolean(6, false);
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+    }
+
+    /**
+     * Ids by email of the rows {@link #insertUsers} wrote. Each BCrypt hash is
+     * salted and therefore unique, so a row holding our hash is ours; batched
+     * update counts are not reliable enough across drivers to tell.
+     */
+    public Map<String, Long> findInsertedIds(List<NewUser> users) {
+        Map<String, Long> ids = new HashMap<>();
+        if (users.isEmpty()) {
+            return ids;
+        }
+        Map<String, String> hashes = new HashMap<>();
+        users.forEach(user -> hashes.put(user.email(), user.passwordHash()));
+        namedParameterJdbcTemplate.query("SELECT id, email, password FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", hashes.keySet()),
+                (RowCallbackHandler) rs -> {
+                    String email = rs.getString("email");
+                    if (rs.getString("password").equals(hashes.get(email))) {
+                        ids.put(email, rs.getLong("id"));
+                    }
+                });
+        return ids;
+    }
+
+    public void insertUserRoles(List<long[]> userRolePairs) {
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)",
+                userRolePairs, userRolePairs.size(), (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                });
+    }
+
+    public void insertOutboxEvents(String eventType, List<Map.Entry<Long, String>> payloadsByUserId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO outbox_events (event_type, aggregate_id, payload, status, attempts, next_attempt_at, created_at) "
+                        + "VALUES (?, ?, ?, 'PENDING', 0, ?, ?)",
+                payloadsByUserId, payloadsByUserId.size(), (ps, entry) -> {
+                    ps.setString(1, eventType);
+                    ps.setLong(2, entry.getKey());
+                    ps.setString(3, entry.getValue());
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                });
+    }
+
+    public record NewUser(String email, String passwordHash, String firstName, String lastName,
+                          String phoneNumber, Long roleId) {
+    }
+}
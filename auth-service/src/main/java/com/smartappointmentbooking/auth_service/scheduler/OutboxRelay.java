@@ -0,0 +1,144 @@
+package com.smartappointmentbooking.auth_service.scheduler;
+
+import com.smartappointmentbooking.auth_service.client.UserEventPublisher;
+import com.smartappointmentbooking.auth_service.client.UserServiceClient;
+import com.smartappointmentbooking.auth_service.entity.OutboxEvent;
+import com.smartappointmentbooking.auth_service.repository.OutboxEventRepository;
+import com.smartappointmentbooking.auth_service.service.UserProvisioningService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserProvisioningService userProvisioningService;
+    private final UserServiceClient userServiceClient;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // "amqp" publishes to the user.events exchange; "http" calls user-service's bulk endpoint directly
+    @Value("${auth.outbox.transport:amqp}")
+    private String transport;
+
+    @Value("${auth.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${auth.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${auth.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${auth.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    // Longer than a send can take (HTTP timeout or broker confirm timeout)
+    @Value("${auth.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${auth.outbox.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * Claims a batch, delivers it and records the outcome, each step in its own
+     * short transaction: no row lock or pooled connection is held while
+     * waiting on user-service or the broker. A claim pushes the rows' due time
+     * out by the lease, so other instances skip them and a crash mid-send only
+     * delays them.
+     */
+    @Scheduled(fixedDelayString = "${auth.outbox.relay-interval-ms:1000}")
+    public void relayPendingEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(
+                    OutboxEvent.Status.PENDING, now, PageRequest.of(0, batchSize));
+            due.forEach(event -> event.setNextAttemptAt(now.plusNanos(claimLeaseMs * 1_000_000)));
+            return outboxEventRepository.saveAll(due);
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        // A payload that cannot be read will never succeed, so fail that row alone
+        List<OutboxEvent> events = new ArrayList<>();
+        List<Map<String, Object>> payloads = new ArrayList<>();
+        for (OutboxEvent event : claimed) {
+            try {
+                payloads.add(userProvisioningService.readPayload(event));
+                events.add(event);
+            } catch (IllegalStateException e) {
+                log.error("Outbox event {} has an unreadable payload: {}", event.getId(), e.getMessage());
+                event.setStatus(OutboxEvent.Status.FAILED);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(e.getMessage()));
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            if ("http".equalsIgnoreCase(transport)) {
+                userServiceClient.upsertUsers(payloads);
+            } else {
+                userEventPublisher.publish(events);
+            }
+            events.forEach(event -> {
+                event.setStatus(OutboxEvent.Status.SENT);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(null);
+            });
+        } catch (RestClientException | AmqpException e) {
+            log.warn("Failed to relay {} outbox events via {}: {}", events.size(), transport, e.getMessage());
+            events.forEach(event -> scheduleRetry(event, now, e.getMessage()));
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(events));
+    }
+
+    @Scheduled(cron = "${auth.outbox.cleanup-cron:0 30 3 * * *}")
+    public void deleteDeliveredEvents() {
+        int deleted = outboxEventRepository.deleteByStatusAndCreatedAtBefore(
+                OutboxEvent.Status.SENT, LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} delivered outbox events", deleted);
+        }
+    }
+
+    private void scheduleRetry(OutboxEvent event, LocalDateTime now, String error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error));
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            log.error("Giving up on outbox event {} for user {} after {} attempts",
+                    event.getId(), event.getAggregateId(), attempts);
+            return;
+        }
+
+        // Exponential backoff with full jitter so retries from many rows do not line up
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(initialBackoffMs, Math.max(initialBackoffMs, ceiling) + 1);
+        event.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+}
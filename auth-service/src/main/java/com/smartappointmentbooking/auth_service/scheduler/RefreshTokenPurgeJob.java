@@ -0,0 +1,42 @@
+package com.smartappointmentbooking.auth_service.scheduler;
+
+import com.smartappointmentbooking.auth_service.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurgeJob {
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${auth.refresh-token.purge.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge.interval-ms:3600000}",
+            initialDelayString = "${auth.refresh-token.purge.initial-delay-ms:60000}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+
+        // Each batch commits on its own so the job never holds long-running locks
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                purged += refreshTokenRepository.deleteByIdIn(ids);
+            }
+        } while (ids.size() == batchSize);
+
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+}
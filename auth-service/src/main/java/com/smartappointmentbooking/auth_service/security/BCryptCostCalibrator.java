@@ -0,0 +1,47 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Picks the highest BCrypt cost factor whose hash time stays within a target
+ * budget on the current hardware. Each cost step doubles the work, so one
+ * measurement at the minimum cost is enough to extrapolate the rest.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+    public static final int MIN_COST = 10;
+    public static final int MAX_COST = 16;
+
+    private static final String SAMPLE_PASSWORD = "calibration-Password-1234";
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        int floor = Math.max(4, minCost);
+        int ceiling = Math.min(31, Math.max(floor, maxCost));
+
+        // Warm up the JIT so the first sample is not dominated by interpretation
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(floor));
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double estimatedMillis = best / 1_000_000.0;
+        int cost = floor;
+        while (cost < ceiling && estimatedMillis * 2 <= targetMillis) {
+            estimatedMillis *= 2;
+            cost++;
+        }
+
+        log.info("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms)",
+                cost, Math.round(estimatedMillis), targetMillis);
+        return cost;
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Works out the address a login came from for throttling. X-Forwarded-For is
+ * only believed when the request arrives from a configured proxy, and then
+ * only the hops those proxies appended: the list is walked from the right and
+ * the first address that isn't itself a trusted proxy is the client.
+ * Anything further left was supplied by the client and could be anything.
+ */
+@Component
+public class ClientIpResolver {
+    private final Set<String> trustedProxies;
+
+    public ClientIpResolver(@Value("${auth.login-throttle.trusted-proxies:}") Set<String> trustedProxies) {
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    public String resolve(HttpServletRequest request) {
+        return resolve(request.getRemoteAddr(), request.getHeader("X-Forwarded-For"));
+    }
+
+    String resolve(String remoteAddr, String forwardedFor) {
+        if (!trustedProxies.contains(remoteAddr) || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (!hop.isEmpty() && !trustedProxies.contains(hop)) {
+                return hop;
+            }
+        }
+        return remoteAddr;
+    }
+}
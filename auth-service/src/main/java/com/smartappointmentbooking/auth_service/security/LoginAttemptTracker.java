@@ -0,0 +1,168 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import com.smartappointmentbooking.auth_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window login failure counters per email and per client IP. Once a
+ * key crosses its threshold it is locked out for an exponentially growing
+ * period, and {@link #checkAllowed} rejects it before any database lookup or
+ * BCrypt work happens.
+ */
+@Component
+@Slf4j
+public class LoginAttemptTracker {
+    private static final int BUCKETS = 10;
+
+    private final ConcurrentMap<String, FailureWindow> emailWindows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FailureWindow> ipWindows = new ConcurrentHashMap<>();
+    private final long bucketMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final long baseLockoutMillis;
+    private final long maxLockoutMillis;
+    private final Counter failureCounter;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+    private final Counter lockouts;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginAttemptTracker(MeterRegistry meterRegistry,
+                               @Value("${auth.login-throttle.window-seconds:600}") long windowSeconds,
+                               @Value("${auth.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                               @Value("${auth.login-throttle.max-failures-per-ip:50}") int maxFailuresPerIp,
+                               @Value("${auth.login-throttle.base-lockout-seconds:30}") long baseLockoutSeconds,
+                               @Value("${auth.login-throttle.max-lockout-seconds:3600}") long maxLockoutSeconds) {
+        this(meterRegistry, windowSeconds, maxFailuresPerEmail, maxFailuresPerIp, baseLockoutSeconds,
+                maxLockoutSeconds, System::currentTimeMillis);
+    }
+
+    LoginAttemptTracker(MeterRegistry meterRegistry, long windowSeconds, int maxFailuresPerEmail,
+                        int maxFailuresPerIp, long baseLockoutSeconds, long maxLockoutSeconds, LongSupplier clock) {
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, windowSeconds * 1000 / BUCKETS);
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.baseLockoutMillis = baseLockoutSeconds * 1000;
+        this.maxLockoutMillis = maxLockoutSeconds * 1000;
+
+        this.failureCounter = Counter.builder("auth.login.failures").register(meterRegistry);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("scope", "email").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("scope", "ip").register(meterRegistry);
+        this.lockouts = Counter.builder("auth.login.lockouts").register(meterRegistry);
+        Gauge.builder("auth.login.tracked.keys", this, t -> t.emailWindows.size() + t.ipWindows.size())
+                .register(meterRegistry);
+    }
+
+    public void checkAllowed(String email, String clientIp) {
+        long now = clock.getAsLong();
+        long emailWait = remainingLockout(emailWindows.get(normalize(email)), now);
+        if (emailWait > 0) {
+            emailRejections.increment();
+            throw new TooManyRequestsException("Too many failed login attempts for this account", toSeconds(emailWait));
+        }
+        long ipWait = remainingLockout(clientIp != null ? ipWindows.get(clientIp) : null, now);
+        if (ipWait > 0) {
+            ipRejections.increment();
+            throw new TooManyRequestsException("Too many failed login attempts from this address", toSeconds(ipWait));
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        long now = clock.getAsLong();
+        failureCounter.increment();
+        recordFailure(emailWindows, normalize(email), maxFailuresPerEmail, now);
+        if (clientIp != null) {
+            recordFailure(ipWindows, clientIp, maxFailuresPerIp, now);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        // Only the account is forgiven; a shared IP keeps its history
+        emailWindows.remove(normalize(email));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-throttle.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        long idleCutoff = now - bucketMillis * BUCKETS;
+        emailWindows.values().removeIf(w -> w.isIdle(idleCutoff, now));
+        ipWindows.values().removeIf(w -> w.isIdle(idleCutoff, now));
+    }
+
+    private void recordFailure(ConcurrentMap<String, FailureWindow> windows, String key, int threshold, long now) {
+        FailureWindow window = windows.computeIfAbsent(key, k -> new FailureWindow());
+        long failures = window.increment(now, bucketMillis);
+        if (failures >= threshold && window.lockedUntil.get() <= now) {
+            int level = window.lockoutLevel.getAndIncrement();
+            long lockout = Math.min(maxLockoutMillis, baseLockoutMillis << Math.min(level, 20));
+            window.lockedUntil.set(now + lockout);
+            lockouts.increment();
+            log.warn("Login locked for {} ms after {} failures (level {})", lockout, failures, level + 1);
+        }
+    }
+
+    private static long remainingLockout(FailureWindow window, long now) {
+        return window == null ? 0 : window.lockedUntil.get() - now;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ring of per-bucket counters. Each slot remembers which time bucket it
+     * currently counts, so stale slots are reset lazily on write and skipped
+     * on read without any locking.
+     */
+    private static final class FailureWindow {
+        private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong lockedUntil = new AtomicLong();
+        private final AtomicInteger lockoutLevel = new AtomicInteger();
+        private final AtomicLong lastFailureAt = new AtomicLong();
+
+        long increment(long now, long bucketMillis) {
+            long epoch = now / bucketMillis;
+            int slot = (int) (epoch % BUCKETS);
+            long slotEpoch = epochs.get(slot);
+            if (slotEpoch != epoch && epochs.compareAndSet(slot, slotEpoch, epoch)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+            lastFailureAt.set(now);
+
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (epoch - epochs.get(i) < BUCKETS) {
+                    total += counts.get(i);
+                }
+            }
+            return total;
+        }
+
+        boolean isIdle(long idleCutoff, long now) {
+            return lastFailureAt.get() < idleCutoff && lockedUntil.get() <= now;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import com.smartappointmentbooking.auth_service.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable copy of the user fields the auth hot paths need, detached from
+ * the persistence context so it can be shared across requests.
+ */
+public record PrincipalSnapshot(
+        Long id,
+        String email,
+        String passwordHash,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        Boolean emailVerified,
+        Set<String> roles,
+        LocalDateTime createdAt) {
+
+    public static PrincipalSnapshot from(User user) {
+        return new PrincipalSnapshot(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPhoneNumber(),
+                user.getEmailVerified(),
+                user.getRoles().stream().map(r -> r.getName().toString()).collect(Collectors.toUnmodifiableSet()),
+                user.getCreatedAt());
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+}
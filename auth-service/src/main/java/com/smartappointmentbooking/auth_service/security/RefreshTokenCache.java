@@ -0,0 +1,47 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded hot tier for recently issued refresh tokens, keyed by token hash.
+ * Most tokens are redeemed by the client that just received them, so a hit
+ * lets the refresh path skip the lookup query. Entries are only hints: the
+ * database row is still deleted by id, and a miss on that delete means the
+ * token was already consumed or revoked.
+ */
+@Component
+public class RefreshTokenCache {
+    private final Map<String, Entry> entries;
+
+    public RefreshTokenCache(@Value("${auth.refresh-token.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized void put(String tokenHash, Entry entry) {
+        entries.put(tokenHash, entry);
+    }
+
+    public synchronized Entry remove(String tokenHash) {
+        return entries.remove(tokenHash);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public record Entry(Long tokenId, Long userId, String email, LocalDateTime expiryDate) {
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiryDate);
+        }
+    }
+}
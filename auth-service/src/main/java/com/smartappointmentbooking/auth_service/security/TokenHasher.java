@@ -0,0 +1,24 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Reduces opaque tokens to a fixed-length SHA-256 hex digest so they can be
+ * stored and indexed without keeping the raw value.
+ */
+public final class TokenHasher {
+    private TokenHasher() {
+    }
+
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
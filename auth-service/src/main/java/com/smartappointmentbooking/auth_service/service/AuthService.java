@@ -1,9 +1,9 @@
 package com.smartappointmentbooking.auth_service.service;
 
-import com.smartappointmentbooking.auth_service.client.UserServiceClient;
 import com.smartappointmentbooking.auth_service.dto.AuthResponse;
 import com.smartappointmentbooking.auth_service.dto.LoginRequest;
 import com.smartappointmentbooking.auth_service.dto.RegisterRequest;
+import com.smartappointmentbooking.auth_service.dto.RevokeTokenRequest;
 import com.smartappointmentbooking.auth_service.dto.UserDTO;
 import com.smartappointmentbooking.auth_service.entity.RefreshToken;
 import com.smartappointmentbooking.auth_service.entity.Role;
@@ -12,18 +12,26 @@ import com.smartappointmentbooking.auth_service.exception.InvalidTokenException;
 import com.smartappointmentbooking.auth_service.exception.ResourceNotFoundException;
 import com.smartappointmentbooking.auth_service.exception.UserAlreadyExistsException;
 import com.smartappointmentbooking.auth_service.repository.RefreshTokenRepository;
-import com.smartappointmentbooking.auth_service.repository.RoleRepository;
 import com.smartappointmentbooking.auth_service.repository.UserRepository;
 import com.smartappointmentbooking.auth_service.security.JwtTokenProvider;
+import com.smartappointmentbooking.auth_service.security.LoginAttemptTracker;
+import com.smartappointmentbooking.auth_service.security.PasswordHashingExecutor;
+import com.smartappointmentbooking.auth_service.security.PrincipalSnapshot;
+import com.smartappointmentbooking.auth_service.security.RefreshTokenCache;
+import com.smartappointmentbooking.auth_service.security.TokenHasher;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,114 +40,211 @@ import java.util.stream.Collectors;
 public class AuthService {
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final PrincipalCache principalCache;
     private final JwtTokenProvider jwtTokenProvider;
-    private final PasswordEncoder passwordEncoder;
-    private final UserServiceClient userServiceClient;
-
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserProvisioningService userProvisioningService;
+    private final RefreshTokenCache refreshTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    // Hashes before opening the transaction, for the same reason as login
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest registerRequest) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new UserAlreadyExistsException("User with email " + registerRequest.getEmail() + " already exists");
         }
 
-        Role role = roleRepository.findByName(Role.RoleEnum.valueOf(registerRequest.getRole()))
-                .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
-
-        User user = User.builder()
-                .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
-                .firstName(registerRequest.getFirstName())
-                .lastName(registerRequest.getLastName())
-                .phoneNumber(registerRequest.getPhoneNumber())
-                .emailVerified(false)
+        Role role = roleRegistry.get(Role.RoleEnum.valueOf(registerRequest.getRole()));
+        String passwordHash = passwordHashingExecutor.encode(registerRequest.getPassword());
 
-                .roles(Set.of(role))
-                .build();
+        String accessToken = jwtTokenProvider.generateAccessToken(registerRequest.getEmail());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(registerRequest.getEmail());
 
-        user = userRepository.save(user);
+        PrincipalSnapshot principal = transactionTemplate.execute(status -> {
+            User user = User.builder()
+                    .email(registerRequest.getEmail())
+                    .password(passwordHash)
+                    .firstName(registerRequest.getFirstName())
+                    .lastName(registerRequest.getLastName())
+                    .phoneNumber(registerRequest.getPhoneNumber())
+                    .emailVerified(false)
+                    .roles(Set.of(role))
+                    .build();
 
-        // Create user in user-service database as well
-        userServiceClient.createUserInUserService(registerRequest, user.getId());
+            user = userRepository.save(user);
 
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getEmail());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+            // Provisioned in user-service asynchronously; the outbox row commits with the user
+            userProvisioningService.enqueueUserCreated(registerRequest, user.getId());
 
-        saveRefreshToken(user, refreshToken);
+            PrincipalSnapshot created = PrincipalSnapshot.from(user);
+            saveRefreshToken(created, refreshToken);
+            return created;
+        });
 
-        return buildAuthResponse(user, accessToken, refreshToken);
+        return buildAuthResponse(principal, accessToken, refreshToken);
     }
 
-    public AuthResponse login(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    /**
+     * Runs without the class-level transaction: BCrypt may wait on the hashing
+     * pool for seconds, and holding a pooled JDBC connection meanwhile would
+     * just move the starvation from request threads to the connection pool.
+     * The writes afterwards get their own short transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
+        // Locked-out callers are turned away before any query or hashing
+        loginAttemptTracker.checkAllowed(loginRequest.getEmail(), clientIp);
+
+        PrincipalSnapshot principal = principalCache.get(loginRequest.getEmail()).orElse(null);
+        if (principal == null) {
+            loginAttemptTracker.recordFailure(loginRequest.getEmail(), clientIp);
+            throw new ResourceNotFoundException("User not found");
+        }
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordHashingExecutor.matches(loginRequest.getPassword(), principal.passwordHash())) {
+            loginAttemptTracker.recordFailure(loginRequest.getEmail(), clientIp);
             throw new InvalidTokenException("Invalid credentials");
         }
+        loginAttemptTracker.recordSuccess(loginRequest.getEmail());
+
+        // Re-hash with the current cost factor while we still hold the raw password
+        String upgradedHash = passwordHashingExecutor.needsUpgrade(principal.passwordHash())
+                ? passwordHashingExecutor.encode(loginRequest.getPassword())
+                : null;
+
+        String accessToken = jwtTokenProvider.generateAccessToken(principal.email());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(principal.email());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (upgradedHash != null) {
+                User user = userRepository.findById(principal.id())
+                        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+                user.setPassword(upgradedHash);
+                userRepository.save(user);
+                log.info("Upgraded password hash for user: {}", user.getEmail());
+            }
+            refreshTokenRepository.deleteByUserId(principal.id());
+            saveRefreshToken(principal, refreshToken);
+        });
+        if (upgradedHash != null) {
+            principalCache.invalidate(principal.email());
+        }
 
-        String accessToken = jwtTokenProvider.generateAccessToken(user.getEmail());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
-
-        refreshTokenRepository.deleteByUserId(user.getId());
-        saveRefreshToken(user, refreshToken);
-
-        return buildAuthResponse(user, accessToken, refreshToken);
+        return buildAuthResponse(principal, accessToken, refreshToken);
     }
 
     public AuthResponse refreshAccessToken(String refreshToken) {
-        RefreshToken token = refreshTokenRepository.findByToken(refreshToken)
-                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
-
-        if (token.isExpired()) {
+        String tokenHash = TokenHasher.sha256(refreshToken);
+        String email;
+
+        RefreshTokenCache.Entry cached = refreshTokenCache.remove(tokenHash);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                throw new InvalidTokenException("Refresh token has expired");
+            }
+            // The row may already be gone if the token was rotated or revoked elsewhere
+            if (refreshTokenRepository.deleteTokenById(cached.tokenId()) == 0) {
+                throw new InvalidTokenException("Invalid refresh token");
+            }
+            email = cached.email();
+        } else {
+            RefreshToken token = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+            if (token.isExpired()) {
+                refreshTokenRepository.delete(token);
+                throw new InvalidTokenException("Refresh token has expired");
+            }
+
+            email = token.getUser().getEmail();
             refreshTokenRepository.delete(token);
-            throw new InvalidTokenException("Refresh token has expired");
         }
 
-        User user = token.getUser();
-        String newAccessToken = jwtTokenProvider.generateAccessToken(user.getEmail());
-        String newRefreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+        PrincipalSnapshot principal = principalCache.get(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String newAccessToken = jwtTokenProvider.generateAccessToken(principal.email());
+        String newRefreshToken = jwtTokenProvider.generateRefreshToken(principal.email());
+
+        saveRefreshToken(principal, newRefreshToken);
+
+        return buildAuthResponse(principal, newAccessToken, newRefreshToken);
+    }
+
+    public void logout(String accessToken) {
+        Claims claims = jwtTokenProvider.getClaims(accessToken);
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+
+        tokenRevocationService.revokeToken(claims.getId(), claims.getSubject(), expiresAt);
+        principalCache.get(claims.getSubject())
+                .ifPresent(principal -> refreshTokenRepository.deleteByUserId(principal.id()));
+    }
 
-        refreshTokenRepository.delete(token);
-        saveRefreshToken(user, newRefreshToken);
+    public void revokeTokens(RevokeTokenRequest request, String requestedBy) {
+        requireAdmin(requestedBy);
+
+        if (request.getSubject() != null && !request.getSubject().isBlank()) {
+            tokenRevocationService.revokeSubject(request.getSubject());
+            principalCache.get(request.getSubject())
+                    .ifPresent(principal -> refreshTokenRepository.deleteByUserId(principal.id()));
+        } else if (request.getJti() != null && !request.getJti().isBlank()) {
+            // The token itself is not presented, so assume the longest possible remaining lifetime
+            LocalDateTime expiresAt = LocalDateTime.now().plus(jwtTokenProvider.getExpirationTime(), ChronoUnit.MILLIS);
+            tokenRevocationService.revokeToken(request.getJti(), null, expiresAt);
+        } else {
+            throw new IllegalArgumentException("Either jti or subject is required");
+        }
+    }
 
-        return buildAuthResponse(user, newAccessToken, newRefreshToken);
+    public void requireAdmin(String email) {
+        PrincipalSnapshot principal = principalCache.getFresh(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!principal.hasRole(Role.RoleEnum.ROLE_ADMIN.name())) {
+            throw new AccessDeniedException("This operation requires an administrator");
+        }
     }
 
     public UserDTO getCurrentUser(String email) {
-        User user = userRepository.findByEmail(email)
+        PrincipalSnapshot principal = principalCache.get(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return mapToUserDTO(user);
+        return mapToUserDTO(principal);
     }
 
-    private void saveRefreshToken(User user, String token) {
+    private void saveRefreshToken(PrincipalSnapshot principal, String token) {
+        String tokenHash = TokenHasher.sha256(token);
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
-                .user(user)
+                .tokenHash(tokenHash)
+                .user(userRepository.getReferenceById(principal.id()))
                 .expiryDate(LocalDateTime.now().plusDays(7))
                 .build();
-        refreshTokenRepository.save(refreshToken);
+        refreshToken = refreshTokenRepository.save(refreshToken);
+        refreshTokenCache.put(tokenHash,
+                new RefreshTokenCache.Entry(refreshToken.getId(), principal.id(), principal.email(),
+                        refreshToken.getExpiryDate()));
     }
 
-    private AuthResponse buildAuthResponse(User user, String accessToken, String refreshToken) {
+    private AuthResponse buildAuthResponse(PrincipalSnapshot principal, String accessToken, String refreshToken) {
         return AuthResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtTokenProvider.getExpirationTime() / 1000)
-                .user(mapToUserDTO(user))
+                .user(mapToUserDTO(principal))
                 .build();
     }
 
-    private UserDTO mapToUserDTO(User user) {
+    private UserDTO mapToUserDTO(PrincipalSnapshot principal) {
         return UserDTO.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .phoneNumber(user.getPhoneNumber())
-                .emailVerified(user.getEmailVerified())
-                .roles(user.getRoles().stream().map(r -> r.getName().toString()).collect(Collectors.toSet()))
-                .createdAt(user.getCreatedAt())
+                .id(principal.id())
+                .email(principal.email())
+                .firstName(principal.firstName())
+                .lastName(principal.lastName())
+                .phoneNumber(principal.phoneNumber())
+                .emailVerified(principal.emailVerified())
+                .roles(principal.roles())
+                .createdAt(principal.createdAt())
                 .build();
     }
 }
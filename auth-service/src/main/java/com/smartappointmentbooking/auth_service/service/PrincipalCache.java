@@ -0,0 +1,108 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.smartappointmentbooking.auth_service.repository.UserRepository;
+import com.smartappointmentbooking.auth_service.security.PrincipalSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of {@link PrincipalSnapshot}s keyed by email. Writers
+ * that change a user's password or profile call {@link #invalidate}; the TTL
+ * bounds how long another instance can serve a stale snapshot, so checks
+ * that cannot tolerate that use {@link #getFresh}. A load that races with
+ * an invalidation is returned to its caller but not cached.
+ */
+@Component
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final Map<String, Entry> entries;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+    private long invalidations;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.principal-cache.max-entries:50000}") int maxEntries,
+                          @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("auth.principal.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auth.principal.cache").tag("result", "miss").register(meterRegistry);
+        this.loadTimer = Timer.builder("auth.principal.cache.load").register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", this, PrincipalCache::size).register(meterRegistry);
+    }
+
+    public Optional<PrincipalSnapshot> get(String email) {
+        long now = System.currentTimeMillis();
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(email);
+            if (entry != null && entry.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(entry.snapshot());
+            }
+            generation = invalidations;
+        }
+
+        // Load outside the lock so a slow query does not block other lookups
+        misses.increment();
+        return load(email, generation, now);
+    }
+
+    /**
+     * Reads the principal from the database whatever is cached, and caches
+     * the result. For admin checks, which must not honour a role that was
+     * revoked within the TTL.
+     */
+    public Optional<PrincipalSnapshot> getFresh(String email) {
+        long generation;
+        synchronized (this) {
+            generation = invalidations;
+        }
+        return load(email, generation, System.currentTimeMillis());
+    }
+
+    private Optional<PrincipalSnapshot> load(String email, long generation, long now) {
+        Optional<PrincipalSnapshot> loaded = loadTimer.record(
+                () -> userRepository.findByEmail(email).map(PrincipalSnapshot::from));
+        loaded.ifPresent(snapshot -> put(email, snapshot, generation, now));
+        return loaded;
+    }
+
+    public synchronized void invalidate(String email) {
+        invalidations++;
+        entries.remove(email);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // The snapshot may predate a write whose invalidation ran while it loaded
+    private synchronized void put(String email, PrincipalSnapshot snapshot, long generation, long loadedAt) {
+        if (generation != invalidations) {
+            return;
+        }
+        entries.put(email, new Entry(snapshot, loadedAt + ttlMillis));
+    }
+
+    private record Entry(PrincipalSnapshot snapshot, long expiresAt) {
+    }
+}
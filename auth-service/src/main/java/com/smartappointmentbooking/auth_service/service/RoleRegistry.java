@@ -0,0 +1,41 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.smartappointmentbooking.auth_service.entity.Role;
+import com.smartappointmentbooking.auth_service.exception.ResourceNotFoundException;
+import com.smartappointmentbooking.auth_service.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The roles table is seeded once and never changes at runtime, so it is
+ * loaded at startup instead of being queried on every registration.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+    private final RoleRepository roleRepository;
+    private final Map<Role.RoleEnum, Role> roles = new EnumMap<>(Role.RoleEnum.class);
+
+    @PostConstruct
+    public synchronized void load() {
+        roleRepository.findAll().forEach(role -> roles.put(role.getName(), role));
+        log.info("Loaded {} roles", roles.size());
+    }
+
+    public synchronized Role get(Role.RoleEnum name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            // Tolerate roles seeded after startup
+            role = roleRepository.findByName(name)
+                    .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
+            roles.put(name, role);
+        }
+        return role;
+    }
+}
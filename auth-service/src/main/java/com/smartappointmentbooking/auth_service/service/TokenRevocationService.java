@@ -0,0 +1,225 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.smartappointmentbooking.auth_service.dto.RevocationDelta;
+import com.smartappointmentbooking.auth_service.dto.RevocationSnapshot;
+import com.smartappointmentbooking.auth_service.entity.RevocationState;
+import com.smartappointmentbooking.auth_service.entity.RevokedToken;
+import com.smartappointmentbooking.auth_service.repository.RevocationStateRepository;
+import com.smartappointmentbooking.auth_service.repository.RevokedTokenRepository;
+import com.smartappointmentbooking.auth_service.security.RevocationBloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keeps the access-token revocation list. The database is the source of
+ * truth and the revocation_state counter is the list version; each entry
+ * records the version it was written at, and because the counter row stays
+ * locked until the revocation commits, a delta never skips an entry that
+ * commits late. An in-memory Bloom filter
+ * mirrors it so the gateway (and this service's own filter) can pass
+ * unrevoked tokens without I/O and only fall back to {@link #isRevoked}
+ * when the filter reports a possible match. The filter and its version are
+ * published together as an immutable state through a volatile field, so the
+ * per-request check takes no lock; writers copy the filter, add to the copy
+ * and swap it in.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationStateRepository revocationStateRepository;
+
+    @Value("${auth.revocation.bloom.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${auth.revocation.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${auth.revocation.max-delta-size:1000}")
+    private int maxDeltaSize;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    private volatile State state;
+
+    @PostConstruct
+    public void init() {
+        if (!revocationStateRepository.existsById(RevocationState.SINGLETON_ID)) {
+            try {
+                revocationStateRepository.save(RevocationState.builder()
+                        .id(RevocationState.SINGLETON_ID)
+                        .version(0L)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+        rebuild();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeToken(String jti, String subject, LocalDateTime expiresAt) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .version(nextVersion())
+                .jti(jti)
+                .subject(subject)
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build());
+        publish(RevocationBloomFilter.jtiKey(jti));
+        log.info("Revoked access token {} for {}", jti, subject);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void revokeSubject(String subject) {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.save(RevokedToken.builder()
+                .version(nextVersion())
+                .subject(subject)
+                .revokedAt(now)
+                .expiresAt(now.plus(jwtExpirationMs, ChronoUnit.MILLIS))
+                .build());
+        publish(RevocationBloomFilter.subjectKey(subject));
+        log.info("Revoked all access tokens issued to {}", subject);
+    }
+
+    public boolean mightBeRevoked(String jti, String subject) {
+        RevocationBloomFilter filter = state.filter();
+        return (jti != null && filter.mightContain(RevocationBloomFilter.jtiKey(jti)))
+                || filter.mightContain(RevocationBloomFilter.subjectKey(subject));
+    }
+
+    /**
+     * Authoritative check used to confirm a Bloom filter hit.
+     */
+    public boolean isRevoked(String jti, String subject, LocalDateTime issuedAt) {
+        if (jti != null && revokedTokenRepository.existsByJti(jti)) {
+            return true;
+        }
+        // JWT iat has second precision, so compare against the revocation second
+        return revokedTokenRepository.findTopBySubjectOrderByRevokedAtDesc(subject)
+                .map(r -> !issuedAt.isAfter(r.getRevokedAt().truncatedTo(ChronoUnit.SECONDS)))
+                .orElse(false);
+    }
+
+    public RevocationSnapshot getSnapshot() {
+        State current = state;
+        long[] words = current.filter().toLongArray();
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES);
+        buffer.asLongBuffer().put(words);
+        return RevocationSnapshot.builder()
+                .version(current.version())
+                .numBits(current.filter().getNumBits())
+                .numHashes(current.filter().getNumHashes())
+                .bits(Base64.getEncoder().encodeToString(buffer.array()))
+                .build();
+    }
+
+    public RevocationDelta getDelta(long sinceVersion) {
+        List<RevokedToken> changes = revokedTokenRepository.findByVersionGreaterThanOrderByVersionAsc(
+                sinceVersion, PageRequest.of(0, maxDeltaSize + 1));
+        if (changes.size() > maxDeltaSize) {
+            return RevocationDelta.builder()
+                    .fromVersion(sinceVersion)
+                    .toVersion(sinceVersion)
+                    .keys(List.of())
+                    .snapshotRequired(true)
+                    .build();
+        }
+
+        List<String> keys = new ArrayList<>(changes.size());
+        long toVersion = sinceVersion;
+        for (RevokedToken change : changes) {
+            keys.add(toKey(change));
+            toVersion = change.getVersion();
+        }
+        return RevocationDelta.builder()
+                .fromVersion(sinceVersion)
+                .toVersion(toVersion)
+                .keys(keys)
+                .snapshotRequired(false)
+                .build();
+    }
+
+    // Periodically drop entries whose tokens have expired anyway so the filter stays sparse
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval-ms:3600000}",
+            initialDelayString = "${auth.revocation.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+
+        // Read the version first: entries committed while loading are then replayed by the next delta
+        long loadedVersion = revocationStateRepository.currentVersion();
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(expectedInsertions, falsePositiveRate);
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        active.forEach(r -> rebuilt.put(toKey(r)));
+
+        synchronized (this) {
+            state = new State(rebuilt, state != null ? Math.max(state.version(), loadedVersion) : loadedVersion);
+        }
+        log.info("Revocation filter rebuilt with {} entries at version {} ({} expired purged)",
+                active.size(), loadedVersion, purged);
+    }
+
+    // Versions only advance from the database so entries written by other instances are never skipped
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    public void syncFromDatabase() {
+        RevocationDelta delta = getDelta(state.version());
+        if (Boolean.TRUE.equals(delta.getSnapshotRequired())) {
+            rebuild();
+            return;
+        }
+        if (delta.getKeys().isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            State current = state;
+            RevocationBloomFilter next = copyOf(current.filter());
+            delta.getKeys().forEach(next::put);
+            state = new State(next, Math.max(current.version(), delta.getToVersion()));
+        }
+    }
+
+    // Holds the revocation_state row lock until commit, which orders writers by version
+    private long nextVersion() {
+        revocationStateRepository.incrementVersion();
+        return revocationStateRepository.currentVersion();
+    }
+
+    private synchronized void publish(String key) {
+        State current = state;
+        RevocationBloomFilter next = copyOf(current.filter());
+        next.put(key);
+        state = new State(next, current.version());
+    }
+
+    private static RevocationBloomFilter copyOf(RevocationBloomFilter filter) {
+        return new RevocationBloomFilter(filter.toLongArray(), filter.getNumBits(), filter.getNumHashes());
+    }
+
+    private static String toKey(RevokedToken revoked) {
+        return revoked.getJti() != null
+                ? RevocationBloomFilter.jtiKey(revoked.getJti())
+                : RevocationBloomFilter.subjectKey(revoked.getSubject());
+    }
+
+    private record State(RevocationBloomFilter filter, long version) {
+    }
+}
@@ -0,0 +1,430 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.auth_service.dto.ImportJobResponse;
+import com.smartappointmentbooking.auth_service.dto.RegisterRequest;
+import com.smartappointmentbooking.auth_service.entity.ImportJob;
+import com.smartappointmentbooking.auth_service.entity.OutboxEvent;
+import com.smartappointmentbooking.auth_service.entity.Role;
+import com.smartappointmentbooking.auth_service.exception.ResourceNotFoundException;
+import com.smartappointmentbooking.auth_service.repository.ImportJobRepository;
+import com.smartappointmentbooking.auth_service.repository.UserBatchRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports users in bulk from CSV or NDJSON. The uploaded file is kept on
+ * disk and processed in chunks: passwords are hashed in parallel on a
+ * bounded fork-join pool, then each chunk's users, roles, provisioning
+ * outbox rows and job progress are written in one transaction. A job
+ * interrupted by a crash resumes after its last committed line. Jobs are
+ * claimed with a conditional update before they run, so with several
+ * instances each job is processed by one of them; a running job whose owner
+ * stops making progress can be taken over once it goes stale. The upload
+ * holds plaintext passwords, so it is deleted as soon as the job completes
+ * or fails.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+    private static final List<String> CSV_COLUMNS =
+            List.of("email", "firstName", "lastName", "password", "phoneNumber", "role");
+
+    private final ImportJobRepository importJobRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final UserProvisioningService userProvisioningService;
+    private final AuthService authService;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path storageDir;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ExecutorService jobExecutor;
+    private final ForkJoinPool hashingPool;
+
+    public UserImportService(ImportJobRepository importJobRepository,
+                             UserBatchRepository userBatchRepository,
+                             UserProvisioningService userProvisioningService,
+                             AuthService authService,
+                             RoleRegistry roleRegistry,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${auth.import.storage-dir:${java.io.tmpdir}/auth-imports}") String storageDir,
+                             @Value("${auth.import.chunk-size:500}") int chunkSize,
+                             @Value("${auth.import.stale-after-ms:600000}") long staleAfterMs,
+                             @Value("${auth.import.hashing-parallelism:0}") int hashingParallelism) {
+        this.importJobRepository = importJobRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.userProvisioningService = userProvisioningService;
+        this.authService = authService;
+        this.roleRegistry = roleRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.storageDir = Paths.get(storageDir);
+        this.chunkSize = chunkSize;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        // Leave headroom for interactive logins, which hash on their own pool
+        int parallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashingPool = new ForkJoinPool(parallelism);
+        this.jobExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ImportJobResponse startImport(MultipartFile file, String format, String requestedBy) throws IOException {
+        authService.requireAdmin(requestedBy);
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+
+        Files.createDirectories(storageDir);
+        String originalName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "import";
+        Path target = storageDir.resolve(UUID.randomUUID() + "-" + Paths.get(originalName).getFileName());
+        file.transferTo(target);
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .fileName(originalName)
+                .storedPath(target.toString())
+                .format(resolveFormat(originalName, format))
+                .status(ImportJob.Status.PENDING)
+                .processedLines(0L)
+                .importedCount(0L)
+                .skippedCount(0L)
+                .failedCount(0L)
+                .requestedBy(requestedBy)
+                .build());
+
+        Long jobId = job.getId();
+        jobExecutor.submit(() -> runJob(jobId));
+        log.info("Queued user import job {} for {}", jobId, originalName);
+        return mapToResponse(job);
+    }
+
+    public ImportJobResponse getJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.import.resume-interval-ms:60000}",
+            initialDelayString = "${auth.import.resume-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        importJobRepository.findByStatusIn(List.of(ImportJob.Status.PENDING, ImportJob.Status.RUNNING)).stream()
+                .filter(job -> job.getStatus() == ImportJob.Status.PENDING || job.getUpdatedAt().isBefore(staleBefore))
+                // Without shared storage only the instance that received the upload can read it
+                .filter(job -> Files.exists(Paths.get(job.getStoredPath())))
+                .forEach(job -> {
+                    log.info("Resuming user import job {} after line {}", job.getId(), job.getProcessedLines());
+                    jobExecutor.submit(() -> runJob(job.getId()));
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    private void runJob(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (importJobRepository.claim(jobId, instanceId, now, now.minus(staleAfter),
+                ImportJob.Status.PENDING, ImportJob.Status.RUNNING) == 0) {
+            return;
+        }
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Path storedPath = Paths.get(job.getStoredPath());
+        boolean finished = false;
+        try (BufferedReader reader = Files.newBufferedReader(storedPath, StandardCharsets.UTF_8)) {
+            List<String> header = null;
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (job.getFormat() == ImportJob.Format.CSV && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                // Lines up to processedLines were committed before a restart
+                if (lineNumber <= job.getProcessedLines() || line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new RawRow(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    job = processChunk(job, chunk, header);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                job = processChunk(job, chunk, header);
+            }
+
+            if (importJobRepository.finish(jobId, instanceId, ImportJob.Status.COMPLETED, null,
+                    LocalDateTime.now(), ImportJob.Status.RUNNING) == 0) {
+                throw new ClaimLostException();
+            }
+            finished = true;
+            log.info("User import job {} completed: {} imported, {} skipped, {} failed",
+                    jobId, job.getImportedCount(), job.getSkippedCount(), job.getFailedCount());
+        } catch (ClaimLostException e) {
+            log.warn("User import job {} was taken over by another instance", jobId);
+        } catch (InterruptedException e) {
+            // Shutting down: leave the job RUNNING so it resumes from its last chunk
+            Thread.currentThread().interrupt();
+            log.info("User import job {} paused at line {}", jobId, job.getProcessedLines());
+        } catch (Exception e) {
+            log.error("User import job {} failed", jobId, e);
+            // A job taken over meanwhile belongs to its new owner, which still needs the upload
+            finished = importJobRepository.finish(jobId, instanceId, ImportJob.Status.FAILED,
+                    truncate(e.getMessage()), LocalDateTime.now(), ImportJob.Status.RUNNING) == 1;
+        } finally {
+            if (finished) {
+                deleteUpload(storedPath);
+            }
+        }
+    }
+
+    private void deleteUpload(Path storedPath) {
+        try {
+            Files.deleteIfExists(storedPath);
+        } catch (IOException e) {
+            log.error("Could not delete import file {}; it contains passwords and must be removed", storedPath, e);
+        }
+    }
+
+    private ImportJob processChunk(ImportJob job, List<RawRow> rows, List<String> header)
+            throws ExecutionException, InterruptedException {
+        long failed = 0;
+        long skipped = 0;
+        String lastError = job.getLastError();
+
+        // Parse and validate, keeping the first occurrence of each email
+        Map<String, RegisterRequest> accepted = new LinkedHashMap<>();
+        for (RawRow row : rows) {
+            try {
+                RegisterRequest request = parseRow(job.getFormat(), header, row.text());
+                request.setRole(normalizeRole(request.getRole()));
+                Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    throw new IllegalArgumentException(violations.iterator().next().getMessage());
+                }
+                Role.RoleEnum.valueOf(request.getRole());
+                if (accepted.putIfAbsent(request.getEmail(), request) != null) {
+                    skipped++;
+                }
+            } catch (Exception e) {
+                failed++;
+                lastError = truncate("Line " + row.lineNumber() + ": " + e.getMessage());
+            }
+        }
+
+        Set<String> existing = userBatchRepository.findExistingEmails(accepted.keySet());
+        skipped += existing.size();
+        existing.forEach(accepted::remove);
+
+        List<RegisterRequest> toImport = new ArrayList<>(accepted.values());
+        List<UserBatchRepository.NewUser> newUsers = hashingPool.submit(() -> toImport.parallelStream()
+                .map(request -> new UserBatchRepository.NewUser(
+                        request.getEmail(),
+                        passwordEncoder.encode(request.getPassword()),
+                        request.getFirstName(),
+                        request.getLastName(),
+                        request.getPhoneNumber(),
+                        roleRegistry.get(Role.RoleEnum.valueOf(request.getRole())).getId()))
+                .toList()).get();
+
+        long lastLine = rows.get(rows.size() - 1).lineNumber();
+        long failedCount = failed;
+        long skippedCount = skipped;
+        String error = lastError;
+
+        return transactionTemplate.execute(status -> {
+            if (importJobRepository.heartbeat(job.getId(), instanceId, LocalDateTime.now(),
+                    ImportJob.Status.RUNNING) == 0) {
+                throw new ClaimLostException();
+            }
+            long imported = 0;
+            if (!newUsers.isEmpty()) {
+                // Emails registered since the existence check are ignored by the insert and counted as skipped
+                userBatchRepository.insertUsers(newUsers);
+                Map<String, Long> ids = userBatchRepository.findInsertedIds(newUsers);
+
+                List<long[]> userRoles = new ArrayList<>(ids.size());
+                List<Map.Entry<Long, String>> payloads = new ArrayList<>(ids.size());
+                for (UserBatchRepository.NewUser user : newUsers) {
+                    Long userId = ids.get(user.email());
+                    if (userId == null) {
+                        continue;
+                    }
+                    imported++;
+                    userRoles.add(new long[]{userId, user.roleId()});
+                    payloads.add(new AbstractMap.SimpleEntry<>(userId,
+                            userProvisioningService.userCreatedPayload(accepted.get(user.email()))));
+                }
+                if (!userRoles.isEmpty()) {
+                    userBatchRepository.insertUserRoles(userRoles);
+                    userBatchRepository.insertOutboxEvents(OutboxEvent.EventType.USER_CREATED.name(), payloads);
+                }
+            }
+
+            job.setProcessedLines(lastLine);
+            job.setImportedCount(job.getImportedCount() + imported);
+            job.setSkippedCount(job.getSkippedCount() + skippedCount + (newUsers.size() - imported));
+            job.setFailedCount(job.getFailedCount() + failedCount);
+            job.setLastError(error);
+            ImportJob saved = importJobRepository.save(job);
+            log.info("User import job {} progress: line {}, {} imported so far",
+                    saved.getId(), lastLine, saved.getImportedCount());
+            return saved;
+        });
+    }
+
+    private RegisterRequest parseRow(ImportJob.Format format, List<String> header, String line) throws IOException {
+        if (format == ImportJob.Format.NDJSON) {
+            return objectMapper.readValue(line, RegisterRequest.class);
+        }
+
+        List<String> values = parseCsvLine(line);
+        List<String> columns = header != null ? header : CSV_COLUMNS;
+        RegisterRequest request = new RegisterRequest();
+        for (int i = 0; i < columns.size() && i < values.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (columns.get(i).trim()) {
+                case "email" -> request.setEmail(value);
+                case "firstName" -> request.setFirstName(value);
+                case "lastName" -> request.setLastName(value);
+                case "password" -> request.setPassword(value);
+                case "phoneNumber" -> request.setPhoneNumber(value);
+                case "role" -> request.setRole(value);
+                default -> {
+                    // Extra columns are ignored
+                }
+            }
+        }
+        return request;
+    }
+
+    // Minimal RFC 4180 parsing: quoted fields may contain commas and doubled quotes
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static String normalizeRole(String role) {
+        if (role == null || role.isBlank()) {
+            return Role.RoleEnum.ROLE_PATIENT.name();
+        }
+        String upper = role.trim().toUpperCase(Locale.ROOT);
+        return upper.startsWith("ROLE_") ? upper : "ROLE_" + upper;
+    }
+
+    private static ImportJob.Format resolveFormat(String fileName, String format) {
+        if (format != null && !format.isBlank()) {
+            return ImportJob.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".csv") ? ImportJob.Format.CSV : ImportJob.Format.NDJSON;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+
+    private ImportJobResponse mapToResponse(ImportJob job) {
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .fileName(job.getFileName())
+                .format(job.getFormat().name())
+                .status(job.getStatus().name())
+                .processedLines(job.getProcessedLines())
+                .importedCount(job.getImportedCount())
+                .skippedCount(job.getSkippedCount())
+                .failedCount(job.getFailedCount())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+
+    private record RawRow(long lineNumber, String text) {
+    }
+
+    private static class ClaimLostException extends RuntimeException {
+    }
+}
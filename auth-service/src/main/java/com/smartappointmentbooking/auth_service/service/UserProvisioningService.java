@@ -0,0 +1,69 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.auth_service.dto.RegisterRequest;
+import com.smartappointmentbooking.auth_service.entity.OutboxEvent;
+import com.smartappointmentbooking.auth_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records user-service provisioning work in the outbox. Callers run inside
+ * their own transaction, so the event commits or rolls back together with
+ * the auth user row; {@code OutboxRelay} delivers it afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserProvisioningService {
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void enqueueUserCreated(RegisterRequest registerRequest, Long userId) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEvent.EventType.USER_CREATED)
+                .aggregateId(userId)
+                .payload(userCreatedPayload(registerRequest))
+                .status(OutboxEvent.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    public String userCreatedPayload(RegisterRequest registerRequest) {
+        Map<String, Object> userPayload = new HashMap<>();
+        userPayload.put("email", registerRequest.getEmail());
+        userPayload.put("firstName", registerRequest.getFirstName());
+        userPayload.put("lastName", registerRequest.getLastName());
+        userPayload.put("phoneNumber", registerRequest.getPhoneNumber());
+        userPayload.put("role", registerRequest.getRole());
+        userPayload.put("address", "");
+        return toJson(userPayload);
+    }
+
+    public Map<String, Object> readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise outbox payload", e);
+        }
+    }
+}
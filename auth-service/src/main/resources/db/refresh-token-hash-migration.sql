@@ -0,0 +1,27 @@
+-- Moves refresh_tokens from raw JWTs to token_hash (SHA-256 hex of the token, as TokenHasher computes it).
+-- Runs on every startup before Hibernate's ddl-auto and does nothing once the raw column is gone.
+-- Existing sessions survive: hashes are backfilled from the raw tokens before the column is dropped.
+
+SET @has_raw_token = (SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens' AND column_name = 'token');
+SET @has_token_hash = (SELECT COUNT(*) FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens' AND column_name = 'token_hash');
+
+SET @ddl = IF(@has_raw_token > 0 AND @has_token_hash = 0,
+    'ALTER TABLE refresh_tokens ADD COLUMN token_hash VARCHAR(64) NULL', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @dml = IF(@has_raw_token > 0,
+    'UPDATE refresh_tokens SET token_hash = SHA2(token, 256)', 'DO 0');
+PREPARE stmt FROM @dml;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF(@has_raw_token > 0,
+    'ALTER TABLE refresh_tokens MODIFY token_hash VARCHAR(64) NOT NULL, ADD UNIQUE INDEX uk_refresh_tokens_token_hash (token_hash), DROP COLUMN token',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
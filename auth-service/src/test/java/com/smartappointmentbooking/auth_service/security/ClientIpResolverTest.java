@@ -0,0 +1,40 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+	private final ClientIpResolver resolver = new ClientIpResolver(Set.of("10.0.0.1", "10.0.0.2"));
+
+	@Test
+	void ignoresForwardedForFromUntrustedPeer() {
+		assertThat(resolver.resolve("203.0.113.9", "198.51.100.1")).isEqualTo("203.0.113.9");
+	}
+
+	@Test
+	void usesHopAppendedByTrustedProxy() {
+		// The client prepended a fake address; the gateway appended the real one
+		assertThat(resolver.resolve("10.0.0.1", "1.2.3.4, 203.0.113.9")).isEqualTo("203.0.113.9");
+	}
+
+	@Test
+	void skipsChainedTrustedProxies() {
+		assertThat(resolver.resolve("10.0.0.1", "1.2.3.4, 203.0.113.9, 10.0.0.2")).isEqualTo("203.0.113.9");
+	}
+
+	@Test
+	void fallsBackToPeerWhenHeaderMissingOrOnlyProxies() {
+		assertThat(resolver.resolve("10.0.0.1", null)).isEqualTo("10.0.0.1");
+		assertThat(resolver.resolve("10.0.0.1", "10.0.0.2")).isEqualTo("10.0.0.1");
+	}
+
+	@Test
+	void trustsNothingWhenNoProxiesConfigured() {
+		ClientIpResolver direct = new ClientIpResolver(Set.of());
+		assertThat(direct.resolve("203.0.113.9", "1.2.3.4")).isEqualTo("203.0.113.9");
+	}
+}
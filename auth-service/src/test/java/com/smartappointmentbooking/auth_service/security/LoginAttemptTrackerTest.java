@@ -0,0 +1,100 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import com.smartappointmentbooking.auth_service.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptTrackerTest {
+
+	private static final String EMAIL = "patient@example.com";
+	private static final String IP = "203.0.113.9";
+
+	private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+	// 10 minute window, 5 failures per email, 8 per IP, 30 s base lockout, 1 h cap
+	private final LoginAttemptTracker tracker = new LoginAttemptTracker(new SimpleMeterRegistry(),
+			600, 5, 8, 30, 3600, now::get);
+
+	@Test
+	void allowsFailuresBelowThreshold() {
+		recordFailures(EMAIL, 4);
+
+		assertThatCode(() -> tracker.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void locksAccountOutAtThreshold() {
+		recordFailures(EMAIL, 5);
+
+		assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP))
+				.isInstanceOfSatisfying(TooManyRequestsException.class,
+						e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(30));
+	}
+
+	@Test
+	void forgetsFailuresThatSlideOutOfWindow() {
+		recordFailures(EMAIL, 4);
+		now.addAndGet(600_000);
+		recordFailures(EMAIL, 1);
+
+		assertThatCode(() -> tracker.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void countsFailuresSpreadAcrossBuckets() {
+		// One failure every 100 s stays inside the 10 minute window
+		for (int i = 0; i < 5; i++) {
+			if (i > 0) {
+				now.addAndGet(100_000);
+			}
+			recordFailures(EMAIL, 1);
+		}
+
+		assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+	}
+
+	@Test
+	void doublesLockoutWhenFailuresContinueAfterExpiry() {
+		recordFailures(EMAIL, 5);
+		now.addAndGet(31_000);
+		assertThatCode(() -> tracker.checkAllowed(EMAIL, IP)).doesNotThrowAnyException();
+
+		recordFailures(EMAIL, 1);
+
+		assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP))
+				.isInstanceOfSatisfying(TooManyRequestsException.class,
+						e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(60));
+	}
+
+	@Test
+	void treatsEmailCaseInsensitively() {
+		recordFailures(" Patient@Example.COM", 5);
+
+		assertThatThrownBy(() -> tracker.checkAllowed(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+	}
+
+	@Test
+	void successClearsAccountButNotAddress() {
+		for (int i = 0; i < 8; i++) {
+			tracker.recordFailure("user" + i + "@example.com", IP);
+		}
+		tracker.recordSuccess("user0@example.com");
+
+		assertThatCode(() -> tracker.checkAllowed("user0@example.com", "198.51.100.1"))
+				.doesNotThrowAnyException();
+		assertThatThrownBy(() -> tracker.checkAllowed("user0@example.com", IP))
+				.isInstanceOf(TooManyRequestsException.class)
+				.hasMessageContaining("address");
+	}
+
+	private void recordFailures(String email, int times) {
+		for (int i = 0; i < times; i++) {
+			tracker.recordFailure(email, IP);
+		}
+	}
+}
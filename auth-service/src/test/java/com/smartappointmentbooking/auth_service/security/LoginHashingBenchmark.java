@@ -0,0 +1,75 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login password checks per second at several BCrypt cost factors, with
+ * eight concurrent callers standing in for request threads. {@code inline}
+ * is the old behaviour of hashing on the caller's thread; {@code pooled}
+ * goes through {@link PasswordHashingExecutor} as logins do now.
+ *
+ * <p>Run from the module with {@code mvn test-compile exec:exec -Dexec.executable=java
+ * -Dexec.classpathScope=test "-Dexec.args=-cp %classpath com.smartappointmentbooking.auth_service.security.LoginHashingBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class LoginHashingBenchmark {
+	private static final String PASSWORD = "correct-Horse-battery-9";
+
+	@Param({"10", "11", "12"})
+	int cost;
+
+	private BCryptPasswordEncoder encoder;
+	private PasswordHashingExecutor executor;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		encoder = new BCryptPasswordEncoder(cost);
+		executor = new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 0, 64, 60_000);
+		hash = encoder.encode(PASSWORD);
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Benchmark
+	public boolean inline() {
+		return encoder.matches(PASSWORD, hash);
+	}
+
+	@Benchmark
+	public boolean pooled() {
+		return executor.matches(PASSWORD, hash);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(LoginHashingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
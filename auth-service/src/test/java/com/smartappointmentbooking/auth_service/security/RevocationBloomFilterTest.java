@@ -0,0 +1,61 @@
+package com.smartappointmentbooking.auth_service.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationBloomFilterTest {
+
+	@Test
+	void neverMissesAnInsertedKey() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put(RevocationBloomFilter.jtiKey("token-" + i));
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain(RevocationBloomFilter.jtiKey("token-" + i))).isTrue();
+		}
+	}
+
+	@Test
+	void keepsFalsePositivesNearConfiguredRate() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put(RevocationBloomFilter.jtiKey("token-" + i));
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(RevocationBloomFilter.jtiKey("other-" + i))) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+
+	@Test
+	void separatesTokenAndSubjectKeys() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(100, 0.01);
+		filter.put(RevocationBloomFilter.jtiKey("abc"));
+
+		assertThat(filter.mightContain(RevocationBloomFilter.jtiKey("abc"))).isTrue();
+		assertThat(filter.mightContain(RevocationBloomFilter.subjectKey("abc"))).isFalse();
+	}
+
+	@Test
+	void rebuildsIdenticallyFromPublishedWords() {
+		// The gateway reconstructs the filter from a snapshot's words, bit count and hash count
+		RevocationBloomFilter original = new RevocationBloomFilter(1_000, 0.01);
+		original.put(RevocationBloomFilter.subjectKey("patient@example.com"));
+
+		RevocationBloomFilter copy = new RevocationBloomFilter(original.toLongArray(),
+				original.getNumBits(), original.getNumHashes());
+		copy.put(RevocationBloomFilter.jtiKey("later"));
+
+		assertThat(copy.mightContain(RevocationBloomFilter.subjectKey("patient@example.com"))).isTrue();
+		assertThat(copy.mightContain(RevocationBloomFilter.jtiKey("later"))).isTrue();
+		// The copy owns its words, so later puts do not leak back into the source
+		assertThat(original.mightContain(RevocationBloomFilter.jtiKey("later"))).isFalse();
+	}
+}
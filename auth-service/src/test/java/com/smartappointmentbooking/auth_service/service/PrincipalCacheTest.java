@@ -0,0 +1,57 @@
+package com.smartappointmentbooking.auth_service.service;
+
+import com.smartappointmentbooking.auth_service.entity.Role;
+import com.smartappointmentbooking.auth_service.entity.User;
+import com.smartappointmentbooking.auth_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final PrincipalCache cache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, 300);
+
+	@Test
+	void servesRepeatLookupsFromTheCache() {
+		when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(user(Role.RoleEnum.ROLE_ADMIN)));
+
+		cache.get("admin@example.com");
+		cache.get("admin@example.com");
+
+		verify(userRepository, times(1)).findByEmail("admin@example.com");
+	}
+
+	@Test
+	void freshLookupSeesADemotionTheCacheHasNot() {
+		when(userRepository.findByEmail("admin@example.com"))
+				.thenReturn(Optional.of(user(Role.RoleEnum.ROLE_ADMIN)))
+				.thenReturn(Optional.of(user(Role.RoleEnum.ROLE_PATIENT)));
+		cache.get("admin@example.com");
+
+		assertThat(cache.getFresh("admin@example.com")).get()
+				.matches(principal -> !principal.hasRole(Role.RoleEnum.ROLE_ADMIN.name()));
+		// and the cached copy is replaced with what was just read
+		assertThat(cache.get("admin@example.com")).get()
+				.matches(principal -> principal.hasRole(Role.RoleEnum.ROLE_PATIENT.name()));
+		verify(userRepository, times(2)).findByEmail("admin@example.com");
+	}
+
+	private static User user(Role.RoleEnum role) {
+		return User.builder()
+				.id(1L)
+				.email("admin@example.com")
+				.password("hash")
+				.emailVerified(true)
+				.roles(Set.of(Role.builder().name(role).build()))
+				.build();
+	}
+}
@@ -0,0 +1,58 @@
+package com.smartappointmentbooking.notification_service.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectoryClient {
+    // user-service rejects larger batches
+    private static final int MAX_IDS_PER_CALL = 200;
+
+    private final RestTemplate restTemplate;
+
+    @Value("${user-service.url:http://localhost:8002}")
+    private String userServiceUrl;
+
+    /**
+     * Resolves user ids to email addresses through user-service's batch
+     * lookup. Unknown users are simply absent from the result.
+     *
+     * @throws RestClientException if user-service is unreachable or rejects a batch
+     */
+    public Map<Long, String> findEmails(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, String> emails = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_CALL) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_CALL));
+            UserLookup response = restTemplate.postForObject(userServiceUrl + "/api/users/batch",
+                    Map.of("ids", chunk), UserLookup.class);
+            if (response == null || response.found() == null) {
+                throw new RestClientException("user-service returned an empty batch lookup");
+            }
+            response.found().forEach((id, user) -> {
+                if (user.email() != null) {
+                    emails.put(id, user.email());
+                }
+            });
+        }
+        return emails;
+    }
+
+    record UserLookup(Map<Long, UserSummary> found, List<Long> missing) {
+    }
+
+    record UserSummary(Long id, String email) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.smartappointmentbooking.notification_service.coalesce;
+
+import com.smartappointmentbooking.notification_service.dispatch.NotificationDispatcher;
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.repository.DigestRecipient;
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Sits in front of dispatch for emails about appointments, so a burst of
+ * changes (a doctor moving a whole afternoon) reaches each patient as one
+ * email rather than ten.
+ *
+ * <p>A repeat about the same (user, type, entity) within the dedupe window
+ * is folded into the earlier copy if that has not gone out yet, or dropped
+ * if it is identical to one that has. Otherwise the first email in a
+ * user's digest window goes out immediately; any further ones are stored as
+ * HELD and, when the window closes, merged into a single digest email. All
+ * state is in the notifications table, so held emails survive restarts.
+ *
+ * <p>Everything is keyed by the user together with the recipient address,
+ * and emails without a real user id are never coalesced: they would all
+ * share user 0 and end up in one stranger's digest.
+ */
+@Component
+@Slf4j
+public class NotificationCoalescer {
+    private static final int RELEASE_BATCH = 200;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Set<Notification.NotificationType> types;
+    private final Duration dedupeWindow;
+    private final Duration digestWindow;
+    private final Counter suppressedCounter;
+    private final Counter heldCounter;
+    private final Counter mergedCounter;
+    private final Counter digestCounter;
+
+    public NotificationCoalescer(NotificationRepository notificationRepository,
+                                 NotificationDispatcher notificationDispatcher,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notification.coalesce.enabled:true}") boolean enabled,
+                                 @Value("${notification.coalesce.types:APPOINTMENT_CONFIRMATION,APPOINTMENT_CANCELLED,APPOINTMENT_RESCHEDULED}")
+                                 Set<Notification.NotificationType> types,
+                                 @Value("${notification.coalesce.dedupe-window-ms:600000}") long dedupeWindowMs,
+                                 @Value("${notification.coalesce.digest-window-ms:900000}") long digestWindowMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.types = types.isEmpty()
+                ? EnumSet.noneOf(Notification.NotificationType.class)
+                : EnumSet.copyOf(types);
+        this.dedupeWindow = Duration.ofMillis(dedupeWindowMs);
+        this.digestWindow = Duration.ofMillis(digestWindowMs);
+
+        this.suppressedCounter = Counter.builder("notification.coalesce.suppressed").register(meterRegistry);
+        this.heldCounter = Counter.builder("notification.coalesce.held").register(meterRegistry);
+        this.mergedCounter = Counter.builder("notification.coalesce.merged").register(meterRegistry);
+        this.digestCounter = Counter.builder("notification.coalesce.digests").register(meterRegistry);
+    }
+
+    /**
+     * Returns the earlier notification this one was folded into, or empty if
+     * it should still be stored. In that case it may have been switched to
+     * HELD with the time its digest goes out.
+     */
+    public Optional<Notification> coalesce(Notification candidate) {
+        if (!enabled || !types.contains(candidate.getNotificationType())
+                || candidate.getUserId() == null || candidate.getUserId() <= 0
+                || candidate.getRecipientEmail() == null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = candidate.getUserId();
+        String recipientEmail = candidate.getRecipientEmail();
+
+        if (candidate.getEntityRef() != null) {
+            List<Notification> earlier = notificationRepository.findRecentForEntity(userId, recipientEmail,
+                    candidate.getNotificationType(), candidate.getEntityRef(), now.minus(dedupeWindow),
+                    PageRequest.of(0, 1));
+            for (Notification previous : earlier) {
+                boolean folded = ("HELD".equals(previous.getStatus()) || "PENDING".equals(previous.getStatus()))
+                        && notificationRepository.refold(previous.getId(), candidate.getSubject(),
+                        candidate.getMessage(), now) == 1;
+                boolean repeated = Objects.equals(previous.getSubject(), candidate.getSubject())
+                        && Objects.equals(previous.getMessage(), candidate.getMessage());
+                if (folded) {
+                    // Reflect the refold so the caller sees what will actually be sent
+                    previous.setSubject(candidate.getSubject());
+                    previous.setMessage(candidate.getMessage());
+                    previous.setUpdatedAt(now);
+                }
+                if (folded || repeated) {
+                    suppressedCounter.increment();
+                    return Optional.of(previous);
+                }
+            }
+        }
+
+        if (notificationRepository.countRecent(userId, recipientEmail, types, now.minus(digestWindow)) > 0) {
+            // Join the digest already building for this recipient, or start one
+            LocalDateTime releaseAt = notificationRepository.findHeldReleaseTime(userId, recipientEmail);
+            candidate.setStatus("HELD");
+            candidate.setNextAttemptAt(releaseAt != null ? releaseAt : now.plus(digestWindow));
+            heldCounter.increment();
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.coalesce.release-interval-ms:30000}")
+    public void releaseDigests() {
+        List<DigestRecipient> recipients = notificationRepository.findRecipientsWithDueHeld(
+                Notification.NotificationChannel.EMAIL, LocalDateTime.now(), PageRequest.of(0, RELEASE_BATCH));
+        for (DigestRecipient recipient : recipients) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> release(recipient));
+            } catch (RuntimeException e) {
+                log.error("Failed to release held notifications for user {}: {}", recipient.userId(), e.getMessage());
+            }
+        }
+    }
+
+    private void release(DigestRecipient recipient) {
+        List<Notification> held = notificationRepository.findHeldForUpdate(recipient.userId(),
+                recipient.recipientEmail());
+        if (held.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = held.stream().map(Notification::getId).toList();
+
+        if (held.size() == 1) {
+            notificationRepository.releaseHeld(ids, now);
+            held.get(0).setStatus("PENDING");
+            notificationDispatcher.submit(held.get(0));
+            return;
+        }
+
+        Notification latest = held.get(held.size() - 1);
+        StringBuilder message = new StringBuilder();
+        for (Notification notification : held) {
+            message.append("- ").append(notification.getSubject()).append('\n');
+            if (notification.getMessage() != null && !notification.getMessage().isBlank()) {
+                message.append(notification.getMessage().strip()).append("\n\n");
+            }
+        }
+
+        // Its parts are already in the inbox individually, so the digest itself starts out read
+        Notification digest = notificationRepository.save(Notification.builder()
+                .userId(recipient.userId())
+                .recipientEmail(recipient.recipientEmail())
+                .subject("You have " + held.size() + " updates about your appointments")
+                .message(message.toString().strip())
+                .notificationType(Notification.NotificationType.DIGEST)
+                .channel(Notification.NotificationChannel.EMAIL)
+                .locale(latest.getLocale())
+                .isRead(true)
+                .status("PENDING")
+                .nextAttemptAt(now)
+                .build());
+        notificationRepository.markMerged(ids, digest.getId(), now);
+        notificationDispatcher.submit(digest);
+
+        mergedCounter.increment(held.size());
+        digestCounter.increment();
+        log.info("Merged {} notifications for user {} into digest {}", held.size(), recipient.userId(),
+                digest.getId());
+    }
+}
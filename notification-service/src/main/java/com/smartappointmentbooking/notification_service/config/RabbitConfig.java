@@ -0,0 +1,42 @@
+package com.smartappointmentbooking.notification_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+        // Listener parameter types decide the payload class, not the sender's type header
+        converter.setAlwaysConvertToInferredType(true);
+        return converter;
+    }
+
+    @Bean
+    public TopicExchange appointmentEventsExchange(
+            @Value("${notification.reminders.exchange:appointment.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    @Bean
+    public Queue appointmentEventsQueue(
+            @Value("${notification.reminders.queue:notification-service.appointment-events}") String queue) {
+        return QueueBuilder.durable(queue).build();
+    }
+
+    @Bean
+    public Binding appointmentEventsBinding(Queue appointmentEventsQueue, TopicExchange appointmentEventsExchange) {
+        return BindingBuilder.bind(appointmentEventsQueue).to(appointmentEventsExchange).with("appointment.*");
+    }
+}
@@ -1,14 +1,22 @@
 package com.smartappointmentbooking.notification_service.controller;
 
+import com.smartappointmentbooking.notification_service.dto.InboxPageResponse;
+import com.smartappointmentbooking.notification_service.dto.MarkAllReadResponse;
+import com.smartappointmentbooking.notification_service.dto.ReplayDeadLettersRequest;
+import com.smartappointmentbooking.notification_service.dto.ReplayDeadLettersResponse;
 import com.smartappointmentbooking.notification_service.dto.SendEmailRequest;
 import com.smartappointmentbooking.notification_service.dto.NotificationResponse;
+import com.smartappointmentbooking.notification_service.dto.UnreadCountResponse;
 import com.smartappointmentbooking.notification_service.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 
 @RestController
@@ -19,10 +27,10 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @PostMapping("/email")
-    @Operation(summary = "Send email notification")
+    @Operation(summary = "Queue an email notification for delivery")
     public ResponseEntity<NotificationResponse> sendEmail(@RequestBody SendEmailRequest request) {
         NotificationResponse response = notificationService.sendEmail(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
     @GetMapping
@@ -46,6 +54,43 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/user/{userId}/inbox")
+    @Operation(summary = "Get a page of a user's inbox, newest first")
+    public ResponseEntity<InboxPageResponse> getInbox(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        InboxPageResponse inbox = notificationService.getInbox(userId, unreadOnly, cursor, limit);
+        return ResponseEntity.ok(inbox);
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    @Operation(summary = "Get the number of unread notifications for a user")
+    public ResponseEntity<UnreadCountResponse> getUnreadCount(@PathVariable Long userId) {
+        UnreadCountResponse unread = notificationService.getUnreadCount(userId);
+        return ResponseEntity.ok(unread);
+    }
+
+    @PutMapping("/user/{userId}/read-all")
+    @Operation(summary = "Mark all of a user's notifications as read")
+    public ResponseEntity<MarkAllReadResponse> markAllAsRead(@PathVariable Long userId) {
+        MarkAllReadResponse response = notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(path = "/stream/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream new notifications for a user as Server-Sent Events")
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = notificationService.subscribe(userId, lastEventId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     @PutMapping("/{id}/read")
     @Operation(summary = "Mark notification as read")
     public ResponseEntity<NotificationResponse> markAsRead(@PathVariable Long id) {
@@ -60,6 +105,22 @@ public class NotificationController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/admin/dead-letters")
+    @Operation(summary = "List dead-lettered notifications, oldest first")
+    public ResponseEntity<List<NotificationResponse>> getDeadLetters(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<NotificationResponse> deadLetters = notificationService.getDeadLetters(afterId, limit);
+        return ResponseEntity.ok(deadLetters);
+    }
+
+    @PostMapping("/admin/dead-letters/replay")
+    @Operation(summary = "Re-queue dead-lettered notifications by id or by type and time")
+    public ResponseEntity<ReplayDeadLettersResponse> replayDeadLetters(@RequestBody ReplayDeadLettersRequest request) {
+        ReplayDeadLettersResponse response = notificationService.replayDeadLetters(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<String> health() {
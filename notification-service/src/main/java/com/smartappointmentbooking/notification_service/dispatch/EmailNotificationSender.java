@@ -0,0 +1,113 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.mail.SmtpTransportPool;
+import com.smartappointmentbooking.notification_service.template.EmailTemplateEngine;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class EmailNotificationSender implements NotificationSender {
+    private final JavaMailSender javaMailSender;
+    private final SmtpTransportPool smtpTransportPool;
+    private final EmailTemplateEngine emailTemplateEngine;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.name:Smart Appointment Booking}")
+    private String appName;
+
+    @Override
+    public Notification.NotificationChannel channel() {
+        return Notification.NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public void send(Notification notification) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = buildMessage(notification);
+        smtpTransportPool.execute(connection -> {
+            connection.send(mimeMessage);
+            return null;
+        });
+    }
+
+    /**
+     * Sends the batch over pooled SMTP connections, one at a time. A rejected
+     * recipient fails only its own notification. A connection that breaks
+     * fails only the message in flight, and the rest of the batch carries on
+     * over a fresh connection; only when no connection can be had at all do
+     * the remaining messages fail.
+     */
+    @Override
+    public Map<Long, Exception> sendAll(List<Notification> notifications) {
+        Map<Long, Exception> failures = new HashMap<>();
+        int[] next = {0};
+        while (next[0] < notifications.size()) {
+            int start = next[0];
+            try {
+                smtpTransportPool.execute(connection -> {
+                    while (next[0] < notifications.size()) {
+                        Notification notification = notifications.get(next[0]++);
+                        MimeMessage message;
+                        try {
+                            message = buildMessage(notification);
+                        } catch (MessagingException | UnsupportedEncodingException e) {
+                            failures.put(notification.getId(), e);
+                            continue;
+                        }
+                        try {
+                            connection.send(message);
+                        } catch (SendFailedException e) {
+                            failures.put(notification.getId(), e);
+                        }
+                    }
+                    return null;
+                });
+            } catch (MessagingException | RuntimeException e) {
+                if (next[0] == start) {
+                    // Could not borrow a connection, so nothing after this point was attempted
+                    for (int i = start; i < notifications.size(); i++) {
+                        failures.put(notifications.get(i).getId(), e);
+                    }
+                    break;
+                }
+                failures.put(notifications.get(next[0] - 1).getId(), e);
+            }
+        }
+        return failures;
+    }
+
+    private MimeMessage buildMessage(Notification notification) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setTo(notification.getRecipientEmail());
+        helper.setSubject(notification.getSubject());
+        helper.setFrom(fromEmail, appName);
+        helper.setText(buildHtmlEmailBody(notification), true);
+        return mimeMessage;
+    }
+
+    private String buildHtmlEmailBody(Notification notification) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("appName", appName);
+        model.put("subject", notification.getSubject());
+        model.put("message", notification.getMessage());
+        Locale locale = notification.getLocale() != null ? Locale.forLanguageTag(notification.getLocale()) : null;
+        return emailTemplateEngine.render(notification.getNotificationType(), locale, model);
+    }
+}
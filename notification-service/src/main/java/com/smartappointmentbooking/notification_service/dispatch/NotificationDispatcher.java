@@ -0,0 +1,303 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.mail.DeliveryUncertainException;
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers PENDING notifications in the background. The notifications table
+ * is the durable queue; each channel has a bounded in-memory queue of ids in
+ * front of it, drained by that channel's own worker threads so a slow SMTP
+ * server cannot starve other channels. New rows are queued right after
+ * commit, and a poll picks up anything that did not fit, was written by
+ * another instance or was left behind by a restart. Workers take up to
+ * {@code batch-size} ids at a time so a channel can send them together.
+ * Failed sends are retried with backoff by {@link RetryPolicy}: the row goes
+ * back to FAILED with a later next-attempt time, and the poll picks it up
+ * again once that time has passed. Exhausted rows become DEAD.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+    private final NotificationRepository notificationRepository;
+    private final RetryPolicy retryPolicy;
+    private final Map<Notification.NotificationChannel, Lane> lanes =
+            new EnumMap<>(Notification.NotificationChannel.class);
+    // Ids currently waiting in, or being worked from, an in-memory queue
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final long staleAfterMs;
+    private final int batchSize;
+    private volatile boolean running;
+
+    public NotificationDispatcher(List<NotificationSender> senders,
+                                  NotificationRepository notificationRepository,
+                                  RetryPolicy retryPolicy,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${notification.dispatch.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${notification.dispatch.stale-after-ms:300000}") long staleAfterMs,
+                                  @Value("${notification.dispatch.batch-size:20}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.retryPolicy = retryPolicy;
+        this.staleAfterMs = staleAfterMs;
+        this.batchSize = Math.max(1, batchSize);
+
+        for (NotificationSender sender : senders) {
+            String channel = sender.channel().name().toLowerCase(Locale.ROOT);
+            int concurrency = environment.getProperty("notification.dispatch." + channel + ".concurrency",
+                    Integer.class, 4);
+            Lane lane = new Lane(sender, new ArrayBlockingQueue<>(queueCapacity), concurrency, meterRegistry);
+            lanes.put(sender.channel(), lane);
+            Gauge.builder("notification.dispatch.queue.depth", lane.queue, BlockingQueue::size)
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        notificationRepository.backfillNextAttempt();
+        LocalDateTime now = LocalDateTime.now();
+        int released = notificationRepository.releaseStale(now.minus(Duration.ofMillis(staleAfterMs)), now);
+        if (released > 0) {
+            log.warn("Re-queued {} notifications left in SENDING by a previous run", released);
+        }
+
+        running = true;
+        lanes.values().forEach(Lane::start);
+        poll();
+    }
+
+    /**
+     * Queues a saved PENDING notification for delivery once the surrounding
+     * transaction commits, or immediately if there is none.
+     */
+    public void submit(Notification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(notification.getChannel(), notification.getId());
+                }
+            });
+        } else {
+            offer(notification.getChannel(), notification.getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.poll-interval-ms:2000}")
+    public void poll() {
+        if (!running) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        notificationRepository.releaseStale(now.minus(Duration.ofMillis(staleAfterMs)), now);
+
+        lanes.forEach((channel, lane) -> {
+            int room = lane.queue.remainingCapacity();
+            if (room == 0) {
+                return;
+            }
+            // Ask for a little extra since some of the oldest ids may already be queued here
+            List<Long> ids = notificationRepository.findDueIds(channel, now, PageRequest.of(0, room + queued.size()));
+            for (Long id : ids) {
+                if (!offer(channel, id)) {
+                    break;
+                }
+            }
+        });
+    }
+
+    // Returns false only when the lane is full; the row stays PENDING for the next poll
+    private boolean offer(Notification.NotificationChannel channel, Long id) {
+        Lane lane = lanes.get(channel);
+        if (lane == null) {
+            log.warn("No sender for channel {}, notification {} stays pending", channel, id);
+            return true;
+        }
+        if (!queued.add(id)) {
+            return true;
+        }
+        if (!lane.queue.offer(id)) {
+            queued.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private static String describe(Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        // errorMessage is a plain VARCHAR(255)
+        return error.length() > 255 ? error.substring(0, 255) : error;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        lanes.values().forEach(lane -> lane.workers.shutdownNow());
+    }
+
+    private class Lane {
+        private final NotificationSender sender;
+        private final BlockingQueue<Long> queue;
+        private final int concurrency;
+        private final ExecutorService workers;
+        private final Counter sentCounter;
+        private final Counter failedCounter;
+        private final Counter deadCounter;
+        private final Timer sendTimer;
+        private final Timer delayTimer;
+        private final DistributionSummary batchSummary;
+
+        Lane(NotificationSender sender, BlockingQueue<Long> queue, int concurrency, MeterRegistry meterRegistry) {
+            String channel = sender.channel().name().toLowerCase(Locale.ROOT);
+            AtomicInteger threadCount = new AtomicInteger();
+            this.sender = sender;
+            this.queue = queue;
+            this.concurrency = concurrency;
+            this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "notify-" + channel + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sentCounter = Counter.builder("notification.dispatch.sent")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.failedCounter = Counter.builder("notification.dispatch.failed")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.deadCounter = Counter.builder("notification.dispatch.dead")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.sendTimer = Timer.builder("notification.dispatch.latency")
+                    .description("Time spent handing one batch to the channel")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.delayTimer = Timer.builder("notification.dispatch.delay")
+                    .description("Time from creation to successful delivery")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.batchSummary = DistributionSummary.builder("notification.dispatch.batch")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            List<Long> batch = new ArrayList<>(batchSize);
+            while (running && !Thread.currentThread().isInterrupted()) {
+                batch.clear();
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                try {
+                    deliver(batch);
+                } catch (Exception e) {
+                    // Database trouble; the rows are still PENDING or will be released as stale
+                    log.error("Dispatch of {} notifications failed: {}", batch.size(), e.getMessage());
+                } finally {
+                    batch.forEach(queued::remove);
+                }
+            }
+        }
+
+        private void deliver(List<Long> ids) {
+            LocalDateTime claimedAt = LocalDateTime.now();
+            List<Long> claimed = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                if (notificationRepository.claim(id, claimedAt) == 1) {
+                    claimed.add(id);
+                }
+            }
+            if (claimed.isEmpty()) {
+                return;
+            }
+            List<Notification> notifications = notificationRepository.findAllById(claimed);
+
+            long start = System.nanoTime();
+            Map<Long, Exception> failures = sender.sendAll(notifications);
+            sendTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            batchSummary.record(notifications.size());
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Notification notification : notifications) {
+                Exception failure = failures.get(notification.getId());
+                if (failure != null) {
+                    failedCounter.increment();
+                    fail(notification, failure, now);
+                    continue;
+                }
+                notificationRepository.markSent(notification.getId(), now);
+                sentCounter.increment();
+                if (notification.getCreatedAt() != null) {
+                    delayTimer.record(Duration.between(notification.getCreatedAt(), now));
+                }
+            }
+            log.debug("Sent {} of {} notifications on {}", notifications.size() - failures.size(),
+                    notifications.size(), sender.channel());
+        }
+
+        private void fail(Notification notification, Exception failure, LocalDateTime now) {
+            int failedAttempts = (notification.getAttempts() != null ? notification.getAttempts() : 0) + 1;
+            if (failure instanceof DeliveryUncertainException) {
+                // The server may have accepted it; an admin can replay it from the dead letters
+                deadCounter.increment();
+                log.error("Notification {} to {} may or may not have been delivered, not retrying: {}",
+                        notification.getId(), notification.getRecipientEmail(), failure.getMessage());
+                notificationRepository.markDead(notification.getId(), describe(failure), now);
+                return;
+            }
+            LocalDateTime nextAttemptAt = retryPolicy.nextAttemptAt(failedAttempts, now);
+            if (nextAttemptAt == null) {
+                deadCounter.increment();
+                log.error("Notification {} to {} dead-lettered after {} attempts: {}", notification.getId(),
+                        notification.getRecipientEmail(), failedAttempts, failure.getMessage());
+                notificationRepository.markDead(notification.getId(), describe(failure), now);
+                return;
+            }
+            log.warn("Failed to send notification {} to {} (attempt {}), retrying at {}: {}", notification.getId(),
+                    notification.getRecipientEmail(), failedAttempts, nextAttemptAt, failure.getMessage());
+            notificationRepository.scheduleRetry(notification.getId(), describe(failure), nextAttemptAt, now);
+        }
+    }
+}
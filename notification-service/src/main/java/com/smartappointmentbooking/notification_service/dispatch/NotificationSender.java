@@ -0,0 +1,33 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers notifications over one channel. Implementations are picked up by
+ * {@link NotificationDispatcher}, which gives each channel its own workers.
+ */
+public interface NotificationSender {
+    Notification.NotificationChannel channel();
+
+    void send(Notification notification) throws Exception;
+
+    /**
+     * Sends a batch and returns the failures by notification id. Channels
+     * that can reuse a connection across messages override this.
+     */
+    default Map<Long, Exception> sendAll(List<Notification> notifications) {
+        Map<Long, Exception> failures = new HashMap<>();
+        for (Notification notification : notifications) {
+            try {
+                send(notification);
+            } catch (Exception e) {
+                failures.put(notification.getId(), e);
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for failed deliveries. The delay doubles
+ * per attempt up to a cap, and the actual wait is drawn from the upper half
+ * of that delay so a burst of failures does not retry in lockstep.
+ */
+@Component
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(@Value("${notification.retry.max-attempts:6}") int maxAttempts,
+                       @Value("${notification.retry.initial-delay-ms:30000}") long initialDelayMs,
+                       @Value("${notification.retry.max-delay-ms:3600000}") long maxDelayMs) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * When to try again after the given number of failed attempts, or null
+     * once the notification should be dead-lettered.
+     */
+    public LocalDateTime nextAttemptAt(int failedAttempts, LocalDateTime now) {
+        if (failedAttempts >= maxAttempts) {
+            return null;
+        }
+        int exponent = Math.min(Math.max(0, failedAttempts - 1), 30);
+        long delay = Math.min(maxDelayMs, initialDelayMs << exponent);
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return now.plusNanos(jittered * 1_000_000L);
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.notification_service.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxPageResponse {
+    private List<NotificationResponse> items;
+    // Pass back as ?cursor= for the next (older) page; null on the last page
+    private String nextCursor;
+    private long unreadCount;
+}
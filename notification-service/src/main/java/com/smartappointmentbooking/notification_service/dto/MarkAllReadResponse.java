@@ -0,0 +1,11 @@
+package com.smartappointmentbooking.notification_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkAllReadResponse {
+    private int updated;
+}
@@ -17,5 +17,7 @@ public class NotificationResponse {
     private String channel;
     private Boolean isRead;
     private String status;
+    private Integer attempts;
+    private String errorMessage;
     private LocalDateTime createdAt;
 }
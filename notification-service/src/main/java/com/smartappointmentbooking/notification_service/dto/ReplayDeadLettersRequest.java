@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.notification_service.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayDeadLettersRequest {
+    private List<Long> ids; // Replays exactly these; otherwise the filters below apply
+    private String notificationType;
+    private LocalDateTime since; // Dead-lettered at or after this time
+}
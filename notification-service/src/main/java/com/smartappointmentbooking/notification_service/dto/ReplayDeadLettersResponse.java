@@ -0,0 +1,11 @@
+package com.smartappointmentbooking.notification_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayDeadLettersResponse {
+    private int replayed;
+}
@@ -12,4 +12,6 @@ public class SendEmailRequest {
     private String subject;
     private String message;
     private String notificationType; // APPOINTMENT_REMINDER, etc.
+    private String locale; // Language tag selecting a localised template, e.g. "fr"
+    private String entityRef; // What it is about, e.g. "appointment:42"; used to drop repeats
 }
@@ -0,0 +1,12 @@
+package com.smartappointmentbooking.notification_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountResponse {
+    private Long userId;
+    private long unreadCount;
+}
@@ -0,0 +1,77 @@
+package com.smartappointmentbooking.notification_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of one upcoming reminder. The in-memory timing wheel only
+ * holds ids; this row is what survives a restart and is re-checked at fire
+ * time, so a stale wheel entry for a moved or cancelled appointment is
+ * simply skipped.
+ */
+@Entity
+@Table(name = "appointment_reminders",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reminders_appointment_kind", columnNames = {"appointmentId", "kind"}),
+        indexes = @Index(name = "idx_reminders_status_fire_at", columnList = "status, fireAt"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long appointmentId;
+
+    @Column(nullable = false)
+    private Long patientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReminderKind kind;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentDate;
+
+    @Column(nullable = false)
+    private LocalDateTime fireAt;
+
+    @Column(nullable = false, length = 16)
+    private String status; // SCHEDULED, SENT, CANCELLED, EXPIRED, SKIPPED
+
+    @Column
+    private Long notificationId;
+
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Builder.Default
+    @Column
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public enum ReminderKind {
+        DAY_BEFORE(Duration.ofHours(24), "tomorrow"),
+        TWO_HOURS_BEFORE(Duration.ofHours(2), "in 2 hours");
+
+        private final Duration lead;
+        private final String description;
+
+        ReminderKind(Duration lead, String description) {
+            this.lead = lead;
+            this.description = description;
+        }
+
+        public Duration lead() {
+            return lead;
+        }
+
+        public String description() {
+            return description;
+        }
+    }
+}
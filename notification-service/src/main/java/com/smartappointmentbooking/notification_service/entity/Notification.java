@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_status_channel", columnList = "status, channel, nextAttemptAt"),
+        @Index(name = "idx_notifications_user_read_created", columnList = "userId, isRead, createdAt"),
+        @Index(name = "idx_notifications_user_created", columnList = "userId, createdAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -46,11 +50,31 @@ public class Notification {
     private LocalDateTime readAt;
 
     @Column
-    private String status; // PENDING, SENT, FAILED
+    private String status; // HELD (awaiting digest), PENDING, SENDING, SENT, FAILED (retry scheduled), DEAD, MERGED
 
     @Column
     private String errorMessage;
 
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // Earliest time the dispatcher may (re)try; indexed with status so only due rows are scanned
+    @Column
+    private LocalDateTime nextAttemptAt;
+
+    // Language tag for the email template, e.g. "fr" or "pt-BR"; null uses the default
+    @Column(length = 16)
+    private String locale;
+
+    // What the notification is about, e.g. "appointment:42"; repeats for the same entity are deduplicated
+    @Column(length = 64)
+    private String entityRef;
+
+    // For MERGED rows, the digest notification that delivered them
+    @Column
+    private Long digestId;
+
     @Builder.Default
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -65,7 +89,8 @@ public class Notification {
         APPOINTMENT_CANCELLED,
         APPOINTMENT_RESCHEDULED,
         DOCTOR_REVIEW,
-        SYSTEM_ALERT
+        SYSTEM_ALERT,
+        DIGEST
     }
 
     public enum NotificationChannel {
@@ -0,0 +1,96 @@
+package com.smartappointmentbooking.notification_service.inbox;
+
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread counts held in memory. A count is loaded once with an
+ * index-only COUNT and then kept current by the deltas of each create, read
+ * and delete as its transaction commits. The notifications table stays the
+ * source of truth: entries are reloaded after {@code refresh-ms}, which
+ * bounds any drift from writes made by other instances, and idle entries are
+ * dropped so memory follows the set of active users.
+ */
+@Component
+public class UnreadCounter {
+    private final NotificationRepository notificationRepository;
+    private final Map<Long, Entry> counts = new ConcurrentHashMap<>();
+    private final long refreshMs;
+
+    public UnreadCounter(NotificationRepository notificationRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${notification.unread.refresh-ms:60000}") long refreshMs) {
+        this.notificationRepository = notificationRepository;
+        this.refreshMs = refreshMs;
+        Gauge.builder("notification.unread.cached.users", counts, Map::size).register(meterRegistry);
+    }
+
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = counts.get(userId);
+        if (entry != null && now - entry.loadedAt < refreshMs) {
+            return entry.count.get();
+        }
+        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        counts.put(userId, new Entry(count, now));
+        return count;
+    }
+
+    public void increment(Long userId) {
+        adjust(userId, 1);
+    }
+
+    public void decrement(Long userId, long by) {
+        if (by > 0) {
+            adjust(userId, -by);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.unread.refresh-ms:60000}")
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - refreshMs;
+        counts.values().removeIf(entry -> entry.loadedAt < cutoff);
+    }
+
+    // Applied on commit; a reload racing the commit may be off by one until the next refresh
+    private void adjust(Long userId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, delta);
+                }
+            });
+        } else {
+            apply(userId, delta);
+        }
+    }
+
+    private void apply(Long userId, long delta) {
+        // Users nobody has asked about yet are loaded on first read instead
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.updateAndGet(count -> Math.max(0, count + delta));
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long loadedAt;
+
+        private Entry(long count, long loadedAt) {
+            this.count = new AtomicLong(count);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
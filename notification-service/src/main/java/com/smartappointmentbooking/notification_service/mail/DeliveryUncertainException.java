@@ -0,0 +1,13 @@
+package com.smartappointmentbooking.notification_service.mail;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * The connection failed while a message was being sent, so the server may
+ * or may not have queued it. Sending it again risks a duplicate email.
+ */
+public class DeliveryUncertainException extends MessagingException {
+    public DeliveryUncertainException(String message, Exception cause) {
+        super(message, cause);
+    }
+}
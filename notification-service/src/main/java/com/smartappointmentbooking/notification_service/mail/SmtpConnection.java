@@ -0,0 +1,98 @@
+package com.smartappointmentbooking.notification_service.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+
+/**
+ * One authenticated SMTP session borrowed from {@link SmtpTransportPool}.
+ * Messages sent through it reuse the same connection, so STARTTLS and AUTH
+ * are paid once per connection rather than once per message.
+ */
+public final class SmtpConnection {
+    private final JavaMailSenderImpl mailSender;
+    private Transport transport;
+    private int messagesSent;
+    private long openedAt;
+    private long lastUsedAt;
+
+    SmtpConnection(JavaMailSenderImpl mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Sends one message. A connection the server has already dropped (idle
+     * timeout, 421) is found before anything is sent and reopened. A
+     * {@link SendFailedException} with a server reply means the message was
+     * refused and leaves the connection usable. Any other failure happens
+     * mid-transaction, when the server may already have accepted the message,
+     * so the connection is discarded and the message is not resent.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        if (!isOpen()) {
+            close();
+            open();
+        }
+
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            if (!(e instanceof SMTPSendFailedException smtp) || smtp.getReturnCode() >= 0) {
+                throw e;
+            }
+            // No reply at all: the connection went away after the message was handed over
+            close();
+            throw uncertain(e);
+        } catch (MessagingException e) {
+            close();
+            throw uncertain(e);
+        }
+        messagesSent++;
+        lastUsedAt = System.currentTimeMillis();
+    }
+
+    private static DeliveryUncertainException uncertain(MessagingException e) {
+        return new DeliveryUncertainException("SMTP connection failed while sending: " + e.getMessage(), e);
+    }
+
+    void open() throws MessagingException {
+        Transport opened = mailSender.getSession().getTransport(mailSender.getProtocol());
+        opened.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        transport = opened;
+        messagesSent = 0;
+        openedAt = System.currentTimeMillis();
+        lastUsedAt = openedAt;
+    }
+
+    boolean isOpen() {
+        return transport != null && transport.isConnected();
+    }
+
+    int messagesSent() {
+        return messagesSent;
+    }
+
+    long lastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void close() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // Already gone
+            }
+            transport = null;
+        }
+    }
+}
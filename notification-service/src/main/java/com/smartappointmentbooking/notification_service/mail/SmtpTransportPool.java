@@ -0,0 +1,145 @@
+package com.smartappointmentbooking.notification_service.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps up to {@code size} authenticated SMTP connections open for reuse.
+ * Borrowers wait for a free connection, up to the borrow timeout, which
+ * applies backpressure to the dispatch workers instead of opening ever more
+ * connections. Idle connections are handed out most-recently-used first so
+ * surplus ones age out, and each is recycled after a fixed number of
+ * messages because many servers cap messages per session.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingDeque<SmtpConnection> idle = new LinkedBlockingDeque<>();
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final Counter openedCounter;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.mail.pool.size:8}") int size,
+                             @Value("${notification.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${notification.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${notification.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(size, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+
+        this.openedCounter = Counter.builder("notification.mail.connections.opened")
+                .register(meterRegistry);
+        Gauge.builder("notification.mail.pool.active", permits, p -> size - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("notification.mail.pool.idle", idle, BlockingDeque::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} with a connection held for its whole duration, so a
+     * batch of messages goes out over a single SMTP session.
+     */
+    public <T> T execute(ConnectionCallback<T> work) throws MessagingException {
+        SmtpConnection connection = borrow();
+        boolean healthy = false;
+        try {
+            T result = work.doWith(connection);
+            healthy = true;
+            return result;
+        } finally {
+            release(connection, healthy);
+        }
+    }
+
+    private SmtpConnection borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        try {
+            SmtpConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (connection.isOpen() && !isExpired(connection, System.currentTimeMillis())) {
+                    return connection;
+                }
+                connection.close();
+            }
+            connection = new SmtpConnection(mailSender);
+            connection.open();
+            openedCounter.increment();
+            return connection;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(SmtpConnection connection, boolean healthy) {
+        try {
+            if (healthy && connection.isOpen() && connection.messagesSent() < maxMessagesPerConnection) {
+                idle.offerFirst(connection);
+            } else {
+                connection.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.mail.pool.idle-timeout-ms:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<SmtpConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            SmtpConnection connection = iterator.next();
+            if (isExpired(connection, now) && idle.removeFirstOccurrence(connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    private boolean isExpired(SmtpConnection connection, long now) {
+        return now - connection.lastUsedAt() > idleTimeoutMs
+                || connection.messagesSent() >= maxMessagesPerConnection;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        SmtpConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.close();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doWith(SmtpConnection connection) throws MessagingException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartappointmentbooking.notification_service.reminder;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentEvent {
+    private String eventType; // CREATED, UPDATED, CANCELLED
+    private Long appointmentId;
+    private Long patientId;
+    private Long doctorId;
+    private Long serviceId;
+    private LocalDateTime appointmentDate;
+    private String status;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,297 @@
+package com.smartappointmentbooking.notification_service.reminder;
+
+import com.smartappointmentbooking.notification_service.client.UserDirectoryClient;
+import com.smartappointmentbooking.notification_service.entity.AppointmentReminder;
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.repository.AppointmentReminderRepository;
+import com.smartappointmentbooking.notification_service.repository.ReminderSlot;
+import com.smartappointmentbooking.notification_service.service.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sends "your appointment is coming up" reminders 24 hours and 2 hours ahead.
+ * Appointment events create, move or cancel rows in
+ * {@code appointment_reminders}; reminders due within the wheel's horizon are
+ * also kept as bare ids in a {@link TimingWheel}, and each tick fires
+ * whatever has come due in batches through the normal dispatch path. Rows
+ * further out stay in the database until a periodic load brings them within
+ * the horizon, which is also how the wheel is rebuilt after a restart.
+ */
+@Component
+@Slf4j
+public class ReminderScheduler {
+    private static final LocalDateTime NOTHING_LOADED = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'at' HH:mm", Locale.ENGLISH);
+
+    private final AppointmentReminderRepository reminderRepository;
+    private final NotificationService notificationService;
+    private final UserDirectoryClient userDirectoryClient;
+    private final TransactionTemplate transactionTemplate;
+    private final TimingWheel wheel;
+    private final long tickMs;
+    private final int batchSize;
+    private final Counter firedCounter;
+    private final Counter cancelledCounter;
+    // Rows due before this are in the wheel; rows after it are only in the database
+    private volatile LocalDateTime loadedUntil = NOTHING_LOADED;
+    private volatile boolean started;
+
+    public ReminderScheduler(AppointmentReminderRepository reminderRepository,
+                             NotificationService notificationService,
+                             UserDirectoryClient userDirectoryClient,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${notification.reminders.tick-ms:10000}") long tickMs,
+                             @Value("${notification.reminders.wheel-slots:8192}") int wheelSlots,
+                             @Value("${notification.reminders.batch-size:500}") int batchSize) {
+        this.reminderRepository = reminderRepository;
+        this.notificationService = notificationService;
+        this.userDirectoryClient = userDirectoryClient;
+        this.transactionTemplate = transactionTemplate;
+        this.tickMs = tickMs;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMs, wheelSlots, System.currentTimeMillis());
+
+        this.firedCounter = Counter.builder("notification.reminders.fired").register(meterRegistry);
+        this.cancelledCounter = Counter.builder("notification.reminders.cancelled").register(meterRegistry);
+        Gauge.builder("notification.reminders.wheel.size", wheel, TimingWheel::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadHorizon();
+        started = true;
+    }
+
+    @RabbitListener(queues = "${notification.reminders.queue:notification-service.appointment-events}")
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getAppointmentId() == null) {
+            log.warn("Ignoring appointment event without an appointment id");
+            return;
+        }
+        List<AppointmentReminder> scheduled = transactionTemplate.execute(status -> apply(event));
+        if (scheduled != null) {
+            scheduled.forEach(reminder -> addToWheel(reminder.getId(), reminder.getFireAt()));
+        }
+    }
+
+    /**
+     * Pulls reminders that have come within the wheel's horizon out of the
+     * database. The watermark moves first, so a reminder committed while the
+     * query runs is added to the wheel by its event handler instead; at worst
+     * an id is in the wheel twice, and the second firing finds it already sent.
+     */
+    @Scheduled(fixedDelayString = "${notification.reminders.load-interval-ms:300000}")
+    public synchronized void loadHorizon() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = toLocalDateTime(wheel.horizonMs() - tickMs);
+        if (!to.isAfter(from)) {
+            return;
+        }
+        loadedUntil = to;
+
+        long afterId = 0;
+        int loaded = 0;
+        List<ReminderSlot> page;
+        do {
+            page = reminderRepository.findScheduledSlots(from, to, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (ReminderSlot slot : page) {
+                wheel.schedule(slot.id(), toMillis(slot.fireAt()));
+                afterId = slot.id();
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        if (loaded > 0) {
+            log.info("Loaded {} reminders due before {} into the timing wheel", loaded, to);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${notification.reminders.tick-ms:10000}")
+    public void tick() {
+        if (!started) {
+            return;
+        }
+        List<Long> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                fire(batch);
+            } catch (RuntimeException e) {
+                // The rows are still SCHEDULED; try them again shortly
+                log.error("Failed to fire {} reminders: {}", batch.size(), e.getMessage());
+                long retryAt = System.currentTimeMillis() + 6 * tickMs;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    private List<AppointmentReminder> apply(AppointmentEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean upcoming = event.getAppointmentDate() != null
+                && !"CANCELLED".equals(event.getEventType())
+                && ("SCHEDULED".equals(event.getStatus()) || "CONFIRMED".equals(event.getStatus()));
+        if (!upcoming) {
+            int cancelled = reminderRepository.cancelScheduled(event.getAppointmentId(), now);
+            cancelledCounter.increment(cancelled);
+            return List.of();
+        }
+
+        Map<AppointmentReminder.ReminderKind, AppointmentReminder> existing =
+                new EnumMap<>(AppointmentReminder.ReminderKind.class);
+        reminderRepository.findByAppointmentId(event.getAppointmentId())
+                .forEach(reminder -> existing.put(reminder.getKind(), reminder));
+
+        List<AppointmentReminder> scheduled = new ArrayList<>();
+        for (AppointmentReminder.ReminderKind kind : AppointmentReminder.ReminderKind.values()) {
+            LocalDateTime fireAt = event.getAppointmentDate().minus(kind.lead());
+            AppointmentReminder reminder = existing.get(kind);
+
+            if (!fireAt.isAfter(now)) {
+                // Too late for this reminder; drop one still pending for an earlier time
+                if (reminder != null && "SCHEDULED".equals(reminder.getStatus())
+                        && !reminder.getFireAt().equals(fireAt)) {
+                    reminder.setStatus("CANCELLED");
+                    reminder.setUpdatedAt(now);
+                    reminderRepository.save(reminder);
+                    cancelledCounter.increment();
+                }
+                continue;
+            }
+            if (reminder != null && event.getAppointmentDate().equals(reminder.getAppointmentDate())
+                    && ("SCHEDULED".equals(reminder.getStatus()) || "SENT".equals(reminder.getStatus()))) {
+                continue;
+            }
+
+            if (reminder == null) {
+                reminder = AppointmentReminder.builder()
+                        .appointmentId(event.getAppointmentId())
+                        .kind(kind)
+                        .build();
+            }
+            reminder.setPatientId(event.getPatientId());
+            reminder.setAppointmentDate(event.getAppointmentDate());
+            reminder.setFireAt(fireAt);
+            reminder.setStatus("SCHEDULED");
+            reminder.setNotificationId(null);
+            reminder.setUpdatedAt(now);
+            scheduled.add(reminderRepository.save(reminder));
+        }
+        return scheduled;
+    }
+
+    private void fire(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueBy = now.plusNanos(tickMs * 1_000_000L);
+        List<AppointmentReminder> live = new ArrayList<>();
+        for (AppointmentReminder reminder : reminderRepository.findAllById(ids)) {
+            if (!"SCHEDULED".equals(reminder.getStatus()) || reminder.getFireAt().isAfter(dueBy)) {
+                // Cancelled, already sent, or moved later (its new entry fires then)
+                continue;
+            }
+            if (!reminder.getAppointmentDate().isAfter(now)) {
+                // Overdue after downtime and the appointment has already started
+                transactionTemplate.executeWithoutResult(status ->
+                        reminderRepository.finish(reminder.getId(), reminder.getFireAt(), "EXPIRED", now));
+                continue;
+            }
+            live.add(reminder);
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        Set<Long> patientIds = live.stream().map(AppointmentReminder::getPatientId).collect(Collectors.toSet());
+        Map<Long, String> emails;
+        try {
+            emails = userDirectoryClient.findEmails(patientIds);
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Could not resolve patient emails: " + e.getMessage(), e);
+        }
+
+        Integer fired = transactionTemplate.execute(status -> {
+            List<AppointmentReminder> claimed = new ArrayList<>();
+            List<Notification> notifications = new ArrayList<>();
+            for (AppointmentReminder reminder : live) {
+                String email = emails.get(reminder.getPatientId());
+                if (email == null) {
+                    reminderRepository.finish(reminder.getId(), reminder.getFireAt(), "SKIPPED", now);
+                    log.warn("Skipping reminder {}: no email for patient {}", reminder.getId(), reminder.getPatientId());
+                    continue;
+                }
+                // Another instance may have fired it already
+                if (reminderRepository.finish(reminder.getId(), reminder.getFireAt(), "SENT", now) == 1) {
+                    claimed.add(reminder);
+                    notifications.add(buildNotification(reminder, email, now));
+                }
+            }
+
+            List<Notification> saved = notificationService.enqueue(notifications);
+            for (int i = 0; i < saved.size(); i++) {
+                reminderRepository.attachNotification(claimed.get(i).getId(), saved.get(i).getId());
+            }
+            return saved.size();
+        });
+
+        if (fired != null && fired > 0) {
+            firedCounter.increment(fired);
+            log.info("Fired {} appointment reminders", fired);
+        }
+    }
+
+    private Notification buildNotification(AppointmentReminder reminder, String email, LocalDateTime now) {
+        String when = reminder.getAppointmentDate().format(DATE_FORMAT);
+        return Notification.builder()
+                .userId(reminder.getPatientId())
+                .recipientEmail(email)
+                .subject("Reminder: your appointment " + reminder.getKind().description())
+                .message("This is a reminder that you have an appointment on " + when + ".")
+                .notificationType(Notification.NotificationType.APPOINTMENT_REMINDER)
+                .entityRef("appointment:" + reminder.getAppointmentId())
+                .channel(Notification.NotificationChannel.EMAIL)
+                .status("PENDING")
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    private void addToWheel(Long id, LocalDateTime fireAt) {
+        if (fireAt.isBefore(loadedUntil)) {
+            wheel.schedule(id, toMillis(fireAt));
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
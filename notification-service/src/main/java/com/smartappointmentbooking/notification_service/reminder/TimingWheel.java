@@ -0,0 +1,91 @@
+package com.smartappointmentbooking.notification_service.reminder;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel of reminder ids covering one revolution
+ * ({@code slots * tickMs}) ahead of the current tick. Each slot is a plain
+ * growable {@code long[]}, so a pending reminder costs eight bytes and no
+ * object. Entries are never removed early: a cancelled or moved reminder is
+ * left in place and discarded when its slot fires and the row no longer
+ * matches.
+ */
+final class TimingWheel {
+    private static final int INITIAL_SLOT_CAPACITY = 4;
+    private static final int RETAINED_SLOT_CAPACITY = 1024;
+
+    private final long tickMs;
+    private final long[][] slots;
+    private final int[] sizes;
+    private final int mask;
+    // The next tick to expire; everything before it has been handed out
+    private long currentTick;
+    private long size;
+
+    TimingWheel(long tickMs, int slotCount, long startMs) {
+        int capacity = Integer.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+        this.tickMs = tickMs;
+        this.slots = new long[capacity][];
+        this.sizes = new int[capacity];
+        this.mask = capacity - 1;
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Adds an id to the slot for {@code fireAtMs}; times already passed go
+     * into the next slot to expire. Returns false if the time is beyond the
+     * wheel's horizon.
+     */
+    synchronized boolean schedule(long id, long fireAtMs) {
+        long tick = Math.max(currentTick, fireAtMs / tickMs);
+        if (tick - currentTick >= slots.length) {
+            return false;
+        }
+        int slot = (int) (tick & mask);
+        long[] ids = slots[slot];
+        if (ids == null) {
+            ids = slots[slot] = new long[INITIAL_SLOT_CAPACITY];
+        } else if (sizes[slot] == ids.length) {
+            long[] grown = new long[ids.length * 2];
+            System.arraycopy(ids, 0, grown, 0, ids.length);
+            ids = slots[slot] = grown;
+        }
+        ids[sizes[slot]++] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Hands every id whose tick is at or before {@code nowMs} to {@code due}.
+     * Called under the wheel's lock, so {@code due} must not block.
+     */
+    synchronized void advance(long nowMs, LongConsumer due) {
+        long targetTick = nowMs / tickMs;
+        // After a long stall one full revolution covers every slot
+        long ticks = Math.min(targetTick - currentTick + 1, slots.length);
+        for (long i = 0; i < ticks; i++) {
+            int slot = (int) ((currentTick + i) & mask);
+            long[] ids = slots[slot];
+            for (int j = 0; j < sizes[slot]; j++) {
+                due.accept(ids[j]);
+            }
+            size -= sizes[slot];
+            sizes[slot] = 0;
+            if (ids != null && ids.length > RETAINED_SLOT_CAPACITY) {
+                slots[slot] = null;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick + 1);
+    }
+
+    /**
+     * The first instant the wheel cannot hold yet.
+     */
+    synchronized long horizonMs() {
+        return (currentTick + slots.length) * tickMs;
+    }
+
+    synchronized long size() {
+        return size;
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartappointmentbooking.notification_service.repository;
+
+import com.smartappointmentbooking.notification_service.entity.AppointmentReminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Long> {
+    List<AppointmentReminder> findByAppointmentId(Long appointmentId);
+
+    @Query("SELECT new com.smartappointmentbooking.notification_service.repository.ReminderSlot(r.id, r.fireAt) "
+            + "FROM AppointmentReminder r WHERE r.status = 'SCHEDULED' AND r.fireAt >= :from AND r.fireAt < :to "
+            + "AND r.id > :afterId ORDER BY r.id")
+    List<ReminderSlot> findScheduledSlots(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.status = 'CANCELLED', r.updatedAt = :now "
+            + "WHERE r.appointmentId = :appointmentId AND r.status = 'SCHEDULED'")
+    int cancelScheduled(@Param("appointmentId") Long appointmentId, @Param("now") LocalDateTime now);
+
+    // Conditional on the fire time too, so a reminder rescheduled meanwhile is left alone
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.status = :status, r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.status = 'SCHEDULED' AND r.fireAt = :fireAt")
+    int finish(@Param("id") Long id,
+               @Param("fireAt") LocalDateTime fireAt,
+               @Param("status") String status,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AppointmentReminder r SET r.notificationId = :notificationId WHERE r.id = :id")
+    int attachNotification(@Param("id") Long id, @Param("notificationId") Long notificationId);
+}
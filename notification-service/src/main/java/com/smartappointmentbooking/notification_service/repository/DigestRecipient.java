@@ -0,0 +1,8 @@
+package com.smartappointmentbooking.notification_service.repository;
+
+/**
+ * One inbox a digest is built for. Held rows are grouped by the address as
+ * well as the user, so a digest never carries another recipient's emails.
+ */
+public record DigestRecipient(Long userId, String recipientEmail) {
+}
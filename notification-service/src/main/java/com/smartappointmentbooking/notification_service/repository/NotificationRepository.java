@@ -1,8 +1,17 @@
 package com.smartappointmentbooking.notification_service.repository;
 
 import com.smartappointmentbooking.notification_service.entity.Notification;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -10,4 +19,169 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserId(Long userId);
 
     List<Notification> findByUserIdAndIsRead(Long userId, Boolean isRead);
+
+    long countByUserIdAndIsReadFalse(Long userId);
+
+    // Inbox pages, newest first, continuing below the (createdAt, id) of the previous page's last row
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPage(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.isRead = false "
+            + "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadInboxPage(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    // Conditional so the unread count only moves when the flag actually flips
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now, n.updatedAt = :now "
+            + "WHERE n.id = :id AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :now, n.updatedAt = :now "
+            + "WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Notification n WHERE n.id = :id")
+    int deleteNotification(@Param("id") Long id);
+
+    // Earlier notifications about the same thing, newest first, for deduplication
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.recipientEmail = :recipientEmail "
+            + "AND n.notificationType = :type AND n.entityRef = :entityRef AND n.createdAt >= :since "
+            + "ORDER BY n.id DESC")
+    List<Notification> findRecentForEntity(@Param("userId") Long userId,
+                                           @Param("recipientEmail") String recipientEmail,
+                                           @Param("type") Notification.NotificationType type,
+                                           @Param("entityRef") String entityRef,
+                                           @Param("since") LocalDateTime since,
+                                           Pageable pageable);
+
+    // Latest content wins while the earlier copy has not been picked up for sending
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.subject = :subject, n.message = :message, n.updatedAt = :now "
+            + "WHERE n.id = :id AND n.status IN ('HELD', 'PENDING')")
+    int refold(@Param("id") Long id,
+               @Param("subject") String subject,
+               @Param("message") String message,
+               @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.recipientEmail = :recipientEmail "
+            + "AND n.notificationType IN :types AND n.createdAt >= :since")
+    long countRecent(@Param("userId") Long userId,
+                     @Param("recipientEmail") String recipientEmail,
+                     @Param("types") Collection<Notification.NotificationType> types,
+                     @Param("since") LocalDateTime since);
+
+    @Query("SELECT MIN(n.nextAttemptAt) FROM Notification n WHERE n.userId = :userId "
+            + "AND n.recipientEmail = :recipientEmail AND n.status = 'HELD'")
+    LocalDateTime findHeldReleaseTime(@Param("userId") Long userId,
+                                      @Param("recipientEmail") String recipientEmail);
+
+    @Query("SELECT DISTINCT new com.smartappointmentbooking.notification_service.repository.DigestRecipient("
+            + "n.userId, n.recipientEmail) FROM Notification n WHERE n.status = 'HELD' AND n.channel = :channel "
+            + "AND n.nextAttemptAt <= :now")
+    List<DigestRecipient> findRecipientsWithDueHeld(@Param("channel") Notification.NotificationChannel channel,
+                                                    @Param("now") LocalDateTime now,
+                                                    Pageable pageable);
+
+    // Locks the held rows so only one instance turns them into a digest
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.recipientEmail = :recipientEmail "
+            + "AND n.status = 'HELD' ORDER BY n.id")
+    List<Notification> findHeldForUpdate(@Param("userId") Long userId,
+                                         @Param("recipientEmail") String recipientEmail);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.nextAttemptAt = :now, n.updatedAt = :now "
+            + "WHERE n.id IN :ids AND n.status = 'HELD'")
+    int releaseHeld(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'MERGED', n.digestId = :digestId, n.nextAttemptAt = null, "
+            + "n.updatedAt = :now WHERE n.id IN :ids AND n.status = 'HELD'")
+    int markMerged(@Param("ids") Collection<Long> ids,
+                   @Param("digestId") Long digestId,
+                   @Param("now") LocalDateTime now);
+
+    // What a reconnecting stream missed since the last event id it saw
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    // New rows and failed rows whose backoff has elapsed, oldest due first
+    @Query("SELECT n.id FROM Notification n WHERE n.status IN ('PENDING', 'FAILED') AND n.channel = :channel "
+            + "AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt")
+    List<Long> findDueIds(@Param("channel") Notification.NotificationChannel channel,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    // Conditional so that only one worker, on any instance, sends a given row
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'SENDING', n.updatedAt = :now "
+            + "WHERE n.id = :id AND n.status IN ('PENDING', 'FAILED') AND n.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'SENT', n.sentAt = :now, n.errorMessage = null, "
+            + "n.attempts = n.attempts + 1, n.updatedAt = :now WHERE n.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'FAILED', n.errorMessage = :error, n.attempts = n.attempts + 1, "
+            + "n.nextAttemptAt = :nextAttemptAt, n.updatedAt = :now WHERE n.id = :id")
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("error") String error,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'DEAD', n.errorMessage = :error, n.attempts = n.attempts + 1, "
+            + "n.nextAttemptAt = null, n.updatedAt = :now WHERE n.id = :id")
+    int markDead(@Param("id") Long id, @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.updatedAt = :now "
+            + "WHERE n.status = 'SENDING' AND n.updatedAt < :cutoff")
+    int releaseStale(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+
+    // Rows written before retries existed have no due time yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.nextAttemptAt = n.createdAt "
+            + "WHERE n.nextAttemptAt IS NULL AND n.status IN ('PENDING', 'FAILED')")
+    int backfillNextAttempt();
+
+    @Query("SELECT n FROM Notification n WHERE n.status = 'DEAD' AND n.id > :afterId ORDER BY n.id")
+    List<Notification> findDeadLetters(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.attempts = 0, n.errorMessage = null, "
+            + "n.nextAttemptAt = :now, n.updatedAt = :now WHERE n.status = 'DEAD' AND n.id IN :ids")
+    int replayDeadLetters(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.status = 'PENDING', n.attempts = 0, n.errorMessage = null, "
+            + "n.nextAttemptAt = :now, n.updatedAt = :now WHERE n.status = 'DEAD' "
+            + "AND (:type IS NULL OR n.notificationType = :type) AND n.updatedAt >= :since")
+    int replayDeadLettersSince(@Param("type") Notification.NotificationType type,
+                               @Param("since") LocalDateTime since,
+                               @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,9 @@
+package com.smartappointmentbooking.notification_service.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The two columns the timing wheel needs, read without loading entities.
+ */
+public record ReminderSlot(Long id, LocalDateTime fireAt) {
+}
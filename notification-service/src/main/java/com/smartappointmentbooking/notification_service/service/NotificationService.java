@@ -1,142 +1,113 @@
 package com.smartappointmentbooking.notification_service.service;
 
+import com.smartappointmentbooking.notification_service.coalesce.NotificationCoalescer;
+import com.smartappointmentbooking.notification_service.dispatch.NotificationDispatcher;
+import com.smartappointmentbooking.notification_service.dto.InboxPageResponse;
+import com.smartappointmentbooking.notification_service.dto.MarkAllReadResponse;
+import com.smartappointmentbooking.notification_service.dto.ReplayDeadLettersRequest;
+import com.smartappointmentbooking.notification_service.dto.ReplayDeadLettersResponse;
 import com.smartappointmentbooking.notification_service.dto.SendEmailRequest;
 import com.smartappointmentbooking.notification_service.dto.NotificationResponse;
+import com.smartappointmentbooking.notification_service.dto.UnreadCountResponse;
 import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.inbox.UnreadCounter;
 import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import com.smartappointmentbooking.notification_service.stream.NotificationStreamRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
-        private final NotificationRepository notificationRepository;
-        private final JavaMailSender javaMailSender;
+        // Later than any stored createdAt, and still within MySQL's DATETIME range
+        private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
 
-        @Value("${spring.mail.username}")
-        private String fromEmail;
+        private final NotificationRepository notificationRepository;
+        private final NotificationDispatcher notificationDispatcher;
+        private final NotificationCoalescer notificationCoalescer;
+        private final NotificationStreamRegistry notificationStreamRegistry;
+        private final UnreadCounter unreadCounter;
 
-        @Value("${app.name:Smart Appointment Booking}")
-        private String appName;
+        @Value("${notification.stream.replay-limit:100}")
+        private int streamReplayLimit;
 
+        /**
+         * Records the email as PENDING and hands it to the dispatcher; delivery
+         * happens in the background and updates the row to SENT or FAILED.
+         * Appointment emails pass through the coalescer first, which may fold
+         * a repeat into an earlier copy or hold it for the user's next digest.
+         */
         public NotificationResponse sendEmail(SendEmailRequest request) {
-                try {
-                        // Save notification to database with PENDING status
-                        Notification notification = Notification.builder()
-                                        .userId(request.getUserId() != null ? request.getUserId() : 0L)
-                                        .recipientEmail(request.getRecipientEmail())
-                                        .subject(request.getSubject())
-                                        .message(request.getMessage())
-                                        .notificationType(Notification.NotificationType.valueOf(
-                                                        request.getNotificationType() != null
-                                                                        ? request.getNotificationType()
-                                                                        : "SYSTEM_ALERT"))
-                                        .channel(Notification.NotificationChannel.EMAIL)
-                                        .status("PENDING")
-                                        .build();
-
-                        // Create MIME message for HTML email
-                        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-                        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-                        // Set email headers
-                        helper.setTo(request.getRecipientEmail());
-                        helper.setSubject(request.getSubject());
-                        helper.setFrom(fromEmail, appName);
-
-                        // Create HTML email body with professional formatting
-                        String htmlContent = buildHtmlEmailBody(request.getSubject(), request.getMessage());
-                        helper.setText(htmlContent, true);
-
-                        // Send email
-                        javaMailSender.send(mimeMessage);
-
-                        // Update notification status to SENT
-                        notification.setStatus("SENT");
-                        notification.setSentAt(LocalDateTime.now());
-                        notification = notificationRepository.save(notification);
-
-                        log.info("Email sent successfully to: {} with subject: {}", request.getRecipientEmail(),
-                                        request.getSubject());
-                        return mapToResponse(notification);
-
-                } catch (MessagingException e) {
-                        log.error("Failed to send email to {}: {}", request.getRecipientEmail(), e.getMessage());
-                        // Save failed notification record
-                        Notification notification = Notification.builder()
-                                        .userId(request.getUserId() != null ? request.getUserId() : 0L)
-                                        .recipientEmail(request.getRecipientEmail())
-                                        .subject(request.getSubject())
-                                        .message(request.getMessage())
-                                        .notificationType(Notification.NotificationType.valueOf(
-                                                        request.getNotificationType() != null
-                                                                        ? request.getNotificationType()
-                                                                        : "SYSTEM_ALERT"))
-                                        .channel(Notification.NotificationChannel.EMAIL)
-                                        .status("FAILED")
-                                        .errorMessage("MessagingException: " + e.getMessage())
-                                        .build();
-                        notification = notificationRepository.save(notification);
-                        return mapToResponse(notification);
-                } catch (Exception e) {
-                        log.error("Unexpected error while sending email to {}: {}", request.getRecipientEmail(),
-                                        e.getMessage());
-                        Notification notification = Notification.builder()
-                                        .userId(request.getUserId() != null ? request.getUserId() : 0L)
-                                        .recipientEmail(request.getRecipientEmail())
-                                        .subject(request.getSubject())
-                                        .message(request.getMessage())
-                                        .notificationType(Notification.NotificationType.valueOf(
-                                                        request.getNotificationType() != null
-                                                                        ? request.getNotificationType()
-                                                                        : "SYSTEM_ALERT"))
-                                        .channel(Notification.NotificationChannel.EMAIL)
-                                        .status("FAILED")
-                                        .errorMessage(e.getClass().getSimpleName() + ": " + e.getMessage())
-                                        .build();
-                        notification = notificationRepository.save(notification);
-                        return mapToResponse(notification);
+                Notification notification = Notification.builder()
+                                .userId(request.getUserId() != null ? request.getUserId() : 0L)
+                                .recipientEmail(request.getRecipientEmail())
+                                .subject(request.getSubject())
+                                .message(request.getMessage())
+                                .notificationType(Notification.NotificationType.valueOf(
+                                                request.getNotificationType() != null
+                                                                ? request.getNotificationType()
+                                                                : "SYSTEM_ALERT"))
+                                .channel(Notification.NotificationChannel.EMAIL)
+                                .locale(request.getLocale())
+                                .entityRef(request.getEntityRef())
+                                .status("PENDING")
+                                .nextAttemptAt(LocalDateTime.now())
+                                .build();
+
+                Optional<Notification> folded = notificationCoalescer.coalesce(notification);
+                if (folded.isPresent()) {
+                        log.info("Email for: {} folded into notification {}", request.getRecipientEmail(), folded.get().getId());
+                        return mapToResponse(folded.get());
                 }
+                notification = enqueue(List.of(notification)).get(0);
+
+                log.info("Email {} for: {} with subject: {}", "HELD".equals(notification.getStatus()) ? "held" : "queued",
+                                request.getRecipientEmail(), request.getSubject());
+                return mapToResponse(notification);
         }
 
-        private String buildHtmlEmailBody(String subject, String message) {
-                return "<html><body style=\"font-family: Arial, sans-serif; line-height: 1.6; color: #333;\">" +
-                                "<div style=\"max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #ddd; border-radius: 5px;\">"
-                                +
-                                "<div style=\"background-color: #f8f9fa; padding: 15px; border-radius: 5px; margin-bottom: 20px;\">"
-                                +
-                                "<h2 style=\"margin: 0; color: #0066cc;\">" + appName + "</h2>" +
-                                "</div>" +
-                                "<h3 style=\"color: #333; margin-top: 0;\">" + subject + "</h3>" +
-                                "<p style=\"white-space: pre-wrap; word-wrap: break-word;\">" + escapeHtml(message)
-                                + "</p>" +
-                                "<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\">" +
-                                "<p style=\"font-size: 12px; color: #999; text-align: center;\">" +
-                                "This is an automated message from " + appName + ". Please do not reply to this email."
-                                +
-                                "</p>" +
-                                "</div>" +
-                                "</body></html>";
+        /**
+         * Saves already-built notifications and hands the PENDING ones to the
+         * dispatcher; inside a transaction they are queued once it commits.
+         */
+        public List<Notification> enqueue(List<Notification> notifications) {
+                if (notifications.isEmpty()) {
+                        return List.of();
+                }
+                List<Notification> saved = notificationRepository.saveAll(notifications);
+                saved.stream()
+                                .filter(notification -> "PENDING".equals(notification.getStatus()))
+                                .forEach(notificationDispatcher::submit);
+                saved.forEach(notification -> unreadCounter.increment(notification.getUserId()));
+                saved.forEach(notification -> notificationStreamRegistry.publish(mapToResponse(notification)));
+                return saved;
         }
 
-        private String escapeHtml(String text) {
-                if (text == null)
-                        return "";
-                return text.replace("&", "&amp;")
-                                .replace("<", "&lt;")
-                                .replace(">", "&gt;")
-                                .replace("\"", "&quot;")
-                                .replace("'", "&#39;");
+        /**
+         * Opens a push stream for the user. A reconnecting client passes the
+         * last event id it saw and first receives what it missed meanwhile.
+         */
+        public SseEmitter subscribe(Long userId, Long lastEventId) {
+                // Replayed onto the new stream only; the user's other tabs already have these
+                return notificationStreamRegistry.subscribe(userId, () -> lastEventId == null
+                                ? List.of()
+                                : notificationRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                                                                userId, lastEventId, PageRequest.of(0, streamReplayLimit))
+                                                .stream()
+                                                .map(this::mapToResponse)
+                                                .toList());
         }
 
         public List<NotificationResponse> getNotificationsByUserId(Long userId) {
@@ -154,14 +125,111 @@ public class NotificationService {
         public NotificationResponse markAsRead(Long id) {
                 Notification notification = notificationRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Notification not found"));
-                notification.setIsRead(true);
-                notification.setReadAt(LocalDateTime.now());
-                notification = notificationRepository.save(notification);
+                LocalDateTime now = LocalDateTime.now();
+                if (notificationRepository.markRead(id, now) == 1) {
+                        unreadCounter.decrement(notification.getUserId(), 1);
+                        notification.setIsRead(true);
+                        notification.setReadAt(now);
+                }
                 return mapToResponse(notification);
         }
 
+        public MarkAllReadResponse markAllAsRead(Long userId) {
+                int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+                unreadCounter.decrement(userId, updated);
+                return MarkAllReadResponse.builder()
+                                .updated(updated)
+                                .build();
+        }
+
         public void deleteNotification(Long id) {
-                notificationRepository.deleteById(id);
+                Notification notification = notificationRepository.findById(id)
+                                .orElseThrow(() -> new RuntimeException("Notification not found"));
+                if (notificationRepository.deleteNotification(id) == 1 && !notification.getIsRead()) {
+                        unreadCounter.decrement(notification.getUserId(), 1);
+                }
+        }
+
+        public UnreadCountResponse getUnreadCount(Long userId) {
+                return UnreadCountResponse.builder()
+                                .userId(userId)
+                                .unreadCount(unreadCounter.get(userId))
+                                .build();
+        }
+
+        /**
+         * One page of the user's inbox, newest first. The cursor encodes the
+         * (createdAt, id) of the last row returned, so each page is a range
+         * scan on the user's index rather than an OFFSET.
+         */
+        public InboxPageResponse getInbox(Long userId, boolean unreadOnly, String cursor, int limit) {
+                int size = Math.min(100, Math.max(1, limit));
+                LocalDateTime beforeCreatedAt = INBOX_START;
+                long beforeId = Long.MAX_VALUE;
+                if (cursor != null && !cursor.isBlank()) {
+                        try {
+                                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                                                .split("\\|", 2);
+                                beforeCreatedAt = LocalDateTime.parse(parts[0]);
+                                beforeId = Long.parseLong(parts[1]);
+                        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                                throw new IllegalArgumentException("Invalid inbox cursor");
+                        }
+                }
+
+                // One extra row tells us whether another page follows
+                PageRequest page = PageRequest.of(0, size + 1);
+                List<Notification> rows = unreadOnly
+                                ? notificationRepository.findUnreadInboxPage(userId, beforeCreatedAt, beforeId, page)
+                                : notificationRepository.findInboxPage(userId, beforeCreatedAt, beforeId, page);
+
+                String nextCursor = null;
+                if (rows.size() > size) {
+                        rows = rows.subList(0, size);
+                        Notification last = rows.get(size - 1);
+                        nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                                        (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+                }
+
+                return InboxPageResponse.builder()
+                                .items(rows.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                                .nextCursor(nextCursor)
+                                .unreadCount(unreadCounter.get(userId))
+                                .build();
+        }
+
+        public List<NotificationResponse> getDeadLetters(Long afterId, int limit) {
+                return notificationRepository.findDeadLetters(afterId != null ? afterId : 0L,
+                                PageRequest.of(0, Math.min(500, Math.max(1, limit)))).stream()
+                                .map(this::mapToResponse)
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * Puts dead-lettered notifications back in the queue with a fresh retry
+         * budget, either the listed ids or every one matching the filters.
+         */
+        public ReplayDeadLettersResponse replayDeadLetters(ReplayDeadLettersRequest request) {
+                LocalDateTime now = LocalDateTime.now();
+                int replayed = 0;
+                if (request.getIds() != null && !request.getIds().isEmpty()) {
+                        List<Long> ids = request.getIds();
+                        for (int from = 0; from < ids.size(); from += 1000) {
+                                replayed += notificationRepository.replayDeadLetters(
+                                                ids.subList(from, Math.min(ids.size(), from + 1000)), now);
+                        }
+                } else {
+                        Notification.NotificationType type = request.getNotificationType() != null
+                                        ? Notification.NotificationType.valueOf(request.getNotificationType())
+                                        : null;
+                        LocalDateTime since = request.getSince() != null ? request.getSince() : LocalDateTime.of(1970, 1, 1, 0, 0);
+                        replayed = notificationRepository.replayDeadLettersSince(type, since, now);
+                }
+
+                log.info("Replayed {} dead-lettered notifications", replayed);
+                return ReplayDeadLettersResponse.builder()
+                                .replayed(replayed)
+                                .build();
         }
 
         public List<NotificationResponse> getAllNotifications() {
@@ -181,6 +249,8 @@ public class NotificationService {
                                 .channel(notification.getChannel().toString())
                                 .isRead(notification.getIsRead())
                                 .status(notification.getStatus())
+                                .attempts(notification.getAttempts())
+                                .errorMessage(notification.getErrorMessage())
                                 .createdAt(notification.getCreatedAt())
                                 .build();
         }
@@ -0,0 +1,277 @@
+package com.smartappointmentbooking.notification_service.stream;
+
+import com.smartappointmentbooking.notification_service.dto.NotificationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fans new notifications out to the users' open Server-Sent Events streams.
+ * Publishing never writes to a socket: each connection has a small bounded
+ * buffer drained by its own writer, so one slow client cannot hold up
+ * delivery to anyone else. A connection whose buffer overflows is closed;
+ * the client reconnects with {@code Last-Event-ID} and catches up from the
+ * database. That catch-up goes to the new connection alone, ahead of its
+ * live events and outside the bounded buffer. Heartbeats keep idle streams
+ * open through proxies.
+ */
+@Component
+@Slf4j
+public class NotificationStreamRegistry {
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Deque<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // Writers block on slow sockets, so give each drain its own cheap thread
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("notification-stream-", 0).factory());
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final Counter pushedCounter;
+    private final Counter overflowCounter;
+
+    public NotificationStreamRegistry(MeterRegistry meterRegistry,
+                                      @Value("${notification.stream.timeout-ms:1800000}") long timeoutMs,
+                                      @Value("${notification.stream.buffer-size:32}") int bufferSize,
+                                      @Value("${notification.stream.max-connections-per-user:5}") int maxPerUser) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+
+        this.pushedCounter = Counter.builder("notification.stream.pushed").register(meterRegistry);
+        this.overflowCounter = Counter.builder("notification.stream.overflow").register(meterRegistry);
+        Gauge.builder("notification.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream and replays {@code missed} onto it before any live
+     * event. The backlog is loaded after the stream is registered, so an
+     * event published meanwhile is not lost; if it also appears in the
+     * backlog it is sent only once.
+     */
+    public SseEmitter subscribe(Long userId, Supplier<List<NotificationResponse>> missed) {
+        Subscription subscription = new Subscription(userId, new SseEmitter(timeoutMs), bufferSize);
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscription));
+
+        Deque<Subscription> userSubscriptions = subscriptions.compute(userId, (id, deque) -> {
+            Deque<Subscription> target = deque != null ? deque : new ConcurrentLinkedDeque<>();
+            target.addLast(subscription);
+            return target;
+        });
+        connections.incrementAndGet();
+        // Forgotten tabs shouldn't pile up; the oldest connection makes way
+        while (userSubscriptions.size() > maxPerUser) {
+            Subscription oldest = userSubscriptions.pollFirst();
+            if (oldest == null) {
+                break;
+            }
+            connections.decrementAndGet();
+            oldest.close();
+        }
+
+        List<NotificationResponse> backlog;
+        try {
+            backlog = missed.get();
+        } catch (RuntimeException e) {
+            subscription.close();
+            throw e;
+        }
+        subscription.startWith(backlog);
+
+        // Sends the response headers straight away so the client sees the stream open
+        subscription.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * Pushes to every open stream of the notification's user, after the
+     * surrounding transaction commits so clients never see a rolled-back row.
+     */
+    public void publish(NotificationResponse notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(notification);
+                }
+            });
+        } else {
+            deliver(notification);
+        }
+    }
+
+    public void publishAll(Collection<NotificationResponse> notifications) {
+        notifications.forEach(this::publish);
+    }
+
+    public boolean isConnected(Long userId) {
+        Deque<Subscription> userSubscriptions = subscriptions.get(userId);
+        return userSubscriptions != null && !userSubscriptions.isEmpty();
+    }
+
+    @Scheduled(fixedRateString = "${notification.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        // A full buffer already has something to send, so a skipped ping costs nothing
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> {
+            if (subscription.buffer.offer(HEARTBEAT)) {
+                subscription.drain();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(Subscription::close));
+        writers.shutdown();
+    }
+
+    private void deliver(NotificationResponse notification) {
+        Deque<Subscription> userSubscriptions = subscriptions.get(notification.getUserId());
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            if (!subscription.offer(notification)) {
+                overflowCounter.increment();
+                log.debug("Closing slow notification stream for user {}", notification.getUserId());
+                subscription.close();
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        Deque<Subscription> userSubscriptions = subscriptions.get(subscription.userId);
+        if (userSubscriptions != null && userSubscriptions.remove(subscription)) {
+            connections.decrementAndGet();
+            subscriptions.computeIfPresent(subscription.userId, (id, deque) -> deque.isEmpty() ? null : deque);
+        }
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> buffer;
+        // Catch-up from the database; bounded by the replay query rather than the live buffer
+        private final Queue<NotificationResponse> replay = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // Live events queue up but are not written until the replay is in place
+        private volatile boolean started;
+        private Set<Long> replayedIds = Set.of();
+
+        private Subscription(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void startWith(List<NotificationResponse> backlog) {
+            replay.addAll(backlog);
+            replayedIds = backlog.stream().map(NotificationResponse::getId).collect(Collectors.toSet());
+            started = true;
+            drain();
+        }
+
+        boolean offer(Object event) {
+            if (closed) {
+                return true;
+            }
+            if (!buffer.offer(event)) {
+                return false;
+            }
+            drain();
+            return true;
+        }
+
+        void drain() {
+            if (closed || !started || (buffer.isEmpty() && replay.isEmpty())
+                    || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            writers.execute(() -> {
+                try {
+                    Object event;
+                    while (!closed && (event = next()) != null) {
+                        send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter's callbacks unregister it
+                    close();
+                } finally {
+                    draining.set(false);
+                }
+                // Something may have arrived between the last poll and releasing the flag
+                if (!buffer.isEmpty() || !replay.isEmpty()) {
+                    drain();
+                }
+            });
+        }
+
+        private Object next() {
+            NotificationResponse missed = replay.poll();
+            if (missed != null) {
+                return missed;
+            }
+            // Live events published while the backlog loaded may already have been replayed
+            Object event = buffer.poll();
+            while (event instanceof NotificationResponse live && replayedIds.contains(live.getId())) {
+                event = buffer.poll();
+            }
+            return event;
+        }
+
+        private void send(Object event) throws IOException {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            NotificationResponse notification = (NotificationResponse) event;
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name("notification")
+                    .data(notification, MediaType.APPLICATION_JSON));
+            pushedCounter.increment();
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
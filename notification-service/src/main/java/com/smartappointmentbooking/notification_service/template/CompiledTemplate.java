@@ -0,0 +1,77 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into alternating literal and variable segments.
+ * {@code {{name}}} is HTML-escaped on output and {@code {{{name}}}} is
+ * written as is. Missing or null variables render as nothing.
+ */
+final class CompiledTemplate {
+    // literals[i] precedes variables[i]; there is always one more literal than variables
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] escaped;
+    private final int literalLength;
+
+    private CompiledTemplate(List<String> literals, List<String> variables, List<Boolean> escaped) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.escaped = new boolean[escaped.size()];
+        for (int i = 0; i < this.escaped.length; i++) {
+            this.escaped[i] = escaped.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    static CompiledTemplate parse(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            boolean raw = source.startsWith("{{{", open);
+            String closing = raw ? "}}}" : "}}";
+            int start = open + (raw ? 3 : 2);
+            int close = source.indexOf(closing, start);
+            if (close < 0) {
+                throw new IllegalStateException("Unterminated variable at offset " + open + " in template " + name);
+            }
+            String variable = source.substring(start, close).trim();
+            if (variable.isEmpty()) {
+                throw new IllegalStateException("Empty variable at offset " + open + " in template " + name);
+            }
+
+            literals.add(source.substring(position, open));
+            variables.add(variable);
+            escaped.add(!raw);
+            position = close + closing.length();
+        }
+        return new CompiledTemplate(literals, variables, escaped);
+    }
+
+    void renderTo(StringBuilder out, Map<String, ?> model) {
+        out.ensureCapacity(out.length() + literalLength + 256);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(variables[i]);
+            if (value == null) {
+                continue;
+            }
+            if (escaped[i]) {
+                HtmlEscaper.escape(value.toString(), out);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+}
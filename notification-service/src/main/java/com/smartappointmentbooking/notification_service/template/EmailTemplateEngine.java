@@ -0,0 +1,136 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders email bodies from templates compiled once at startup. Templates
+ * live under {@code templates/email} and are named after the notification
+ * type, optionally with a locale suffix ({@code APPOINTMENT_REMINDER_fr.html});
+ * {@code default.html} covers types without their own. Lookup falls back from
+ * language and country, to language, to no locale, then to the default.
+ * Requested locales are first reduced to one that has templates, so the
+ * per-locale cache holds at most one entry per template locale.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+    private static final String DEFAULT_NAME = "default";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, CompiledTemplate> templates = new HashMap<>();
+    // Locale suffixes that occur in template names, such as "fr" or "fr_CA"
+    private final Set<String> templateLocales = new HashSet<>();
+    // Per locale, the resolved template for each notification type, by ordinal
+    private final Map<Locale, CompiledTemplate[]> resolved = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public EmailTemplateEngine(@Value("${notification.templates.location:classpath*:templates/email/*.html}") String location)
+            throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location);
+        for (Resource resource : resources) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - ".html".length());
+            try (InputStream input = resource.getInputStream()) {
+                String source = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                templates.put(name, CompiledTemplate.parse(filename, source));
+            }
+        }
+        if (!templates.containsKey(DEFAULT_NAME)) {
+            throw new IllegalStateException("No default.html email template found at " + location);
+        }
+        for (String name : templates.keySet()) {
+            collectLocaleSuffix(name, DEFAULT_NAME);
+            for (Notification.NotificationType type : Notification.NotificationType.values()) {
+                collectLocaleSuffix(name, type.name());
+            }
+        }
+        log.info("Compiled {} email templates", templates.size());
+    }
+
+    public String render(Notification.NotificationType type, Locale locale, Map<String, ?> model) {
+        Locale templateLocale = normalize(locale);
+        CompiledTemplate[] byType = resolved.computeIfAbsent(templateLocale, this::resolveAll);
+        CompiledTemplate template = type != null ? byType[type.ordinal()] : resolve(DEFAULT_NAME, templateLocale);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, model);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            // Don't let one huge message pin a large buffer to the thread
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    /**
+     * Maps a caller-supplied locale onto the most specific one templates
+     * exist for, or {@link Locale#ROOT}. Lookups for the result fall back
+     * exactly as they would for the original locale.
+     */
+    Locale normalize(Locale locale) {
+        if (locale == null || locale.getLanguage().isEmpty()) {
+            return Locale.ROOT;
+        }
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        if (!country.isEmpty() && templateLocales.contains(language + "_" + country)) {
+            return Locale.of(language, country);
+        }
+        return templateLocales.contains(language) ? Locale.of(language) : Locale.ROOT;
+    }
+
+    private void collectLocaleSuffix(String name, String base) {
+        if (name.length() > base.length() + 1 && name.startsWith(base + "_")) {
+            templateLocales.add(name.substring(base.length() + 1));
+        }
+    }
+
+    private CompiledTemplate[] resolveAll(Locale locale) {
+        Notification.NotificationType[] types = Notification.NotificationType.values();
+        CompiledTemplate[] byType = new CompiledTemplate[types.length];
+        for (Notification.NotificationType type : types) {
+            byType[type.ordinal()] = resolve(type.name(), locale);
+        }
+        return byType;
+    }
+
+    private CompiledTemplate resolve(String name, Locale locale) {
+        CompiledTemplate template = resolveLocalized(name, locale);
+        return template != null ? template : resolveLocalized(DEFAULT_NAME, locale);
+    }
+
+    private CompiledTemplate resolveLocalized(String name, Locale locale) {
+        CompiledTemplate template;
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            if (!locale.getCountry().isEmpty()) {
+                template = templates.get(name + "_" + locale.getLanguage() + "_" + locale.getCountry());
+                if (template != null) {
+                    return template;
+                }
+            }
+            template = templates.get(name + "_" + locale.getLanguage());
+            if (template != null) {
+                return template;
+            }
+        }
+        return templates.get(name);
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartappointmentbooking.notification_service.template;
+
+/**
+ * Single-pass HTML escaping: unchanged runs are copied in bulk and only the
+ * five significant characters are replaced.
+ */
+public final class HtmlEscaper {
+    private HtmlEscaper() {
+    }
+
+    public static void escape(CharSequence text, StringBuilder out) {
+        int length = text.length();
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(text, runStart, i).append(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.append(text, runStart, length);
+    }
+}
@@ -0,0 +1,149 @@
+package com.smartappointmentbooking.notification_service.coalesce;
+
+import com.smartappointmentbooking.notification_service.dispatch.NotificationDispatcher;
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.repository.DigestRecipient;
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationCoalescerTest {
+
+	private final NotificationRepository repository = mock(NotificationRepository.class);
+	private final NotificationDispatcher dispatcher = mock(NotificationDispatcher.class);
+	private final NotificationCoalescer coalescer = new NotificationCoalescer(repository, dispatcher,
+			new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(), true,
+			Set.of(Notification.NotificationType.APPOINTMENT_CONFIRMATION), 600_000, 900_000);
+
+	@Test
+	void leavesEmailsWithoutARealUserAlone() {
+		Notification anonymous = candidate(0L, "someone@example.com", "Booked", "appointment:1");
+		Notification missing = candidate(null, "other@example.com", "Booked", "appointment:2");
+
+		assertThat(coalescer.coalesce(anonymous)).isEmpty();
+		assertThat(coalescer.coalesce(missing)).isEmpty();
+
+		assertThat(anonymous.getStatus()).isEqualTo("PENDING");
+		assertThat(missing.getStatus()).isEqualTo("PENDING");
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void holdsOnlyAgainstEarlierEmailsToTheSameAddress() {
+		when(repository.countRecent(eq(7L), eq("a@example.com"), anyCollection(), any())).thenReturn(1L);
+		when(repository.countRecent(eq(7L), eq("b@example.com"), anyCollection(), any())).thenReturn(0L);
+
+		Notification toA = candidate(7L, "a@example.com", "Moved", null);
+		Notification toB = candidate(7L, "b@example.com", "Moved", null);
+		coalescer.coalesce(toA);
+		coalescer.coalesce(toB);
+
+		assertThat(toA.getStatus()).isEqualTo("HELD");
+		assertThat(toB.getStatus()).isEqualTo("PENDING");
+		verify(repository).findHeldReleaseTime(7L, "a@example.com");
+	}
+
+	@Test
+	void returnsTheRefoldedContent() {
+		Notification previous = candidate(7L, "a@example.com", "Old subject", "appointment:1");
+		previous.setId(11L);
+		previous.setStatus("HELD");
+		when(repository.findRecentForEntity(eq(7L), eq("a@example.com"), any(), eq("appointment:1"), any(), any()))
+				.thenReturn(List.of(previous));
+		when(repository.refold(eq(11L), anyString(), any(), any())).thenReturn(1);
+
+		Optional<Notification> folded = coalescer.coalesce(candidate(7L, "a@example.com", "New subject", "appointment:1"));
+
+		assertThat(folded).isPresent();
+		assertThat(folded.get().getSubject()).isEqualTo("New subject");
+	}
+
+	@Test
+	void neverMergesTwoRecipientsIntoOneDigest() {
+		when(repository.findRecipientsWithDueHeld(any(), any(), any())).thenReturn(List.of(
+				new DigestRecipient(7L, "a@example.com"),
+				new DigestRecipient(7L, "b@example.com")));
+		when(repository.findHeldForUpdate(7L, "a@example.com")).thenReturn(List.of(
+				held(1L, 7L, "a@example.com", "A first"),
+				held(2L, 7L, "a@example.com", "A second")));
+		when(repository.findHeldForUpdate(7L, "b@example.com")).thenReturn(List.of(
+				held(3L, 7L, "b@example.com", "B first"),
+				held(4L, 7L, "b@example.com", "B second")));
+		AtomicLong ids = new AtomicLong(100);
+		when(repository.save(any(Notification.class))).thenAnswer(invocation -> {
+			Notification saved = invocation.getArgument(0);
+			saved.setId(ids.incrementAndGet());
+			return saved;
+		});
+
+		coalescer.releaseDigests();
+
+		ArgumentCaptor<Notification> digests = ArgumentCaptor.forClass(Notification.class);
+		verify(repository, times(2)).save(digests.capture());
+		Notification toA = digests.getAllValues().get(0);
+		Notification toB = digests.getAllValues().get(1);
+		assertThat(toA.getRecipientEmail()).isEqualTo("a@example.com");
+		assertThat(toA.getMessage()).contains("A first", "A second").doesNotContain("B first", "B second");
+		assertThat(toB.getRecipientEmail()).isEqualTo("b@example.com");
+		assertThat(toB.getMessage()).contains("B first", "B second").doesNotContain("A first", "A second");
+		verify(repository).markMerged(eq(List.of(1L, 2L)), eq(101L), any());
+		verify(repository).markMerged(eq(List.of(3L, 4L)), eq(102L), any());
+	}
+
+	@Test
+	void releasesASingleHeldEmailAsItIs() {
+		Notification only = held(5L, 7L, "a@example.com", "Only");
+		when(repository.findRecipientsWithDueHeld(any(), any(), any()))
+				.thenReturn(List.of(new DigestRecipient(7L, "a@example.com")));
+		when(repository.findHeldForUpdate(7L, "a@example.com")).thenReturn(List.of(only));
+
+		coalescer.releaseDigests();
+
+		verify(repository).releaseHeld(eq(List.of(5L)), any());
+		verify(dispatcher).submit(only);
+		verify(repository, times(0)).save(any(Notification.class));
+		verify(repository, times(0)).markMerged(anyCollection(), anyLong(), any());
+	}
+
+	private static Notification candidate(Long userId, String email, String subject, String entityRef) {
+		return Notification.builder()
+				.userId(userId)
+				.recipientEmail(email)
+				.subject(subject)
+				.message("Details of " + subject)
+				.notificationType(Notification.NotificationType.APPOINTMENT_CONFIRMATION)
+				.channel(Notification.NotificationChannel.EMAIL)
+				.entityRef(entityRef)
+				.status("PENDING")
+				.nextAttemptAt(LocalDateTime.now())
+				.build();
+	}
+
+	private static Notification held(Long id, Long userId, String email, String subject) {
+		Notification notification = candidate(userId, email, subject, null);
+		notification.setId(id);
+		notification.setStatus("HELD");
+		return notification;
+	}
+}
@@ -0,0 +1,137 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.mail.DeliveryUncertainException;
+import com.smartappointmentbooking.notification_service.mail.SmtpConnection;
+import com.smartappointmentbooking.notification_service.mail.SmtpTransportPool;
+import com.smartappointmentbooking.notification_service.template.EmailTemplateEngine;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailNotificationSenderTest {
+
+	private final JavaMailSender javaMailSender = mock(JavaMailSender.class);
+	private final SmtpTransportPool pool = mock(SmtpTransportPool.class);
+	private final List<String> delivered = new ArrayList<>();
+	private EmailNotificationSender sender;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Session session = Session.getInstance(new Properties());
+		when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+		sender = new EmailNotificationSender(javaMailSender, pool,
+				new EmailTemplateEngine("classpath*:templates/email-locales/*.html"));
+		ReflectionTestUtils.setField(sender, "fromEmail", "noreply@example.com");
+		ReflectionTestUtils.setField(sender, "appName", "Test");
+	}
+
+	@Test
+	void carriesOnOverAFreshConnectionAfterOneBreaks() throws Exception {
+		SmtpConnection broken = connection(2);
+		SmtpConnection fresh = connection(-1);
+		lendInTurn(broken, fresh);
+
+		Map<Long, Exception> failures = sender.sendAll(List.of(
+				notification(1L), notification(2L), notification(3L), notification(4L)));
+
+		// Only the message in flight is in doubt, and it is not sent a second time
+		assertThat(failures).containsOnlyKeys(2L);
+		assertThat(failures.get(2L)).isInstanceOf(DeliveryUncertainException.class);
+		assertThat(delivered).containsExactly("Subject 1", "Subject 3", "Subject 4");
+		verify(pool, times(2)).execute(any());
+	}
+
+	@Test
+	void rejectedRecipientsFailOnlyTheirOwnMessage() throws Exception {
+		SmtpConnection connection = connection(-1);
+		doThrow(new SendFailedException("550 no such user")).when(connection)
+				.send(argThat(message -> subjectOf(message).equals("Subject 1")));
+		lendInTurn(connection);
+
+		Map<Long, Exception> failures = sender.sendAll(List.of(notification(1L), notification(2L)));
+
+		assertThat(failures).containsOnlyKeys(1L);
+		assertThat(failures.get(1L)).isInstanceOf(SendFailedException.class);
+		assertThat(delivered).containsExactly("Subject 2");
+		verify(pool, times(1)).execute(any());
+	}
+
+	@Test
+	void failsTheRestWhenNoConnectionCanBeHad() throws Exception {
+		MessagingException unreachable = new MessagingException("Connection refused");
+		when(pool.execute(any())).thenThrow(unreachable);
+
+		Map<Long, Exception> failures = sender.sendAll(List.of(notification(1L), notification(2L)));
+
+		assertThat(failures).containsOnlyKeys(1L, 2L);
+		assertThat(failures.values()).containsOnly(unreachable);
+		verify(pool, times(1)).execute(any());
+	}
+
+	// A connection that records what it sends and breaks on the given message number
+	private SmtpConnection connection(int breakOn) throws MessagingException {
+		SmtpConnection connection = mock(SmtpConnection.class);
+		int[] sent = {0};
+		doAnswer(invocation -> {
+			MimeMessage message = invocation.getArgument(0);
+			if (++sent[0] == breakOn) {
+				throw new DeliveryUncertainException("connection reset", new MessagingException("reset"));
+			}
+			delivered.add(message.getSubject());
+			return null;
+		}).when(connection).send(any());
+		return connection;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void lendInTurn(SmtpConnection... connections) throws MessagingException {
+		Iterator<SmtpConnection> next = List.of(connections).iterator();
+		when(pool.execute(any())).thenAnswer(invocation ->
+				((SmtpTransportPool.ConnectionCallback<Object>) invocation.getArgument(0)).doWith(next.next()));
+	}
+
+	private static String subjectOf(MimeMessage message) {
+		try {
+			return message.getSubject();
+		} catch (MessagingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Notification notification(Long id) {
+		Notification notification = Notification.builder()
+				.userId(7L)
+				.recipientEmail("patient" + id + "@example.com")
+				.subject("Subject " + id)
+				.message("Message " + id)
+				.notificationType(Notification.NotificationType.APPOINTMENT_CONFIRMATION)
+				.channel(Notification.NotificationChannel.EMAIL)
+				.status("SENDING")
+				.build();
+		notification.setId(id);
+		return notification;
+	}
+}
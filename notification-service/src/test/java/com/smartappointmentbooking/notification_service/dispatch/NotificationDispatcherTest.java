@@ -0,0 +1,152 @@
+package com.smartappointmentbooking.notification_service.dispatch;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+	private static final long STALE_AFTER_MS = 300_000;
+
+	private final NotificationRepository repository = mock(NotificationRepository.class);
+	private final NotificationSender sender = mock(NotificationSender.class);
+	private NotificationDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		when(sender.channel()).thenReturn(Notification.NotificationChannel.EMAIL);
+		when(sender.sendAll(any())).thenReturn(Map.of());
+		// Two attempts before a row is dead-lettered
+		dispatcher = new NotificationDispatcher(List.of(sender), repository, new RetryPolicy(2, 1_000, 60_000),
+				new SimpleMeterRegistry(), new MockEnvironment(), 100, STALE_AFTER_MS, 10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dispatcher.shutdown();
+	}
+
+	@Test
+	void sendsOnlyTheRowsItClaimed() {
+		when(repository.findDueIds(eq(Notification.NotificationChannel.EMAIL), any(), any()))
+				.thenReturn(List.of(1L, 2L, 3L));
+		when(repository.claim(eq(1L), any())).thenReturn(1);
+		// Another instance got to this one first
+		when(repository.claim(eq(2L), any())).thenReturn(0);
+		when(repository.claim(eq(3L), any())).thenReturn(1);
+		givenRows(notification(1L, 0), notification(2L, 0), notification(3L, 0));
+
+		dispatcher.start();
+
+		verify(repository, timeout(5_000)).markSent(eq(1L), any());
+		verify(repository, timeout(5_000)).markSent(eq(3L), any());
+		verify(repository, never()).markSent(eq(2L), any());
+	}
+
+	@Test
+	void releasesRowsLeftSendingByAnEarlierRunOnStartup() {
+		LocalDateTime before = LocalDateTime.now();
+
+		dispatcher.start();
+
+		ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(repository).backfillNextAttempt();
+		verify(repository, timeout(5_000).atLeastOnce()).releaseStale(cutoff.capture(), any());
+		assertThat(cutoff.getValue()).isBetween(before.minus(Duration.ofMillis(STALE_AFTER_MS)),
+				LocalDateTime.now().minus(Duration.ofMillis(STALE_AFTER_MS)));
+	}
+
+	@Test
+	void retriesAFailedSendAndDeadLettersItOnceAttemptsRunOut() {
+		when(repository.findDueIds(eq(Notification.NotificationChannel.EMAIL), any(), any()))
+				.thenReturn(List.of(1L, 2L));
+		when(repository.claim(any(), any())).thenReturn(1);
+		givenRows(notification(1L, 0), notification(2L, 1));
+		IllegalStateException failure = new IllegalStateException("SMTP unavailable");
+		when(sender.sendAll(any())).thenAnswer(invocation -> {
+			List<Notification> batch = invocation.getArgument(0);
+			return batch.stream().collect(Collectors.toMap(Notification::getId, notification -> failure));
+		});
+
+		dispatcher.start();
+
+		verify(repository, timeout(5_000)).scheduleRetry(eq(1L), anyString(), any(), any());
+		verify(repository, timeout(5_000)).markDead(eq(2L), anyString(), any());
+		verify(repository, never()).markSent(any(), any());
+	}
+
+	@Test
+	void queuesSubmittedRowsOnlyAfterTheirTransactionCommits() {
+		when(repository.findDueIds(any(), any(), any())).thenReturn(List.of());
+		when(repository.claim(eq(9L), any())).thenReturn(1);
+		givenRows(notification(9L, 0));
+		dispatcher.start();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			dispatcher.submit(notification(9L, 0));
+			verify(repository, after(200).never()).claim(eq(9L), any());
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		verify(repository, timeout(5_000)).markSent(eq(9L), any());
+	}
+
+	// Workers may split the due ids into several batches, so look rows up by whatever was claimed
+	private void givenRows(Notification... notifications) {
+		Map<Long, Notification> rows = Arrays.stream(notifications)
+				.collect(Collectors.toMap(Notification::getId, Function.identity()));
+		when(repository.findAllById(any())).thenAnswer(invocation -> {
+			Iterable<Long> ids = invocation.getArgument(0);
+			List<Notification> found = new ArrayList<>();
+			ids.forEach(id -> found.add(rows.get(id)));
+			return found;
+		});
+	}
+
+	private static Notification notification(Long id, int attempts) {
+		Notification notification = Notification.builder()
+				.userId(7L)
+				.recipientEmail("patient@example.com")
+				.subject("Subject " + id)
+				.message("Message " + id)
+				.notificationType(Notification.NotificationType.APPOINTMENT_CONFIRMATION)
+				.channel(Notification.NotificationChannel.EMAIL)
+				.status("SENDING")
+				.attempts(attempts)
+				.createdAt(LocalDateTime.now())
+				.build();
+		notification.setId(id);
+		return notification;
+	}
+}
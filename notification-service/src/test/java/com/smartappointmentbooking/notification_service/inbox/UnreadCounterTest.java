@@ -0,0 +1,81 @@
+package com.smartappointmentbooking.notification_service.inbox;
+
+import com.smartappointmentbooking.notification_service.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UnreadCounterTest {
+
+	private final NotificationRepository repository = mock(NotificationRepository.class);
+
+	@Test
+	void countsOnceThenTracksDeltas() {
+		UnreadCounter counter = new UnreadCounter(repository, new SimpleMeterRegistry(), 60_000);
+		when(repository.countByUserIdAndIsReadFalse(7L)).thenReturn(3L);
+
+		assertThat(counter.get(7L)).isEqualTo(3);
+		counter.increment(7L);
+		counter.increment(7L);
+		counter.decrement(7L, 1);
+
+		assertThat(counter.get(7L)).isEqualTo(4);
+		verify(repository, times(1)).countByUserIdAndIsReadFalse(7L);
+	}
+
+	@Test
+	void neverDropsBelowZero() {
+		UnreadCounter counter = new UnreadCounter(repository, new SimpleMeterRegistry(), 60_000);
+		when(repository.countByUserIdAndIsReadFalse(7L)).thenReturn(2L);
+		counter.get(7L);
+
+		counter.decrement(7L, 5);
+
+		assertThat(counter.get(7L)).isZero();
+	}
+
+	@Test
+	void leavesUsersNobodyAskedAboutToTheFirstRead() {
+		UnreadCounter counter = new UnreadCounter(repository, new SimpleMeterRegistry(), 60_000);
+
+		counter.increment(7L);
+		counter.decrement(8L, 2);
+
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void appliesDeltasOnlyOnceTheTransactionCommits() {
+		UnreadCounter counter = new UnreadCounter(repository, new SimpleMeterRegistry(), 60_000);
+		when(repository.countByUserIdAndIsReadFalse(7L)).thenReturn(1L);
+		counter.get(7L);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			counter.increment(7L);
+			assertThat(counter.get(7L)).isEqualTo(1);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+			assertThat(counter.get(7L)).isEqualTo(2);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void reloadsFromTheTableOnceTheEntryIsStale() {
+		UnreadCounter counter = new UnreadCounter(repository, new SimpleMeterRegistry(), 0);
+		when(repository.countByUserIdAndIsReadFalse(7L)).thenReturn(3L, 5L);
+
+		assertThat(counter.get(7L)).isEqualTo(3);
+		assertThat(counter.get(7L)).isEqualTo(5);
+	}
+}
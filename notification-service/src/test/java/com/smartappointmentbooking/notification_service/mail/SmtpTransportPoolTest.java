@@ -0,0 +1,131 @@
+package com.smartappointmentbooking.notification_service.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpTransportPoolTest {
+
+	@RegisterExtension
+	static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private JavaMailSenderImpl mailSender;
+	private SmtpTransportPool pool;
+
+	@BeforeEach
+	void setUp() {
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+		mailSender.setProtocol("smtp");
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void concurrentBatchesShareAFewConnections() throws Exception {
+		pool = new SmtpTransportPool(mailSender, meterRegistry, 4, 1_000, 60_000, 10_000);
+		int workers = 8;
+		int batchesPerWorker = 5;
+		int batchSize = 10;
+
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int w = 0; w < workers; w++) {
+				int worker = w;
+				futures.add(executor.submit(() -> {
+					for (int b = 0; b < batchesPerWorker; b++) {
+						int batch = b;
+						pool.execute(connection -> {
+							for (int i = 0; i < batchSize; i++) {
+								connection.send(message("worker-" + worker + "-batch-" + batch + "-" + i));
+							}
+							return null;
+						});
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		int total = workers * batchesPerWorker * batchSize;
+		assertThat(greenMail.waitForIncomingEmail(10_000, total)).isTrue();
+		assertThat(greenMail.getReceivedMessages()).hasSize(total);
+		// Never more sessions than the pool size, however many messages went out
+		assertThat(openedConnections()).isBetween(1.0, 4.0);
+	}
+
+	@Test
+	void recyclesAConnectionAfterItsMessageLimit() throws Exception {
+		pool = new SmtpTransportPool(mailSender, meterRegistry, 1, 10, 60_000, 10_000);
+
+		for (int i = 0; i < 25; i++) {
+			MimeMessage message = message("single-" + i);
+			pool.execute(connection -> {
+				connection.send(message);
+				return null;
+			});
+		}
+
+		assertThat(greenMail.waitForIncomingEmail(10_000, 25)).isTrue();
+		assertThat(openedConnections()).isEqualTo(3.0);
+	}
+
+	@Test
+	void reusesTheIdleConnectionForSequentialSends() throws Exception {
+		pool = new SmtpTransportPool(mailSender, meterRegistry, 2, 100, 60_000, 10_000);
+
+		for (int i = 0; i < 20; i++) {
+			MimeMessage message = message("sequential-" + i);
+			pool.execute(connection -> {
+				connection.send(message);
+				return null;
+			});
+		}
+
+		assertThat(greenMail.waitForIncomingEmail(10_000, 20)).isTrue();
+		assertThat(openedConnections()).isEqualTo(1.0);
+	}
+
+	private MimeMessage message(String subject) throws MessagingException {
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+		helper.setFrom("noreply@example.com");
+		helper.setTo("patient@example.com");
+		helper.setSubject(subject);
+		helper.setText("Body of " + subject);
+		return message;
+	}
+
+	private double openedConnections() {
+		return meterRegistry.get("notification.mail.connections.opened").counter().count();
+	}
+}
@@ -0,0 +1,89 @@
+package com.smartappointmentbooking.notification_service.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+	// One-second ticks, eight slots, starting at time zero
+	private final TimingWheel wheel = new TimingWheel(1_000, 8, 0);
+
+	@Test
+	void firesIdsWhenTheirTickIsReached() {
+		wheel.schedule(1, 2_500);
+		wheel.schedule(2, 500);
+		wheel.schedule(3, 2_999);
+
+		assertThat(advance(999)).containsExactly(2L);
+		assertThat(advance(1_999)).isEmpty();
+		assertThat(advance(2_999)).containsExactly(1L, 3L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void schedulesPastTimesIntoNextSlotToExpire() {
+		advance(4_999);
+
+		assertThat(wheel.schedule(7, 1_000)).isTrue();
+		assertThat(advance(5_000)).containsExactly(7L);
+	}
+
+	@Test
+	void rejectsTimesBeyondOneRevolution() {
+		assertThat(wheel.horizonMs()).isEqualTo(8_000);
+		assertThat(wheel.schedule(1, 7_999)).isTrue();
+		assertThat(wheel.schedule(2, 8_000)).isFalse();
+
+		advance(999);
+
+		assertThat(wheel.horizonMs()).isEqualTo(9_000);
+		assertThat(wheel.schedule(2, 8_500)).isTrue();
+		assertThat(wheel.size()).isEqualTo(2);
+	}
+
+	@Test
+	void reusesSlotsOnLaterRevolutions() {
+		wheel.schedule(1, 1_500);
+		assertThat(advance(1_999)).containsExactly(1L);
+
+		// Tick 9 lands in the slot tick 1 used
+		assertThat(wheel.schedule(2, 9_500)).isTrue();
+		assertThat(advance(8_999)).isEmpty();
+		assertThat(advance(9_999)).containsExactly(2L);
+	}
+
+	@Test
+	void growsSlotsPastInitialCapacity() {
+		List<Long> expected = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			wheel.schedule(id, 3_000);
+			expected.add(id);
+		}
+
+		assertThat(wheel.size()).isEqualTo(100);
+		assertThat(advance(3_000)).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void catchesUpAfterLongStall() {
+		wheel.schedule(1, 1_500);
+		wheel.schedule(2, 6_500);
+
+		assertThat(advance(100_000)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(wheel.horizonMs()).isEqualTo(109_000);
+
+		// A time inside the stalled-over range fires on the next advance
+		wheel.schedule(3, 100_500);
+		assertThat(advance(101_000)).containsExactly(3L);
+	}
+
+	private List<Long> advance(long nowMs) {
+		List<Long> fired = new ArrayList<>();
+		wheel.advance(nowMs, fired::add);
+		return fired;
+	}
+}
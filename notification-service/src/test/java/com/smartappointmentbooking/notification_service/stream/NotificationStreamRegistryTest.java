@@ -0,0 +1,119 @@
+package com.smartappointmentbooking.notification_service.stream;
+
+import com.smartappointmentbooking.notification_service.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class NotificationStreamRegistryTest {
+
+	private final NotificationStreamRegistry registry = new NotificationStreamRegistry(new SimpleMeterRegistry(),
+			60_000, 8, 5);
+
+	@AfterEach
+	void tearDown() {
+		registry.shutdown();
+	}
+
+	@Test
+	void replaysTheBacklogBeforeLiveEventsAndSendsOverlapsOnce() throws Exception {
+		MvcResult stream = open(() -> {
+			// Published while the backlog loads, and also part of it
+			registry.publish(notification(2L));
+			return List.of(notification(1L), notification(2L));
+		});
+		registry.publish(notification(3L));
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> eventIds(stream).size() == 3);
+		assertThat(eventIds(stream)).containsExactly("1", "2", "3");
+	}
+
+	@Test
+	void holdsBackEventsUntilTheirTransactionCommits() throws Exception {
+		MvcResult stream = open(List::of);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			registry.publish(notification(4L));
+			Thread.sleep(200);
+			assertThat(eventIds(stream)).isEmpty();
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> eventIds(stream).contains("4"));
+	}
+
+	@Test
+	void closesTheOldestStreamBeyondThePerUserLimit() throws Exception {
+		NotificationStreamRegistry limited = new NotificationStreamRegistry(new SimpleMeterRegistry(), 60_000, 8, 1);
+		try {
+			MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(limited, List::of)).build();
+			MvcResult first = mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+			MvcResult second = mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+
+			limited.publish(notification(5L));
+
+			await().atMost(Duration.ofSeconds(5)).until(() -> eventIds(second).contains("5"));
+			assertThat(eventIds(first)).isEmpty();
+			assertThat(limited.isConnected(7L)).isTrue();
+		} finally {
+			limited.shutdown();
+		}
+	}
+
+	private MvcResult open(Supplier<List<NotificationResponse>> missed) throws Exception {
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(registry, missed)).build();
+		return mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+	}
+
+	private static List<String> eventIds(MvcResult stream) throws Exception {
+		return stream.getResponse().getContentAsString().lines()
+				.filter(line -> line.startsWith("id:"))
+				.map(line -> line.substring("id:".length()))
+				.toList();
+	}
+
+	private static NotificationResponse notification(Long id) {
+		return NotificationResponse.builder()
+				.id(id)
+				.userId(7L)
+				.subject("Subject " + id)
+				.build();
+	}
+
+	@RestController
+	static class StreamController {
+		private final NotificationStreamRegistry registry;
+		private final Supplier<List<NotificationResponse>> missed;
+
+		StreamController(NotificationStreamRegistry registry, Supplier<List<NotificationResponse>> missed) {
+			this.registry = registry;
+			this.missed = missed;
+		}
+
+		@GetMapping("/stream")
+		SseEmitter stream() {
+			return registry.subscribe(7L, missed);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledTemplateTest {
+
+	@Test
+	void substitutesAndEscapesVariables() {
+		assertThat(render("Hello {{ name }}!", Map.of("name", "<b>Ann</b>")))
+				.isEqualTo("Hello &lt;b&gt;Ann&lt;/b&gt;!");
+	}
+
+	@Test
+	void writesTripleBracedVariablesRaw() {
+		assertThat(render("<div>{{{body}}}</div>", Map.of("body", "<p>Hi</p>")))
+				.isEqualTo("<div><p>Hi</p></div>");
+	}
+
+	@Test
+	void rendersMissingAndNullVariablesAsNothing() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("present", null);
+
+		assertThat(render("A{{present}}B{{absent}}C", model)).isEqualTo("ABC");
+	}
+
+	@Test
+	void handlesAdjacentVariablesAndNonStringValues() {
+		assertThat(render("{{count}}{{unit}}", Map.of("count", 42, "unit", "min"))).isEqualTo("42min");
+	}
+
+	@Test
+	void keepsTemplatesWithoutVariablesVerbatim() {
+		assertThat(render("<p>No placeholders } here</p>", Map.of())).isEqualTo("<p>No placeholders } here</p>");
+	}
+
+	@Test
+	void appendsToExistingBuffer() {
+		CompiledTemplate template = CompiledTemplate.parse("test", "[{{x}}]");
+		StringBuilder out = new StringBuilder("before");
+
+		template.renderTo(out, Map.of("x", "1"));
+
+		assertThat(out).hasToString("before[1]");
+	}
+
+	@Test
+	void rejectsMalformedPlaceholders() {
+		assertThatThrownBy(() -> CompiledTemplate.parse("broken", "Hi {{name"))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("broken");
+		assertThatThrownBy(() -> CompiledTemplate.parse("empty", "Hi {{ }}"))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Empty variable");
+	}
+
+	private static String render(String source, Map<String, ?> model) {
+		StringBuilder out = new StringBuilder();
+		CompiledTemplate.parse("test", source).renderTo(out, model);
+		return out.toString();
+	}
+}
@@ -0,0 +1,107 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build one email body with the precompiled default template versus
+ * the string concatenation and chained {@code replace} escaping it replaced,
+ * which is kept below verbatim as the baseline.
+ *
+ * <p>Run from the module with {@code mvn test-compile exec:exec -Dexec.executable=java
+ * -Dexec.classpathScope=test "-Dexec.args=-cp %classpath com.smartappointmentbooking.notification_service.template.EmailTemplateBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+	private static final String APP_NAME = "Smart Appointment Booking";
+
+	@Param({"80", "2000"})
+	int messageLength;
+
+	private EmailTemplateEngine engine;
+	private Map<String, Object> model;
+	private String subject;
+	private String message;
+
+	@Setup
+	public void setUp() throws IOException {
+		engine = new EmailTemplateEngine("classpath*:templates/email/*.html");
+		subject = "Your appointment on 12 March is confirmed";
+		StringBuilder text = new StringBuilder(messageLength);
+		while (text.length() < messageLength) {
+			text.append("Dr. O'Neil will see you at 10:30 <room 4> & bring your \"card\". ");
+		}
+		message = text.substring(0, messageLength);
+
+		model = new HashMap<>();
+		model.put("appName", APP_NAME);
+		model.put("subject", subject);
+		model.put("message", message);
+	}
+
+	@Benchmark
+	public String precompiled() {
+		return engine.render(null, null, model);
+	}
+
+	@Benchmark
+	public String concatenated() {
+		return buildHtmlEmailBody(subject, message);
+	}
+
+	private String buildHtmlEmailBody(String subject, String message) {
+		return "<html><body style=\"font-family: Arial, sans-serif; line-height: 1.6; color: #333;\">" +
+				"<div style=\"max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #ddd; border-radius: 5px;\">"
+				+
+				"<div style=\"background-color: #f8f9fa; padding: 15px; border-radius: 5px; margin-bottom: 20px;\">"
+				+
+				"<h2 style=\"margin: 0; color: #0066cc;\">" + APP_NAME + "</h2>" +
+				"</div>" +
+				"<h3 style=\"color: #333; margin-top: 0;\">" + subject + "</h3>" +
+				"<p style=\"white-space: pre-wrap; word-wrap: break-word;\">" + escapeHtml(message)
+				+ "</p>" +
+				"<hr style=\"border: none; border-top: 1px solid #ddd; margin: 20px 0;\">" +
+				"<p style=\"font-size: 12px; color: #999; text-align: center;\">" +
+				"This is an automated message from " + APP_NAME + ". Please do not reply to this email."
+				+
+				"</p>" +
+				"</div>" +
+				"</body></html>";
+	}
+
+	private String escapeHtml(String text) {
+		if (text == null)
+			return "";
+		return text.replace("&", "&amp;")
+				.replace("<", "&lt;")
+				.replace(">", "&gt;")
+				.replace("\"", "&quot;")
+				.replace("'", "&#39;");
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,43 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import com.smartappointmentbooking.notification_service.entity.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailTemplateEngineTest {
+
+	private final EmailTemplateEngine engine;
+
+	EmailTemplateEngineTest() throws IOException {
+		// default.html, APPOINTMENT_REMINDER_fr.html and default_pt_BR.html
+		engine = new EmailTemplateEngine("classpath:templates/email-locales/*.html");
+	}
+
+	@Test
+	void reducesLocalesToThoseWithTemplates() {
+		assertThat(engine.normalize(Locale.CANADA_FRENCH)).isEqualTo(Locale.FRENCH);
+		assertThat(engine.normalize(Locale.of("pt", "BR"))).isEqualTo(Locale.of("pt", "BR"));
+		assertThat(engine.normalize(Locale.of("pt", "PT"))).isEqualTo(Locale.ROOT);
+		assertThat(engine.normalize(Locale.of("xx", "YY", "variant"))).isEqualTo(Locale.ROOT);
+		assertThat(engine.normalize(null)).isEqualTo(Locale.ROOT);
+	}
+
+	@Test
+	void rendersLocalizedTemplateWithFallbacks() {
+		Map<String, String> model = Map.of("message", "10:30 & more");
+
+		assertThat(engine.render(Notification.NotificationType.APPOINTMENT_REMINDER, Locale.CANADA_FRENCH, model))
+				.isEqualTo("<p>Rappel : 10:30 &amp; more</p>\n");
+		assertThat(engine.render(Notification.NotificationType.APPOINTMENT_CANCELLED, Locale.FRENCH, model))
+				.isEqualTo("<p>10:30 &amp; more</p>\n");
+		assertThat(engine.render(Notification.NotificationType.SYSTEM_ALERT, Locale.of("pt", "BR"), model))
+				.isEqualTo("<p>Aviso: 10:30 &amp; more</p>\n");
+		assertThat(engine.render(Notification.NotificationType.APPOINTMENT_REMINDER, Locale.GERMANY, model))
+				.isEqualTo("<p>10:30 &amp; more</p>\n");
+	}
+}
@@ -0,0 +1,39 @@
+package com.smartappointmentbooking.notification_service.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HtmlEscaperTest {
+
+	@Test
+	void escapesTheFiveSignificantCharacters() {
+		assertThat(escape("<a href=\"x\">Tom & Jerry's</a>"))
+				.isEqualTo("&lt;a href=&quot;x&quot;&gt;Tom &amp; Jerry&#39;s&lt;/a&gt;");
+	}
+
+	@Test
+	void copiesPlainTextUnchanged() {
+		assertThat(escape("Dr. Müller, 10:30")).isEqualTo("Dr. Müller, 10:30");
+		assertThat(escape("")).isEmpty();
+	}
+
+	@Test
+	void escapesAtBothEnds() {
+		assertThat(escape("&x<")).isEqualTo("&amp;x&lt;");
+	}
+
+	@Test
+	void appendsToExistingContent() {
+		StringBuilder out = new StringBuilder("Hi ");
+		HtmlEscaper.escape("<Ann>", out);
+
+		assertThat(out).hasToString("Hi &lt;Ann&gt;");
+	}
+
+	private static String escape(String text) {
+		StringBuilder out = new StringBuilder();
+		HtmlEscaper.escape(text, out);
+		return out.toString();
+	}
+}
@@ -0,0 +1,205 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchCriteria;
+import com.smartappointmentbooking.service_catalog_service.entity.Service;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over service name, category, description and notes with
+ * BM25 ranking. Fields are folded into one weighted term frequency per
+ * document (a name hit counts more than a notes hit), and price, duration,
+ * category and active flag are kept alongside for filtering. Maintained by
+ * {@link CatalogSnapshotStore} whenever the snapshot advances.
+ */
+@Component
+public class CatalogSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double NOTES_WEIGHT = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedService> services = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+    private double totalLength;
+
+    public void rebuild(Collection<Service> all) {
+        lock.writeLock().lock();
+        try {
+            services.clear();
+            postings.clear();
+            totalLength = 0;
+            all.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(Collection<Service> changed) {
+        lock.writeLock().lock();
+        try {
+            changed.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(ServiceSearchCriteria criteria, int page, int size) {
+        List<String> terms = new ArrayList<>(termFrequencies(criteria.getQ(), 1.0).keySet());
+        String category = criteria.getCategory() != null && !criteria.getCategory().isBlank()
+                ? criteria.getCategory().trim().toLowerCase(Locale.ROOT)
+                : null;
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = terms.isEmpty() ? null : score(terms);
+            Collection<Long> candidates = scores != null ? scores.keySet() : services.keySet();
+
+            Comparator<Hit> order = scores != null
+                    ? Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id)
+                    : Comparator.comparing((Hit hit) -> services.get(hit.id()).sortName()).thenComparingLong(Hit::id);
+            int limit = (page + 1) * size;
+            PriorityQueue<Hit> top = new PriorityQueue<>(order.reversed());
+            Map<String, Long> categories = new TreeMap<>();
+            long total = 0;
+
+            for (Long id : candidates) {
+                IndexedService service = services.get(id);
+                if (!matchesFilters(service, criteria)) {
+                    continue;
+                }
+                categories.merge(service.category(), 1L, Long::sum);
+                if (category != null && !service.categoryKey().equals(category)) {
+                    continue;
+                }
+
+                total++;
+                top.offer(new Hit(id, scores != null ? scores.get(id) : 0.0));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            List<Hit> pageHits = ranked.size() > page * size ? ranked.subList(page * size, ranked.size()) : List.of();
+            return new Result(List.copyOf(pageHits), total, categories);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> score(List<String> terms) {
+        int documents = services.size();
+        double averageLength = documents > 0 ? totalLength / documents : 1.0;
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Double> docs = postings.get(term);
+            if (docs == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents - docs.size() + 0.5) / (docs.size() + 0.5));
+            docs.forEach((id, tf) -> {
+                double length = services.get(id).length();
+                double weight = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(id, weight, Double::sum);
+            });
+        }
+        return scores;
+    }
+
+    private static boolean matchesFilters(IndexedService service, ServiceSearchCriteria criteria) {
+        if (!service.active() && !Boolean.TRUE.equals(criteria.getIncludeInactive())) {
+            return false;
+        }
+        if (criteria.getMinPrice() != null && service.basePrice() < criteria.getMinPrice()) {
+            return false;
+        }
+        if (criteria.getMaxPrice() != null && service.basePrice() > criteria.getMaxPrice()) {
+            return false;
+        }
+        if (criteria.getMinDuration() != null
+                && (service.durationMinutes() == null || service.durationMinutes() < criteria.getMinDuration())) {
+            return false;
+        }
+        return criteria.getMaxDuration() == null
+                || service.durationMinutes() != null && service.durationMinutes() <= criteria.getMaxDuration();
+    }
+
+    // Caller holds the write lock
+    private void put(Service service) {
+        IndexedService previous = services.remove(service.getId());
+        if (previous != null) {
+            totalLength -= previous.length();
+            previous.terms().keySet().forEach(term -> {
+                Map<Long, Double> docs = postings.get(term);
+                docs.remove(service.getId());
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            });
+        }
+
+        Map<String, Double> terms = new HashMap<>();
+        termFrequencies(service.getName(), NAME_WEIGHT).forEach((t, w) -> terms.merge(t, w, Double::sum));
+        termFrequencies(service.getCategory(), CATEGORY_WEIGHT).forEach((t, w) -> terms.merge(t, w, Double::sum));
+        termFrequencies(service.getDescription(), DESCRIPTION_WEIGHT).forEach((t, w) -> terms.merge(t, w, Double::sum));
+        termFrequencies(service.getNotes(), NOTES_WEIGHT).forEach((t, w) -> terms.merge(t, w, Double::sum));
+        double length = terms.values().stream().mapToDouble(Double::doubleValue).sum();
+
+        String category = service.getCategory() != null ? service.getCategory() : "";
+        IndexedService indexed = new IndexedService(service.getId(), category,
+                category.trim().toLowerCase(Locale.ROOT),
+                service.getBasePrice() != null ? service.getBasePrice() : 0.0,
+                service.getDurationMinutes(),
+                Boolean.TRUE.equals(service.getIsActive()),
+                service.getName() != null ? service.getName().toLowerCase(Locale.ROOT) : "",
+                terms, length);
+        services.put(service.getId(), indexed);
+        totalLength += length;
+        terms.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(service.getId(), tf));
+    }
+
+    private static Map<String, Double> termFrequencies(String text, double weight) {
+        Map<String, Double> frequencies = new HashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                frequencies.merge(token, weight, Double::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    public record Hit(Long id, double score) {
+    }
+
+    public record Result(List<Hit> hits, long total, Map<String, Long> categories) {
+    }
+
+    private record IndexedService(Long id,
+                                  String category,
+                                  String categoryKey,
+                                  double basePrice,
+                                  Integer durationMinutes,
+                                  boolean active,
+                                  String sortName,
+                                  Map<String, Double> terms,
+                                  double length) {
+    }
+}
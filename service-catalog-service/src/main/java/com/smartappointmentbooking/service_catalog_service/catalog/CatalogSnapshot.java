@@ -0,0 +1,93 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the whole catalog at one version. Writers never modify a
+ * snapshot; they build a new one with {@link #with} and swap it in, so readers
+ * see either the old catalog or the new one, never a mix.
+ */
+public final class CatalogSnapshot {
+    private static final Comparator<ServiceDTO> BY_VERSION =
+            Comparator.comparingLong(CatalogSnapshot::versionOf).thenComparing(ServiceDTO::getId);
+
+    private final long version;
+    private final List<ServiceDTO> all;
+    private final List<ServiceDTO> active;
+    private final Map<Long, ServiceDTO> byId;
+    // Ascending by row version, so "changes since V" is a binary search and a sublist
+    private final List<ServiceDTO> byVersion;
+
+    private CatalogSnapshot(long version, Map<Long, ServiceDTO> byId) {
+        List<ServiceDTO> sorted = new ArrayList<>(byId.values());
+        sorted.sort(Comparator.comparing(ServiceDTO::getId));
+        List<ServiceDTO> changes = new ArrayList<>(sorted);
+        changes.sort(BY_VERSION);
+
+        this.version = version;
+        this.byId = Map.copyOf(byId);
+        this.all = List.copyOf(sorted);
+        this.active = sorted.stream().filter(s -> Boolean.TRUE.equals(s.getIsActive())).toList();
+        this.byVersion = List.copyOf(changes);
+    }
+
+    public static CatalogSnapshot empty() {
+        return new CatalogSnapshot(0L, Map.of());
+    }
+
+    public static CatalogSnapshot of(long version, Collection<ServiceDTO> services) {
+        Map<Long, ServiceDTO> byId = new HashMap<>();
+        services.forEach(service -> byId.put(service.getId(), service));
+        return new CatalogSnapshot(version, byId);
+    }
+
+    /**
+     * Returns a new snapshot with {@code changed} replacing rows of the same id.
+     */
+    public CatalogSnapshot with(long newVersion, Collection<ServiceDTO> changed) {
+        Map<Long, ServiceDTO> merged = new HashMap<>(byId);
+        changed.forEach(service -> merged.put(service.getId(), service));
+        return new CatalogSnapshot(Math.max(version, newVersion), merged);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<ServiceDTO> all() {
+        return all;
+    }
+
+    public List<ServiceDTO> active() {
+        return active;
+    }
+
+    public ServiceDTO get(Long id) {
+        return byId.get(id);
+    }
+
+    public List<ServiceDTO> changedSince(long since) {
+        int low = 0;
+        int high = byVersion.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (versionOf(byVersion.get(mid)) <= since) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return byVersion.subList(low, byVersion.size());
+    }
+
+    private static long versionOf(ServiceDTO service) {
+        return service.getVersion() != null ? service.getVersion() : 0L;
+    }
+}
@@ -0,0 +1,133 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.entity.CatalogState;
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+import com.smartappointmentbooking.service_catalog_service.entity.Service;
+import com.smartappointmentbooking.service_catalog_service.repository.CatalogStateRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.DoctorServiceOfferingRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.ServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot} and advances it from the
+ * database. The catalog version is read before the changed rows; since
+ * versions are assigned under a row lock, every write up to that version has
+ * committed by then, so a refresh never skips a change. Local writes refresh
+ * right after commit and a short poll picks up writes from other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotStore {
+    private final ServiceRepository serviceRepository;
+    private final CatalogStateRepository catalogStateRepository;
+    private final DoctorServiceOfferingRepository offeringRepository;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final PricingIndex pricingIndex;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            load();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!catalogStateRepository.existsById(CatalogState.SINGLETON_ID)) {
+            try {
+                catalogStateRepository.save(CatalogState.builder()
+                        .id(CatalogState.SINGLETON_ID)
+                        .version(0L)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+
+        long version = catalogStateRepository.currentVersion();
+        List<Service> rows = serviceRepository.findAll();
+        List<ServiceDTO> services = rows.stream()
+                .map(CatalogSnapshotStore::toDto)
+                .toList();
+        List<DoctorServiceOffering> offerings = offeringRepository.findAll();
+        CatalogSnapshot loaded = CatalogSnapshot.of(version, services);
+        catalogSearchIndex.rebuild(rows);
+        pricingIndex.rebuild(loaded, offerings);
+        snapshot.set(loaded);
+        log.info("Catalog snapshot loaded at version {} with {} services and {} doctor offerings",
+                version, services.size(), offerings.size());
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        Long version = catalogStateRepository.currentVersion();
+        if (version == null || version <= current.version()) {
+            return;
+        }
+
+        List<Service> rows = serviceRepository.findByCatalogVersionGreaterThan(current.version());
+        List<ServiceDTO> changed = rows.stream()
+                .map(CatalogSnapshotStore::toDto)
+                .toList();
+        List<DoctorServiceOffering> changedOfferings = offeringRepository.findByCatalogVersionGreaterThan(current.version());
+        CatalogSnapshot next = current.with(version, changed);
+        catalogSearchIndex.update(rows);
+        pricingIndex.update(next, changedOfferings);
+        snapshot.set(next);
+        log.debug("Catalog snapshot advanced from {} to {} ({} services changed)",
+                current.version(), version, changed.size());
+    }
+
+    /**
+     * Refreshes once the surrounding transaction commits, or immediately if
+     * there is none.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    public static ServiceDTO toDto(Service service) {
+        return ServiceDTO.builder()
+                .id(service.getId())
+                .name(service.getName())
+                .description(service.getDescription())
+                .category(service.getCategory())
+                .durationMinutes(service.getDurationMinutes())
+                .basePrice(service.getBasePrice())
+                .isActive(service.getIsActive())
+                .iconUrl(service.getIconUrl())
+                .notes(service.getNotes())
+                .createdAt(service.getCreatedAt())
+                .version(service.getCatalogVersion() != null ? service.getCatalogVersion() : 0L)
+                .build();
+    }
+}
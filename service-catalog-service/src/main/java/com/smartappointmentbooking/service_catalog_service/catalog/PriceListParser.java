@@ -0,0 +1,146 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.service_catalog_service.dto.PriceListRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+/**
+ * Streams a price list as CSV (header row naming the {@link PriceListRow}
+ * fields) or as a JSON array, handing each row to a callback with its
+ * 1-based position so errors can point back at the input. A row that cannot
+ * be read goes to the error callback and the rest of the list still loads.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceListParser {
+    private final ObjectMapper objectMapper;
+
+    public void parse(InputStream input, boolean csv, BiConsumer<Integer, PriceListRow> rows,
+                      BiConsumer<Integer, String> errors) throws IOException {
+        if (csv) {
+            parseCsv(input, rows, errors);
+        } else {
+            parseJson(input, rows, errors);
+        }
+    }
+
+    private void parseJson(InputStream input, BiConsumer<Integer, PriceListRow> rows,
+                           BiConsumer<Integer, String> errors) throws IOException {
+        try (MappingIterator<PriceListRow> iterator = objectMapper.readerFor(PriceListRow.class).readValues(input)) {
+            int position = 0;
+            while (true) {
+                PriceListRow row;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        return;
+                    }
+                    position++;
+                    row = iterator.nextValue();
+                } catch (JsonMappingException e) {
+                    // The iterator skips past the bad element, so the rows after it are still read
+                    errors.accept(position, e.getOriginalMessage());
+                    continue;
+                } catch (JsonParseException e) {
+                    // Broken syntax leaves no way to find where the next row starts
+                    errors.accept(Math.max(1, position), "malformed JSON: " + e.getOriginalMessage());
+                    return;
+                }
+                try {
+                    rows.accept(position, row);
+                } catch (IllegalArgumentException e) {
+                    errors.accept(position, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void parseCsv(InputStream input, BiConsumer<Integer, PriceListRow> rows,
+                          BiConsumer<Integer, String> errors) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine);
+
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                rows.accept(lineNumber, toRow(header, parseCsvLine(line)));
+            } catch (IllegalArgumentException e) {
+                errors.accept(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    private static PriceListRow toRow(List<String> header, List<String> values) {
+        PriceListRow row = new PriceListRow();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            String column = header.get(i).trim();
+            switch (column.toLowerCase(Locale.ROOT)) {
+                case "id" -> row.setId(value != null ? Long.valueOf(value) : null);
+                case "name" -> row.setName(value);
+                case "description" -> row.setDescription(value);
+                case "category" -> row.setCategory(value);
+                case "durationminutes" -> row.setDurationMinutes(value != null ? Integer.valueOf(value) : null);
+                case "baseprice" -> row.setBasePrice(value != null ? Double.valueOf(value) : null);
+                case "iconurl" -> row.setIconUrl(value);
+                case "notes" -> row.setNotes(value);
+                case "isactive" -> row.setIsActive(value != null ? Boolean.valueOf(value) : null);
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        return row;
+    }
+
+    // Minimal RFC 4180 parsing: quoted fields may contain commas and doubled quotes, but not line breaks
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps every doctor offering in memory and republishes a fresh
+ * {@link PricingTable} whenever the catalog snapshot advances. Lookups read
+ * the published table without locking. Maintained by {@link CatalogSnapshotStore}.
+ */
+@Component
+public class PricingIndex {
+    private final Map<Long, DoctorServiceOffering> offerings = new HashMap<>();
+    private volatile PricingTable table = PricingTable.EMPTY;
+
+    public PricingTable table() {
+        return table;
+    }
+
+    public synchronized void rebuild(CatalogSnapshot snapshot, Collection<DoctorServiceOffering> all) {
+        offerings.clear();
+        all.forEach(offering -> offerings.put(offering.getId(), offering));
+        publish(snapshot);
+    }
+
+    public synchronized void update(CatalogSnapshot snapshot, Collection<DoctorServiceOffering> changed) {
+        changed.forEach(offering -> offerings.put(offering.getId(), offering));
+        // Service price and status changes move the defaults, so always rebuild
+        publish(snapshot);
+    }
+
+    private void publish(CatalogSnapshot snapshot) {
+        table = PricingTable.build(snapshot.version(), snapshot.all(), offerings.values());
+    }
+}
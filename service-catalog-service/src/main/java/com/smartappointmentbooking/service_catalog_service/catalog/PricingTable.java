@@ -0,0 +1,140 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable (doctorId, serviceId) to price and duration table, precomputed
+ * from the catalog and doctor offerings. Entries live in parallel primitive
+ * arrays with open addressing, so {@link #find} is a few array reads and
+ * allocates nothing. Catalog defaults are stored under doctor id 0 and apply
+ * when a doctor has no offering of their own for the service.
+ */
+public final class PricingTable {
+    public static final int NOT_FOUND = -1;
+    public static final int NO_DURATION = -1;
+    private static final long DEFAULT_DOCTOR = 0L;
+
+    static final PricingTable EMPTY = new PricingTable(0L, 0);
+
+    private final long version;
+    // A service id of 0 marks an empty slot; identity ids start at 1
+    private final long[] doctorIds;
+    private final long[] serviceIds;
+    // NaN marks an offering the doctor has withdrawn
+    private final double[] prices;
+    private final int[] durations;
+    private final int mask;
+    private int size;
+
+    private PricingTable(long version, int entries) {
+        int capacity = Math.max(8, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+        this.version = version;
+        this.doctorIds = new long[capacity];
+        this.serviceIds = new long[capacity];
+        this.prices = new double[capacity];
+        this.durations = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    static PricingTable build(long version, Collection<ServiceDTO> services, Collection<DoctorServiceOffering> offerings) {
+        Map<Long, ServiceDTO> active = new HashMap<>();
+        for (ServiceDTO service : services) {
+            if (Boolean.TRUE.equals(service.getIsActive()) && service.getBasePrice() != null) {
+                active.put(service.getId(), service);
+            }
+        }
+
+        PricingTable table = new PricingTable(version, active.size() + offerings.size());
+        for (ServiceDTO service : active.values()) {
+            table.put(DEFAULT_DOCTOR, service.getId(), service.getBasePrice(), service.getDurationMinutes());
+        }
+        for (DoctorServiceOffering offering : offerings) {
+            ServiceDTO service = active.get(offering.getServiceId());
+            if (service == null) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(offering.getIsActive())) {
+                table.put(offering.getDoctorId(), offering.getServiceId(), Double.NaN, null);
+                continue;
+            }
+            table.put(offering.getDoctorId(), offering.getServiceId(),
+                    offering.getPriceOverride() != null ? offering.getPriceOverride() : service.getBasePrice(),
+                    offering.getDurationOverride() != null ? offering.getDurationOverride() : service.getDurationMinutes());
+        }
+        return table;
+    }
+
+    /**
+     * Returns the slot holding the doctor's terms for the service, falling
+     * back to the catalog default, or {@link #NOT_FOUND} if the service is
+     * unknown, inactive or withdrawn by this doctor.
+     */
+    public int find(long doctorId, long serviceId) {
+        int slot = slotOf(doctorId, serviceId);
+        if (slot != NOT_FOUND) {
+            return Double.isNaN(prices[slot]) ? NOT_FOUND : slot;
+        }
+        return slotOf(DEFAULT_DOCTOR, serviceId);
+    }
+
+    public double price(int slot) {
+        return prices[slot];
+    }
+
+    /**
+     * Duration in minutes, or {@link #NO_DURATION} if the service has none.
+     */
+    public int durationMinutes(int slot) {
+        return durations[slot];
+    }
+
+    public boolean isDoctorSpecific(int slot) {
+        return doctorIds[slot] != DEFAULT_DOCTOR;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(long doctorId, long serviceId) {
+        int slot = hash(doctorId, serviceId) & mask;
+        while (serviceIds[slot] != 0) {
+            if (serviceIds[slot] == serviceId && doctorIds[slot] == doctorId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    private void put(long doctorId, long serviceId, double price, Integer durationMinutes) {
+        int slot = hash(doctorId, serviceId) & mask;
+        while (serviceIds[slot] != 0 && (serviceIds[slot] != serviceId || doctorIds[slot] != doctorId)) {
+            slot = (slot + 1) & mask;
+        }
+        if (serviceIds[slot] == 0) {
+            size++;
+        }
+        doctorIds[slot] = doctorId;
+        serviceIds[slot] = serviceId;
+        prices[slot] = price;
+        durations[slot] = durationMinutes != null ? durationMinutes : NO_DURATION;
+    }
+
+    private static int hash(long doctorId, long serviceId) {
+        long h = doctorId * 0x9E3779B97F4A7C15L + serviceId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartappointmentbooking.service_catalog_service.controller;
+
+import com.smartappointmentbooking.service_catalog_service.dto.DoctorOfferingDTO;
+import com.smartappointmentbooking.service_catalog_service.dto.DoctorOfferingRequest;
+import com.smartappointmentbooking.service_catalog_service.dto.PriceQuoteDTO;
+import com.smartappointmentbooking.service_catalog_service.service.DoctorPricingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/services/pricing")
+@RequiredArgsConstructor
+@Tag(name = "Pricing", description = "Doctor service offerings and price quotes")
+public class PricingController {
+    private final DoctorPricingService doctorPricingService;
+
+    @GetMapping("/quote")
+    @Operation(summary = "Get the authoritative price and duration for a doctor and service")
+    public ResponseEntity<PriceQuoteDTO> quote(@RequestParam long doctorId, @RequestParam long serviceId) {
+        PriceQuoteDTO quote = doctorPricingService.quote(doctorId, serviceId);
+        return ResponseEntity.ok(quote);
+    }
+
+    @GetMapping("/doctors/{doctorId}/offerings")
+    @Operation(summary = "Get a doctor's service offerings")
+    public ResponseEntity<List<DoctorOfferingDTO>> getOfferings(@PathVariable Long doctorId) {
+        List<DoctorOfferingDTO> offerings = doctorPricingService.getOfferings(doctorId);
+        return ResponseEntity.ok(offerings);
+    }
+
+    @PutMapping("/doctors/{doctorId}/offerings/{serviceId}")
+    @Operation(summary = "Offer a service with optional price and duration overrides")
+    public ResponseEntity<DoctorOfferingDTO> upsertOffering(
+            @PathVariable Long doctorId,
+            @PathVariable Long serviceId,
+            @RequestBody DoctorOfferingRequest request) {
+        DoctorOfferingDTO offering = doctorPricingService.upsertOffering(doctorId, serviceId, request);
+        return ResponseEntity.ok(offering);
+    }
+
+    @DeleteMapping("/doctors/{doctorId}/offerings/{serviceId}")
+    @Operation(summary = "Withdraw a doctor's offering of a service")
+    public ResponseEntity<Void> removeOffering(@PathVariable Long doctorId, @PathVariable Long serviceId) {
+        doctorPricingService.removeOffering(doctorId, serviceId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,14 +1,24 @@
 package com.smartappointmentbooking.service_catalog_service.controller;
 
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshot;
+import com.smartappointmentbooking.service_catalog_service.dto.BulkUpsertResponse;
+import com.smartappointmentbooking.service_catalog_service.dto.CatalogDeltaResponse;
 import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchCriteria;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchResponse;
 import com.smartappointmentbooking.service_catalog_service.dto.CreateServiceRequest;
 import com.smartappointmentbooking.service_catalog_service.service.ServiceCatalogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,17 +29,43 @@ public class ServiceCatalogController {
     private final ServiceCatalogService serviceCatalogService;
 
     @GetMapping
-    @Operation(summary = "Get all services")
-    public ResponseEntity<List<ServiceDTO>> getAllServices() {
-        List<ServiceDTO> services = serviceCatalogService.getAllServices();
-        return ResponseEntity.ok(services);
+    @Operation(summary = "Get all services (ETag is the catalog version)")
+    public ResponseEntity<List<ServiceDTO>> getAllServices(WebRequest webRequest) {
+        CatalogSnapshot snapshot = serviceCatalogService.getSnapshot();
+        String etag = catalogETag(snapshot.version());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(snapshot.all());
     }
 
     @GetMapping("/active")
-    @Operation(summary = "Get all active services")
-    public ResponseEntity<List<ServiceDTO>> getActiveServices() {
-        List<ServiceDTO> services = serviceCatalogService.getActiveServices();
-        return ResponseEntity.ok(services);
+    @Operation(summary = "Get all active services (ETag is the catalog version)")
+    public ResponseEntity<List<ServiceDTO>> getActiveServices(WebRequest webRequest) {
+        CatalogSnapshot snapshot = serviceCatalogService.getSnapshot();
+        String etag = catalogETag(snapshot.version());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(snapshot.active());
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get services created, changed or deactivated after the given catalog version")
+    public ResponseEntity<CatalogDeltaResponse> getChanges(@RequestParam long since, WebRequest webRequest) {
+        CatalogDeltaResponse delta = serviceCatalogService.getChangesSince(since);
+        String etag = catalogETag(delta.getVersion());
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(delta);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Full-text search with category, price and duration filters and category facets")
+    public ResponseEntity<ServiceSearchResponse> searchServices(ServiceSearchCriteria criteria) {
+        ServiceSearchResponse response = serviceCatalogService.searchServices(criteria);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
@@ -46,6 +82,17 @@ public class ServiceCatalogController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service);
     }
 
+    @PostMapping(value = "/bulk", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE })
+    @Operation(summary = "Create or update many services from a CSV or JSON price list")
+    public ResponseEntity<BulkUpsertResponse> bulkUpsert(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            InputStream body) throws IOException {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        BulkUpsertResponse response = serviceCatalogService.bulkUpsert(body, csv, dryRun);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update service")
     public ResponseEntity<ServiceDTO> updateService(
@@ -67,4 +114,8 @@ public class ServiceCatalogController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Service catalog service is running");
     }
+
+    private static String catalogETag(long version) {
+        return "\"" + version + "\"";
+    }
 }
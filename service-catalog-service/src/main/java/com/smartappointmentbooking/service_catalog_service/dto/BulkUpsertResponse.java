@@ -0,0 +1,22 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpsertResponse {
+    private boolean dryRun;
+    // Catalog version after the import; unchanged when nothing was written
+    private long version;
+    private int received;
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private int failed;
+    // Rows changed by someone else since the snapshot the import was diffed against; not written
+    private int conflicts;
+    private List<String> errors;
+}
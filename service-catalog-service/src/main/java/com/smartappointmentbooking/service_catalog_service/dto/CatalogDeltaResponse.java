@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDeltaResponse {
+    private long since;
+    private long version;
+    // Services created or changed after "since", including deactivated ones
+    private List<ServiceDTO> services;
+}
@@ -0,0 +1,20 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorOfferingDTO {
+    private Long id;
+    private Long doctorId;
+    private Long serviceId;
+    private String serviceName;
+    private Double priceOverride;
+    private Integer durationOverride;
+    private Double price;
+    private Integer durationMinutes;
+    private Boolean isActive;
+    private Long version;
+}
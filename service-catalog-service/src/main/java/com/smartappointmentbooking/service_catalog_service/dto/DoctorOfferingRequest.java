@@ -0,0 +1,12 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorOfferingRequest {
+    private Double priceOverride;
+    private Integer durationOverride;
+}
@@ -0,0 +1,20 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceListRow {
+    // Optional; rows without an id are matched to existing services by name and category
+    private Long id;
+    private String name;
+    private String description;
+    private String category;
+    private Integer durationMinutes;
+    private Double basePrice;
+    private String iconUrl;
+    private String notes;
+    private Boolean isActive;
+}
@@ -0,0 +1,16 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDTO {
+    private Long doctorId;
+    private Long serviceId;
+    private Double price;
+    private Integer durationMinutes;
+    private Boolean doctorSpecific;
+    private Long catalogVersion;
+}
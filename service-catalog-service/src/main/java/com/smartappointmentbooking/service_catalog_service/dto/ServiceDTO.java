@@ -16,5 +16,7 @@ public class ServiceDTO {
     private Double basePrice;
     private Boolean isActive;
     private String iconUrl;
+    private String notes;
     private LocalDateTime createdAt;
+    private Long version;
 }
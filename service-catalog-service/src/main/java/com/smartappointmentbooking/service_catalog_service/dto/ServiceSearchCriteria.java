@@ -0,0 +1,19 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceSearchCriteria {
+    private String q;
+    private String category;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Boolean includeInactive;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,12 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceSearchHit {
+    private ServiceDTO service;
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.smartappointmentbooking.service_catalog_service.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceSearchResponse {
+    private List<ServiceSearchHit> results;
+    private long total;
+    private int page;
+    private int size;
+    // Counts per category for the query and price/duration filters, ignoring the category filter
+    private Map<String, Long> categories;
+}
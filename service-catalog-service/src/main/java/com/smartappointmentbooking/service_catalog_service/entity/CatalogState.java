@@ -0,0 +1,24 @@
+package com.smartappointmentbooking.service_catalog_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row table holding the catalog version. Every catalog write bumps it
+ * with a row-locking update, so versions are assigned in commit order.
+ */
+@Entity
+@Table(name = "catalog_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogState {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,52 @@
+package com.smartappointmentbooking.service_catalog_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A doctor's terms for one catalog service. Null overrides fall back to the
+ * service's base price and duration; an inactive offering means the doctor
+ * does not provide the service.
+ */
+@Entity
+@Table(name = "doctor_service_offerings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_offerings_doctor_service", columnNames = {"doctorId", "serviceId"}),
+        indexes = @Index(name = "idx_offerings_catalog_version", columnList = "catalogVersion"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorServiceOffering {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long doctorId;
+
+    @Column(nullable = false)
+    private Long serviceId;
+
+    @Column
+    private Double priceOverride;
+
+    @Column
+    private Integer durationOverride;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean isActive = true;
+
+    @Builder.Default
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Builder.Default
+    @Column
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Shares the catalog version sequence so offerings sync with the snapshot
+    @Column
+    private Long catalogVersion;
+}
@@ -5,7 +5,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "services")
+@Table(name = "services", indexes = {
+        @Index(name = "idx_services_catalog_version", columnList = "catalogVersion")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -47,4 +49,8 @@ public class Service {
     @Builder.Default
     @Column
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Catalog version of the write that last changed this row; drives delta sync
+    @Column
+    private Long catalogVersion;
 }
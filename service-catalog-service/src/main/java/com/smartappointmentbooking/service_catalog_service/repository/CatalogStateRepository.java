@@ -0,0 +1,17 @@
+package com.smartappointmentbooking.service_catalog_service.repository;
+
+import com.smartappointmentbooking.service_catalog_service.entity.CatalogState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogStateRepository extends JpaRepository<CatalogState, Integer> {
+    @Modifying
+    @Query("UPDATE CatalogState s SET s.version = s.version + 1 WHERE s.id = 1")
+    int incrementVersion();
+
+    @Query("SELECT s.version FROM CatalogState s WHERE s.id = 1")
+    Long currentVersion();
+}
@@ -0,0 +1,16 @@
+package com.smartappointmentbooking.service_catalog_service.repository;
+
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DoctorServiceOfferingRepository extends JpaRepository<DoctorServiceOffering, Long> {
+    Optional<DoctorServiceOffering> findByDoctorIdAndServiceId(Long doctorId, Long serviceId);
+
+    List<DoctorServiceOffering> findByDoctorIdAndIsActiveTrue(Long doctorId);
+
+    List<DoctorServiceOffering> findByCatalogVersionGreaterThan(Long catalogVersion);
+}
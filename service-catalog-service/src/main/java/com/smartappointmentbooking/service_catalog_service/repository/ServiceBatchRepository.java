@@ -0,0 +1,84 @@
+package com.smartappointmentbooking.service_catalog_service.repository;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC batch writes for price-list imports. Services use IDENTITY keys,
+ * which disables Hibernate insert batching, so bulk changes bypass JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ServiceBatchRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void insertServices(List<ServiceDTO> services, long catalogVersion) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO services (name, description, category, duration_minutes, base_price, is_active, "
+                        + "icon_url, notes, created_at, updated_at, catalog_version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                services, BATCH_SIZE, (ps, service) -> {
+                    ps.setString(1, service.getName());
+                    ps.setString(2, service.getDescription());
+                    ps.setString(3, service.getCategory());
+                    ps.setObject(4, service.getDurationMinutes(), Types.INTEGER);
+                    ps.setObject(5, service.getBasePrice(), Types.DOUBLE);
+                    ps.setBoolean(6, !Boolean.FALSE.equals(service.getIsActive()));
+                    ps.setString(7, service.getIconUrl());
+                    ps.setString(8, service.getNotes());
+                    ps.setTimestamp(9, now);
+                    ps.setTimestamp(10, now);
+                    ps.setLong(11, catalogVersion);
+                });
+    }
+
+    /**
+     * Writes each row only if it is still at the catalog version it was diffed
+     * against, so a concurrent edit or delete is never overwritten with stale
+     * values. Returns the ids that were skipped because they had moved on.
+     */
+    public List<Long> updateServices(List<ServiceDTO> services, long catalogVersion) {
+        if (services.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "UPDATE services SET name = ?, description = ?, category = ?, duration_minutes = ?, base_price = ?, "
+                        + "is_active = ?, icon_url = ?, notes = ?, updated_at = ?, catalog_version = ? "
+                        + "WHERE id = ? AND COALESCE(catalog_version, 0) = ?",
+                services, BATCH_SIZE, (ps, service) -> {
+                    ps.setString(1, service.getName());
+                    ps.setString(2, service.getDescription());
+                    ps.setString(3, service.getCategory());
+                    ps.setObject(4, service.getDurationMinutes(), Types.INTEGER);
+                    ps.setObject(5, service.getBasePrice(), Types.DOUBLE);
+                    ps.setBoolean(6, Boolean.TRUE.equals(service.getIsActive()));
+                    ps.setString(7, service.getIconUrl());
+                    ps.setString(8, service.getNotes());
+                    ps.setTimestamp(9, now);
+                    ps.setLong(10, catalogVersion);
+                    ps.setLong(11, service.getId());
+                    ps.setLong(12, service.getVersion() != null ? service.getVersion() : 0L);
+                });
+
+        // Batched update counts are not reliable across drivers; every row we wrote now carries our version
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM services WHERE id IN (:ids) AND COALESCE(catalog_version, 0) <> :version",
+                new MapSqlParameterSource("ids", services.stream().map(ServiceDTO::getId).toList())
+                        .addValue("version", catalogVersion),
+                Long.class);
+    }
+}
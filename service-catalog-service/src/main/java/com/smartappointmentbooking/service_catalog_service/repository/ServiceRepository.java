@@ -8,4 +8,6 @@ import java.util.List;
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, Long> {
     List<Service> findByIsActiveTrue();
+
+    List<Service> findByCatalogVersionGreaterThan(Long catalogVersion);
 }
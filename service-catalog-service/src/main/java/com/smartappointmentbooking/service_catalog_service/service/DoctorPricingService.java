@@ -0,0 +1,131 @@
+package com.smartappointmentbooking.service_catalog_service.service;
+
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshot;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshotStore;
+import com.smartappointmentbooking.service_catalog_service.catalog.PricingIndex;
+import com.smartappointmentbooking.service_catalog_service.catalog.PricingTable;
+import com.smartappointmentbooking.service_catalog_service.dto.DoctorOfferingDTO;
+import com.smartappointmentbooking.service_catalog_service.dto.DoctorOfferingRequest;
+import com.smartappointmentbooking.service_catalog_service.dto.PriceQuoteDTO;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+import com.smartappointmentbooking.service_catalog_service.repository.CatalogStateRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.DoctorServiceOfferingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorPricingService {
+    private final DoctorServiceOfferingRepository offeringRepository;
+    private final CatalogStateRepository catalogStateRepository;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final PricingIndex pricingIndex;
+
+    /**
+     * Authoritative price and duration for a doctor performing a service,
+     * answered from the precomputed pricing table.
+     */
+    public PriceQuoteDTO quote(long doctorId, long serviceId) {
+        PricingTable table = pricingIndex.table();
+        int slot = table.find(doctorId, serviceId);
+        if (slot == PricingTable.NOT_FOUND) {
+            throw new RuntimeException("Service not offered by this doctor");
+        }
+        int duration = table.durationMinutes(slot);
+        return PriceQuoteDTO.builder()
+                .doctorId(doctorId)
+                .serviceId(serviceId)
+                .price(table.price(slot))
+                .durationMinutes(duration != PricingTable.NO_DURATION ? duration : null)
+                .doctorSpecific(table.isDoctorSpecific(slot))
+                .catalogVersion(table.version())
+                .build();
+    }
+
+    public List<DoctorOfferingDTO> getOfferings(Long doctorId) {
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        return offeringRepository.findByDoctorIdAndIsActiveTrue(doctorId).stream()
+                .map(offering -> mapToDTO(offering, snapshot.get(offering.getServiceId())))
+                .toList();
+    }
+
+    @Transactional
+    public DoctorOfferingDTO upsertOffering(Long doctorId, Long serviceId, DoctorOfferingRequest request) {
+        if (doctorId == null || doctorId <= 0) {
+            throw new IllegalArgumentException("A valid doctor id is required");
+        }
+        if (request.getPriceOverride() != null && request.getPriceOverride() < 0) {
+            throw new IllegalArgumentException("Price override must not be negative");
+        }
+        if (request.getDurationOverride() != null && request.getDurationOverride() <= 0) {
+            throw new IllegalArgumentException("Duration override must be positive");
+        }
+        ServiceDTO service = catalogSnapshotStore.current().get(serviceId);
+        if (service == null) {
+            throw new RuntimeException("Service not found");
+        }
+
+        DoctorServiceOffering offering = offeringRepository.findByDoctorIdAndServiceId(doctorId, serviceId)
+                .orElseGet(() -> DoctorServiceOffering.builder()
+                        .doctorId(doctorId)
+                        .serviceId(serviceId)
+                        .build());
+        offering.setPriceOverride(request.getPriceOverride());
+        offering.setDurationOverride(request.getDurationOverride());
+        offering.setIsActive(true);
+        offering.setUpdatedAt(LocalDateTime.now());
+        offering.setCatalogVersion(nextCatalogVersion());
+
+        offering = offeringRepository.save(offering);
+        catalogSnapshotStore.refreshAfterCommit();
+        log.info("Offering saved for doctor {} and service {}", doctorId, serviceId);
+        return mapToDTO(offering, service);
+    }
+
+    @Transactional
+    public void removeOffering(Long doctorId, Long serviceId) {
+        DoctorServiceOffering offering = offeringRepository.findByDoctorIdAndServiceId(doctorId, serviceId)
+                .orElseThrow(() -> new RuntimeException("Offering not found"));
+
+        // Kept as a withdrawn row so the pricing table stops falling back to the catalog default
+        offering.setIsActive(false);
+        offering.setUpdatedAt(LocalDateTime.now());
+        offering.setCatalogVersion(nextCatalogVersion());
+        offeringRepository.save(offering);
+        catalogSnapshotStore.refreshAfterCommit();
+        log.info("Offering withdrawn for doctor {} and service {}", doctorId, serviceId);
+    }
+
+    // Same sequence as service writes, see ServiceCatalogService
+    private long nextCatalogVersion() {
+        catalogStateRepository.incrementVersion();
+        return catalogStateRepository.currentVersion();
+    }
+
+    private DoctorOfferingDTO mapToDTO(DoctorServiceOffering offering, ServiceDTO service) {
+        Double price = offering.getPriceOverride() != null || service == null
+                ? offering.getPriceOverride()
+                : service.getBasePrice();
+        Integer duration = offering.getDurationOverride() != null || service == null
+                ? offering.getDurationOverride()
+                : service.getDurationMinutes();
+        return DoctorOfferingDTO.builder()
+                .id(offering.getId())
+                .doctorId(offering.getDoctorId())
+                .serviceId(offering.getServiceId())
+                .serviceName(service != null ? service.getName() : null)
+                .priceOverride(offering.getPriceOverride())
+                .durationOverride(offering.getDurationOverride())
+                .price(price)
+                .durationMinutes(duration)
+                .isActive(offering.getIsActive())
+                .version(offering.getCatalogVersion())
+                .build();
+    }
+}
@@ -1,22 +1,49 @@
 package com.smartappointmentbooking.service_catalog_service.service;
 
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSearchIndex;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshot;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshotStore;
+import com.smartappointmentbooking.service_catalog_service.catalog.PriceListParser;
+import com.smartappointmentbooking.service_catalog_service.dto.BulkUpsertResponse;
+import com.smartappointmentbooking.service_catalog_service.dto.CatalogDeltaResponse;
 import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchCriteria;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchHit;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceSearchResponse;
 import com.smartappointmentbooking.service_catalog_service.dto.CreateServiceRequest;
+import com.smartappointmentbooking.service_catalog_service.dto.PriceListRow;
 import com.smartappointmentbooking.service_catalog_service.entity.Service;
+import com.smartappointmentbooking.service_catalog_service.repository.CatalogStateRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.ServiceBatchRepository;
 import com.smartappointmentbooking.service_catalog_service.repository.ServiceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ServiceCatalogService {
     private final ServiceRepository serviceRepository;
+    private final CatalogStateRepository catalogStateRepository;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final ServiceBatchRepository serviceBatchRepository;
+    private final PriceListParser priceListParser;
+    private final TransactionTemplate transactionTemplate;
 
+    @Transactional
     public ServiceDTO createService(CreateServiceRequest request) {
         Service service = Service.builder()
                 .name(request.getName())
@@ -27,31 +54,71 @@ public class ServiceCatalogService {
                 .iconUrl(request.getIconUrl())
                 .notes(request.getNotes())
                 .isActive(true)
+                .catalogVersion(nextCatalogVersion())
                 .build();
 
         service = serviceRepository.save(service);
+        catalogSnapshotStore.refreshAfterCommit();
         log.info("Service created: {}", service.getId());
         return mapToDTO(service);
     }
 
+    public CatalogSnapshot getSnapshot() {
+        return catalogSnapshotStore.current();
+    }
+
     public List<ServiceDTO> getAllServices() {
-        return serviceRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotStore.current().all();
     }
 
     public List<ServiceDTO> getActiveServices() {
-        return serviceRepository.findByIsActiveTrue().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogSnapshotStore.current().active();
     }
 
     public ServiceDTO getServiceById(Long id) {
-        Service service = serviceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Service not found"));
-        return mapToDTO(service);
+        ServiceDTO service = catalogSnapshotStore.current().get(id);
+        if (service == null) {
+            throw new RuntimeException("Service not found");
+        }
+        return service;
+    }
+
+    public CatalogDeltaResponse getChangesSince(long since) {
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        return CatalogDeltaResponse.builder()
+                .since(since)
+                .version(snapshot.version())
+                .services(snapshot.changedSince(since))
+                .build();
+    }
+
+    public ServiceSearchResponse searchServices(ServiceSearchCriteria criteria) {
+        int page = criteria.getPage() != null ? Math.max(0, criteria.getPage()) : 0;
+        int size = criteria.getSize() != null ? Math.min(100, Math.max(1, criteria.getSize())) : 20;
+
+        CatalogSearchIndex.Result result = catalogSearchIndex.search(criteria, page, size);
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        List<ServiceSearchHit> hits = new ArrayList<>(result.hits().size());
+        for (CatalogSearchIndex.Hit hit : result.hits()) {
+            ServiceDTO service = snapshot.get(hit.id());
+            if (service != null) {
+                hits.add(ServiceSearchHit.builder()
+                        .service(service)
+                        .score(hit.score())
+                        .build());
+            }
+        }
+
+        return ServiceSearchResponse.builder()
+                .results(hits)
+                .total(result.total())
+                .page(page)
+                .size(size)
+                .categories(result.categories())
+                .build();
     }
 
+    @Transactional
     public ServiceDTO updateService(Long id, CreateServiceRequest request) {
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
@@ -74,32 +141,165 @@ public class ServiceCatalogService {
         if (request.getIconUrl() != null) {
             service.setIconUrl(request.getIconUrl());
         }
+        if (request.getNotes() != null) {
+            service.setNotes(request.getNotes());
+        }
 
         service.setUpdatedAt(LocalDateTime.now());
+        service.setCatalogVersion(nextCatalogVersion());
         service = serviceRepository.save(service);
+        catalogSnapshotStore.refreshAfterCommit();
         log.info("Service updated: {}", id);
         return mapToDTO(service);
     }
 
+    /**
+     * Applies a price list: each row is diffed against the current snapshot
+     * and only new or changed services are written, in JDBC batches within one
+     * transaction stamped with a single catalog version. Rows with an id must
+     * match an existing service; rows without one are matched by name and
+     * category, or inserted. Blank fields keep their current value.
+     */
+    public BulkUpsertResponse bulkUpsert(InputStream input, boolean csv, boolean dryRun) throws IOException {
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        Map<String, ServiceDTO> byNaturalKey = new HashMap<>();
+        snapshot.all().forEach(service -> byNaturalKey.put(naturalKey(service.getName(), service.getCategory()), service));
+
+        Map<String, ServiceDTO> inserts = new LinkedHashMap<>();
+        Map<Long, ServiceDTO> updates = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        int[] received = {0};
+        int[] unchanged = {0};
+        int[] failed = {0};
+
+        priceListParser.parse(input, csv, (position, row) -> {
+            received[0]++;
+            ServiceDTO existing = row.getId() != null
+                    ? snapshot.get(row.getId())
+                    : byNaturalKey.get(naturalKey(row.getName(), row.getCategory()));
+
+            if (existing == null) {
+                String problem = row.getId() != null ? "unknown service id " + row.getId() : validateNew(row);
+                if (problem != null) {
+                    failed[0]++;
+                    addError(errors, position, problem);
+                    return;
+                }
+                String key = naturalKey(row.getName(), row.getCategory());
+                inserts.put(key, merge(inserts.getOrDefault(key, ServiceDTO.builder().isActive(true).build()), row));
+                return;
+            }
+
+            if (row.getBasePrice() != null && row.getBasePrice() < 0) {
+                failed[0]++;
+                addError(errors, position, "basePrice must not be negative");
+                return;
+            }
+            ServiceDTO merged = merge(updates.getOrDefault(existing.getId(), existing), row);
+            if (merged.equals(existing)) {
+                updates.remove(existing.getId());
+                unchanged[0]++;
+            } else {
+                updates.put(existing.getId(), merged);
+            }
+        }, (position, problem) -> {
+            received[0]++;
+            failed[0]++;
+            addError(errors, position, problem);
+        });
+
+        long version = snapshot.version();
+        List<Long> conflicts = new ArrayList<>();
+        if (!dryRun && (!inserts.isEmpty() || !updates.isEmpty())) {
+            version = transactionTemplate.execute(status -> {
+                long next = nextCatalogVersion();
+                serviceBatchRepository.insertServices(new ArrayList<>(inserts.values()), next);
+                conflicts.addAll(serviceBatchRepository.updateServices(new ArrayList<>(updates.values()), next));
+                catalogSnapshotStore.refreshAfterCommit();
+                return next;
+            });
+            for (Long id : conflicts) {
+                if (errors.size() < 100) {
+                    errors.add("Service " + id + " was changed concurrently and was not updated; re-run the import to apply");
+                }
+            }
+            log.info("Price list applied at catalog version {}: {} inserted, {} updated, {} conflicts", version,
+                    inserts.size(), updates.size() - conflicts.size(), conflicts.size());
+        }
+
+        return BulkUpsertResponse.builder()
+                .dryRun(dryRun)
+                .version(version)
+                .received(received[0])
+                .inserted(inserts.size())
+                .updated(updates.size() - conflicts.size())
+                .unchanged(unchanged[0])
+                .failed(failed[0])
+                .conflicts(conflicts.size())
+                .errors(errors)
+                .build();
+    }
+
+    @Transactional
     public void deleteService(Long id) {
         Service service = serviceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
         service.setIsActive(false);
+        service.setUpdatedAt(LocalDateTime.now());
+        service.setCatalogVersion(nextCatalogVersion());
         serviceRepository.save(service);
+        catalogSnapshotStore.refreshAfterCommit();
         log.info("Service deleted (soft): {}", id);
     }
 
-    private ServiceDTO mapToDTO(Service service) {
+    private static ServiceDTO merge(ServiceDTO base, PriceListRow row) {
         return ServiceDTO.builder()
-                .id(service.getId())
-                .name(service.getName())
-                .description(service.getDescription())
-                .category(service.getCategory())
-                .durationMinutes(service.getDurationMinutes())
-                .basePrice(service.getBasePrice())
-                .isActive(service.getIsActive())
-                .iconUrl(service.getIconUrl())
-                .createdAt(service.getCreatedAt())
+                .id(base.getId())
+                .name(row.getName() != null ? row.getName() : base.getName())
+                .description(row.getDescription() != null ? row.getDescription() : base.getDescription())
+                .category(row.getCategory() != null ? row.getCategory() : base.getCategory())
+                .durationMinutes(row.getDurationMinutes() != null ? row.getDurationMinutes() : base.getDurationMinutes())
+                .basePrice(row.getBasePrice() != null ? row.getBasePrice() : base.getBasePrice())
+                .isActive(row.getIsActive() != null ? row.getIsActive() : base.getIsActive())
+                .iconUrl(row.getIconUrl() != null ? row.getIconUrl() : base.getIconUrl())
+                .notes(row.getNotes() != null ? row.getNotes() : base.getNotes())
+                .createdAt(base.getCreatedAt())
+                .version(base.getVersion())
                 .build();
     }
+
+    private static String validateNew(PriceListRow row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required for new services";
+        }
+        if (row.getCategory() == null || row.getCategory().isBlank()) {
+            return "category is required for new services";
+        }
+        if (row.getBasePrice() == null || row.getBasePrice() < 0) {
+            return "a non-negative basePrice is required for new services";
+        }
+        return null;
+    }
+
+    private static String naturalKey(String name, String category) {
+        return (name != null ? name.trim().toLowerCase(Locale.ROOT) : "")
+                + "|" + (category != null ? category.trim().toLowerCase(Locale.ROOT) : "");
+    }
+
+    private static void addError(List<String> errors, int position, String problem) {
+        // The failed count is exact; the list only keeps enough to act on
+        if (errors.size() < 100) {
+            errors.add("Row " + position + ": " + problem);
+        }
+    }
+
+    // Holds the catalog_state row lock until commit, which orders writers by version
+    private long nextCatalogVersion() {
+        catalogStateRepository.incrementVersion();
+        return catalogStateRepository.currentVersion();
+    }
+
+    private ServiceDTO mapToDTO(Service service) {
+        return CatalogSnapshotStore.toDto(service);
+    }
 }
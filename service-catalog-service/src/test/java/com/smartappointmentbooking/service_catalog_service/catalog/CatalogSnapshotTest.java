@@ -0,0 +1,76 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+	@Test
+	void returnsRowsChangedAfterVersionInVersionOrder() {
+		CatalogSnapshot snapshot = CatalogSnapshot.of(5L, List.of(
+				service(1L, 4L, true), service(2L, 2L, true), service(3L, 5L, true), service(4L, null, true)));
+
+		assertThat(ids(snapshot.changedSince(2L))).containsExactly(1L, 3L);
+		assertThat(ids(snapshot.changedSince(0L))).containsExactly(2L, 1L, 3L);
+		assertThat(snapshot.changedSince(5L)).isEmpty();
+	}
+
+	@Test
+	void treatsUnversionedRowsAsOriginalData() {
+		CatalogSnapshot snapshot = CatalogSnapshot.of(1L, List.of(service(1L, null, true), service(2L, 1L, true)));
+
+		assertThat(ids(snapshot.changedSince(-1L))).containsExactly(1L, 2L);
+		assertThat(ids(snapshot.changedSince(0L))).containsExactly(2L);
+	}
+
+	@Test
+	void mergedSnapshotReplacesChangedRowsAndLeavesOriginalUntouched() {
+		CatalogSnapshot original = CatalogSnapshot.of(3L, List.of(service(1L, 1L, true), service(2L, 3L, true)));
+
+		CatalogSnapshot next = original.with(6L, List.of(service(1L, 6L, false), service(5L, 6L, true)));
+
+		assertThat(next.version()).isEqualTo(6L);
+		assertThat(ids(next.all())).containsExactly(1L, 2L, 5L);
+		assertThat(ids(next.active())).containsExactly(2L, 5L);
+		assertThat(ids(next.changedSince(3L))).containsExactly(1L, 5L);
+		assertThat(next.get(1L).getIsActive()).isFalse();
+
+		assertThat(original.version()).isEqualTo(3L);
+		assertThat(original.get(1L).getIsActive()).isTrue();
+		assertThat(original.get(5L)).isNull();
+		assertThat(original.changedSince(3L)).isEmpty();
+	}
+
+	@Test
+	void neverMovesVersionBackwards() {
+		CatalogSnapshot snapshot = CatalogSnapshot.of(8L, List.of(service(1L, 8L, true)));
+
+		assertThat(snapshot.with(7L, List.of()).version()).isEqualTo(8L);
+	}
+
+	@Test
+	void emptySnapshotHasNoChanges() {
+		CatalogSnapshot empty = CatalogSnapshot.empty();
+
+		assertThat(empty.version()).isZero();
+		assertThat(empty.all()).isEmpty();
+		assertThat(empty.changedSince(0L)).isEmpty();
+	}
+
+	private static ServiceDTO service(long id, Long version, boolean active) {
+		return ServiceDTO.builder()
+				.id(id)
+				.name("Service " + id)
+				.isActive(active)
+				.version(version)
+				.build();
+	}
+
+	private static List<Long> ids(List<ServiceDTO> services) {
+		return services.stream().map(ServiceDTO::getId).toList();
+	}
+}
@@ -0,0 +1,73 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.service_catalog_service.dto.PriceListRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceListParserTest {
+
+	private final PriceListParser parser = new PriceListParser(new ObjectMapper());
+	private final List<String> rows = new ArrayList<>();
+	private final List<String> errors = new ArrayList<>();
+
+	@Test
+	void readsCsvWithQuotedFieldsAndIgnoresUnknownColumns() throws IOException {
+		parse("name,category,basePrice,colour\n"
+				+ "\"Cleaning, deep\",Dental,80.5,blue\n"
+				+ "\n"
+				+ "X-ray,Imaging,,red\n", true);
+
+		assertThat(rows).containsExactly("2:Cleaning, deep:80.5", "4:X-ray:null");
+		assertThat(errors).isEmpty();
+	}
+
+	@Test
+	void reportsBadCsvRowsAndKeepsGoing() throws IOException {
+		parse("name,basePrice,durationMinutes\n"
+				+ "A,10,30\n"
+				+ "B,ten,30\n"
+				+ "C,12,30\n", true);
+
+		assertThat(rows).containsExactly("2:A:10.0", "4:C:12.0");
+		assertThat(errors).hasSize(1).first().asString().startsWith("3:");
+	}
+
+	@Test
+	void reportsBadJsonRowsAndKeepsGoing() throws IOException {
+		parse("[{\"name\":\"A\",\"basePrice\":1},"
+				+ "{\"name\":\"B\",\"basePrice\":\"abc\"},"
+				+ "{\"name\":\"C\",\"durationMinutes\":{\"nested\":1}},"
+				+ "{\"name\":\"D\",\"basePrice\":4}]", false);
+
+		assertThat(rows).containsExactly("1:A:1.0", "4:D:4.0");
+		assertThat(errors).hasSize(2);
+		assertThat(errors.get(0)).startsWith("2:");
+		assertThat(errors.get(1)).startsWith("3:");
+	}
+
+	@Test
+	void stopsAtBrokenJsonSyntaxWithAnError() throws IOException {
+		parse("[{\"name\":\"A\"},{\"name\": }]", false);
+
+		assertThat(rows).containsExactly("1:A:null");
+		assertThat(errors).hasSize(1).first().asString().startsWith("2:malformed JSON");
+	}
+
+	private void parse(String body, boolean csv) throws IOException {
+		parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), csv,
+				(position, row) -> rows.add(describe(position, row)),
+				(position, problem) -> errors.add(position + ":" + problem));
+	}
+
+	private static String describe(int position, PriceListRow row) {
+		return position + ":" + row.getName() + ":" + row.getBasePrice();
+	}
+}
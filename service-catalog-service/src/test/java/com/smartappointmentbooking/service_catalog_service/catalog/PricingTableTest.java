@@ -0,0 +1,123 @@
+package com.smartappointmentbooking.service_catalog_service.catalog;
+
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.entity.DoctorServiceOffering;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PricingTableTest {
+
+	private static final long DOCTOR = 7L;
+	private static final long OTHER_DOCTOR = 8L;
+
+	@Test
+	void fallsBackToCatalogDefaults() {
+		PricingTable table = PricingTable.build(3L, List.of(service(1L, 50.0, 30)), List.of());
+
+		int slot = table.find(DOCTOR, 1L);
+
+		assertThat(slot).isNotEqualTo(PricingTable.NOT_FOUND);
+		assertThat(table.price(slot)).isEqualTo(50.0);
+		assertThat(table.durationMinutes(slot)).isEqualTo(30);
+		assertThat(table.isDoctorSpecific(slot)).isFalse();
+		assertThat(table.version()).isEqualTo(3L);
+	}
+
+	@Test
+	void appliesDoctorOverridesOnlyToThatDoctor() {
+		PricingTable table = PricingTable.build(1L, List.of(service(1L, 50.0, 30)),
+				List.of(offering(DOCTOR, 1L, 80.0, 45, true)));
+
+		int own = table.find(DOCTOR, 1L);
+		assertThat(table.price(own)).isEqualTo(80.0);
+		assertThat(table.durationMinutes(own)).isEqualTo(45);
+		assertThat(table.isDoctorSpecific(own)).isTrue();
+
+		int other = table.find(OTHER_DOCTOR, 1L);
+		assertThat(table.price(other)).isEqualTo(50.0);
+		assertThat(table.isDoctorSpecific(other)).isFalse();
+	}
+
+	@Test
+	void inheritsWhateverTheOfferingLeavesUnset() {
+		PricingTable table = PricingTable.build(1L, List.of(service(1L, 50.0, 30)),
+				List.of(offering(DOCTOR, 1L, null, 20, true)));
+
+		int slot = table.find(DOCTOR, 1L);
+
+		assertThat(table.price(slot)).isEqualTo(50.0);
+		assertThat(table.durationMinutes(slot)).isEqualTo(20);
+	}
+
+	@Test
+	void hidesServiceWithdrawnByDoctor() {
+		PricingTable table = PricingTable.build(1L, List.of(service(1L, 50.0, 30)),
+				List.of(offering(DOCTOR, 1L, 80.0, null, false)));
+
+		assertThat(table.find(DOCTOR, 1L)).isEqualTo(PricingTable.NOT_FOUND);
+		assertThat(table.find(OTHER_DOCTOR, 1L)).isNotEqualTo(PricingTable.NOT_FOUND);
+	}
+
+	@Test
+	void ignoresInactiveUnpricedAndUnknownServices() {
+		ServiceDTO inactive = service(2L, 40.0, 30);
+		inactive.setIsActive(false);
+		ServiceDTO unpriced = service(3L, null, 30);
+
+		PricingTable table = PricingTable.build(1L, List.of(service(1L, 50.0, null), inactive, unpriced),
+				List.of(offering(DOCTOR, 2L, 60.0, null, true), offering(DOCTOR, 99L, 60.0, null, true)));
+
+		assertThat(table.find(DOCTOR, 2L)).isEqualTo(PricingTable.NOT_FOUND);
+		assertThat(table.find(DOCTOR, 3L)).isEqualTo(PricingTable.NOT_FOUND);
+		assertThat(table.find(DOCTOR, 99L)).isEqualTo(PricingTable.NOT_FOUND);
+		assertThat(table.durationMinutes(table.find(DOCTOR, 1L))).isEqualTo(PricingTable.NO_DURATION);
+		assertThat(table.size()).isEqualTo(1);
+	}
+
+	@Test
+	void findsEveryEntryOfALargeTable() {
+		List<ServiceDTO> services = new ArrayList<>();
+		List<DoctorServiceOffering> offerings = new ArrayList<>();
+		for (long serviceId = 1; serviceId <= 200; serviceId++) {
+			services.add(service(serviceId, serviceId * 10.0, 30));
+			for (long doctorId = 1; doctorId <= 20; doctorId++) {
+				offerings.add(offering(doctorId, serviceId, serviceId * 10.0 + doctorId, null, true));
+			}
+		}
+
+		PricingTable table = PricingTable.build(1L, services, offerings);
+
+		assertThat(table.size()).isEqualTo(200 + 200 * 20);
+		for (long serviceId = 1; serviceId <= 200; serviceId++) {
+			for (long doctorId = 1; doctorId <= 20; doctorId++) {
+				assertThat(table.price(table.find(doctorId, serviceId))).isEqualTo(serviceId * 10.0 + doctorId);
+			}
+			assertThat(table.price(table.find(21L, serviceId))).isEqualTo(serviceId * 10.0);
+		}
+	}
+
+	private static ServiceDTO service(long id, Double basePrice, Integer durationMinutes) {
+		return ServiceDTO.builder()
+				.id(id)
+				.name("Service " + id)
+				.basePrice(basePrice)
+				.durationMinutes(durationMinutes)
+				.isActive(true)
+				.build();
+	}
+
+	private static DoctorServiceOffering offering(long doctorId, long serviceId, Double price, Integer duration,
+			boolean active) {
+		return DoctorServiceOffering.builder()
+				.doctorId(doctorId)
+				.serviceId(serviceId)
+				.priceOverride(price)
+				.durationOverride(duration)
+				.isActive(active)
+				.build();
+	}
+}
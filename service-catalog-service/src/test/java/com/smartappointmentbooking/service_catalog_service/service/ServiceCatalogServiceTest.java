@@ -0,0 +1,124 @@
+package com.smartappointmentbooking.service_catalog_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSearchIndex;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshot;
+import com.smartappointmentbooking.service_catalog_service.catalog.CatalogSnapshotStore;
+import com.smartappointmentbooking.service_catalog_service.catalog.PriceListParser;
+import com.smartappointmentbooking.service_catalog_service.dto.BulkUpsertResponse;
+import com.smartappointmentbooking.service_catalog_service.dto.ServiceDTO;
+import com.smartappointmentbooking.service_catalog_service.repository.CatalogStateRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.ServiceBatchRepository;
+import com.smartappointmentbooking.service_catalog_service.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ServiceCatalogServiceTest {
+
+	private static final String PRICE_LIST = "id,name,category,basePrice\n"
+			+ "1,,,80\n"
+			+ "2,,,55\n"
+			+ ",Filling,Dental,120\n"
+			+ "99,,,10\n"
+			+ ",Crown,,30\n";
+
+	private final CatalogStateRepository catalogStateRepository = mock(CatalogStateRepository.class);
+	private final CatalogSnapshotStore catalogSnapshotStore = mock(CatalogSnapshotStore.class);
+	private final ServiceBatchRepository serviceBatchRepository = mock(ServiceBatchRepository.class);
+	private final ServiceCatalogService service = new ServiceCatalogService(mock(ServiceRepository.class),
+			catalogStateRepository, catalogSnapshotStore, mock(CatalogSearchIndex.class), serviceBatchRepository,
+			new PriceListParser(new ObjectMapper()), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@BeforeEach
+	void setUp() {
+		when(catalogSnapshotStore.current()).thenReturn(CatalogSnapshot.of(7L, List.of(
+				service(1L, "Cleaning", "Dental", 80.0),
+				service(2L, "X-ray", "Imaging", 50.0))));
+		when(catalogStateRepository.currentVersion()).thenReturn(8L);
+	}
+
+	@Test
+	void writesOnlyNewAndChangedServicesAtOneVersion() throws IOException {
+		BulkUpsertResponse response = upsert(PRICE_LIST, false);
+
+		assertThat(response.getVersion()).isEqualTo(8L);
+		assertThat(response.getReceived()).isEqualTo(5);
+		assertThat(response.getUnchanged()).isEqualTo(1);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getInserted()).isEqualTo(1);
+		assertThat(response.getFailed()).isEqualTo(2);
+		assertThat(response.getErrors()).hasSize(2);
+		assertThat(response.getErrors().get(0)).contains("unknown service id 99");
+		assertThat(response.getErrors().get(1)).contains("category is required");
+
+		ArgumentCaptor<List<ServiceDTO>> inserted = listCaptor();
+		ArgumentCaptor<List<ServiceDTO>> updated = listCaptor();
+		verify(serviceBatchRepository).insertServices(inserted.capture(), eq(8L));
+		verify(serviceBatchRepository).updateServices(updated.capture(), eq(8L));
+		assertThat(inserted.getValue()).extracting(ServiceDTO::getName).containsExactly("Filling");
+		assertThat(updated.getValue()).extracting(ServiceDTO::getId).containsExactly(2L);
+		assertThat(updated.getValue().get(0).getBasePrice()).isEqualTo(55.0);
+		// Blank cells keep the current values
+		assertThat(updated.getValue().get(0).getName()).isEqualTo("X-ray");
+	}
+
+	@Test
+	void dryRunReportsTheSameCountsWithoutWriting() throws IOException {
+		BulkUpsertResponse response = upsert(PRICE_LIST, true);
+
+		assertThat(response.isDryRun()).isTrue();
+		assertThat(response.getVersion()).isEqualTo(7L);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getInserted()).isEqualTo(1);
+		verifyNoInteractions(serviceBatchRepository, catalogStateRepository);
+	}
+
+	@Test
+	void reportsRowsChangedConcurrentlyAsConflicts() throws IOException {
+		when(serviceBatchRepository.updateServices(anyList(), anyLong())).thenReturn(List.of(2L));
+
+		BulkUpsertResponse response = upsert("id,basePrice\n2,55\n", false);
+
+		assertThat(response.getUpdated()).isZero();
+		assertThat(response.getConflicts()).isEqualTo(1);
+		assertThat(response.getErrors()).singleElement().asString().contains("Service 2 was changed concurrently");
+	}
+
+	private BulkUpsertResponse upsert(String csv, boolean dryRun) throws IOException {
+		return service.bulkUpsert(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, dryRun);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArgumentCaptor<List<ServiceDTO>> listCaptor() {
+		return ArgumentCaptor.forClass(List.class);
+	}
+
+	private static ServiceDTO service(Long id, String name, String category, Double basePrice) {
+		return ServiceDTO.builder()
+				.id(id)
+				.name(name)
+				.category(category)
+				.durationMinutes(30)
+				.basePrice(basePrice)
+				.isActive(true)
+				.version(1L)
+				.build();
+	}
+}
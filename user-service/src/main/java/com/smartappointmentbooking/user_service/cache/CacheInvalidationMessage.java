@@ -0,0 +1,8 @@
+package com.smartappointmentbooking.user_service.cache;
+
+/**
+ * Broadcast to every user-service instance when a cached profile changes.
+ * {@code origin} identifies the sender so it can skip its own messages.
+ */
+public record CacheInvalidationMessage(String origin, ProfileCache.Region region, Long key) {
+}
@@ -0,0 +1,149 @@
+package com.smartappointmentbooking.user_service.cache;
+
+import com.smartappointmentbooking.user_service.dto.DoctorProfileDTO;
+import com.smartappointmentbooking.user_service.dto.UserProfileDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caches profile DTOs for the hot read paths. Local writes evict immediately
+ * (after commit when a transaction is active) and are broadcast on a fanout
+ * exchange so other instances evict too; the TTL bounds staleness if a
+ * broadcast is lost.
+ */
+@Component
+@Slf4j
+public class ProfileCache {
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchange;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ThreadPoolExecutor refreshExecutor;
+    private final RefreshAheadCache<Long, UserProfileDTO> users;
+    private final RefreshAheadCache<Long, DoctorProfileDTO> doctors;
+    private final RefreshAheadCache<Long, DoctorProfileDTO> doctorsByUserId;
+
+    public ProfileCache(RabbitTemplate rabbitTemplate,
+                        FanoutExchange cacheInvalidationExchange,
+                        @Value("${user-cache.max-entries:100000}") int maxEntries,
+                        @Value("${user-cache.ttl-seconds:600}") long ttlSeconds,
+                        @Value("${user-cache.refresh-after-seconds:300}") long refreshAfterSeconds) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchange = cacheInvalidationExchange.getName();
+        // Refreshes are best-effort; when the queue is full the stale value is served a little longer
+        this.refreshExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1000), r -> {
+                    Thread thread = new Thread(r, "profile-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        long ttlMillis = ttlSeconds * 1000;
+        long refreshAfterMillis = refreshAfterSeconds * 1000;
+        this.users = new RefreshAheadCache<>("users", maxEntries, ttlMillis, refreshAfterMillis, refreshExecutor);
+        this.doctors = new RefreshAheadCache<>("doctors", maxEntries, ttlMillis, refreshAfterMillis, refreshExecutor);
+        this.doctorsByUserId = new RefreshAheadCache<>("doctorsByUserId", maxEntries, ttlMillis, refreshAfterMillis,
+                refreshExecutor);
+    }
+
+    public UserProfileDTO getUser(Long userId, Function<Long, UserProfileDTO> loader) {
+        return users.get(userId, loader);
+    }
+
+    public DoctorProfileDTO getDoctor(Long doctorId, Function<Long, DoctorProfileDTO> loader) {
+        return doctors.get(doctorId, loader);
+    }
+
+    public DoctorProfileDTO getDoctorByUserId(Long userId, Function<Long, DoctorProfileDTO> loader) {
+        return doctorsByUserId.get(userId, loader);
+    }
+
+    public Map<Long, UserProfileDTO> getUsers(Collection<Long> userIds,
+                                              Function<Set<Long>, Map<Long, UserProfileDTO>> bulkLoader) {
+        return users.getAll(userIds, bulkLoader);
+    }
+
+    public Map<Long, DoctorProfileDTO> getDoctors(Collection<Long> doctorIds,
+                                                  Function<Set<Long>, Map<Long, DoctorProfileDTO>> bulkLoader) {
+        return doctors.getAll(doctorIds, bulkLoader);
+    }
+
+    public void evictUser(Long userId) {
+        evict(Region.USER, userId);
+    }
+
+    public void evictDoctor(Long doctorId, Long userId) {
+        if (doctorId != null) {
+            evict(Region.DOCTOR, doctorId);
+        }
+        if (userId != null) {
+            evict(Region.DOCTOR_BY_USER, userId);
+        }
+    }
+
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}")
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (instanceId.equals(message.origin())) {
+            return;
+        }
+        evictLocally(message.region(), message.key());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void evict(Region region, Long key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evicting before commit would let a concurrent read re-cache the old row
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(region, key);
+                }
+            });
+        } else {
+            evictAndBroadcast(region, key);
+        }
+    }
+
+    private void evictAndBroadcast(Region region, Long key) {
+        evictLocally(region, key);
+        try {
+            rabbitTemplate.convertAndSend(exchange, "", new CacheInvalidationMessage(instanceId, region, key));
+        } catch (AmqpException e) {
+            log.warn("Failed to broadcast cache invalidation for {} {}: {}", region, key, e.getMessage());
+        }
+    }
+
+    private void evictLocally(Region region, Long key) {
+        switch (region) {
+            case USER -> users.invalidate(key);
+            case DOCTOR -> doctors.invalidate(key);
+            case DOCTOR_BY_USER -> doctorsByUserId.invalidate(key);
+        }
+    }
+
+    public enum Region {
+        USER,
+        DOCTOR,
+        DOCTOR_BY_USER
+    }
+}
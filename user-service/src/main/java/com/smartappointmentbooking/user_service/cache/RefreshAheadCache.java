@@ -0,0 +1,154 @@
+package com.smartappointmentbooking.user_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU cache with a hard TTL and refresh-ahead: a hit on an entry
+ * older than the refresh interval is still served, while a background reload
+ * replaces it, so hot keys rarely pay for a miss. Loads that race with an
+ * invalidation are discarded rather than re-populating stale data.
+ */
+@Slf4j
+public class RefreshAheadCache<K, V> {
+    private final String name;
+    private final Map<K, Entry<V>> entries;
+    private final long ttlMillis;
+    private final long refreshAfterMillis;
+    private final Executor refreshExecutor;
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    private long invalidations;
+
+    public RefreshAheadCache(String name, int maxEntries, long ttlMillis, long refreshAfterMillis,
+                             Executor refreshExecutor) {
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.refreshAfterMillis = Math.min(refreshAfterMillis, ttlMillis);
+        this.refreshExecutor = refreshExecutor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                if (entry.refreshAt() <= now && refreshing.add(key)) {
+                    scheduleRefresh(key, loader, invalidations);
+                }
+                return entry.value();
+            }
+            generation = invalidations;
+        }
+
+        // Load outside the lock so a slow query does not block other lookups
+        V value = loader.apply(key);
+        put(key, value, generation, now);
+        return value;
+    }
+
+    /**
+     * Resolves many keys at once: fresh entries come from the cache and the
+     * rest are handed to {@code bulkLoader} in one call. Keys the loader does
+     * not return are absent from the result. Entries due for refresh are
+     * reloaded in the same call rather than in the background.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        long now = System.currentTimeMillis();
+        Map<K, V> cached = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long generation;
+        synchronized (this) {
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.refreshAt() > now) {
+                    cached.put(key, entry.value());
+                } else {
+                    missing.add(key);
+                }
+            }
+            generation = invalidations;
+        }
+
+        Map<K, V> loaded = missing.isEmpty() ? Map.of() : bulkLoader.apply(missing);
+        if (!loaded.isEmpty()) {
+            synchronized (this) {
+                if (generation == invalidations) {
+                    loaded.forEach((key, value) ->
+                            entries.put(key, new Entry<>(value, now + refreshAfterMillis, now + ttlMillis)));
+                }
+            }
+        }
+
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = cached.containsKey(key) ? cached.get(key) : loaded.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void scheduleRefresh(K key, Function<K, V> loader, long generation) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long loadedAt = System.currentTimeMillis();
+                    put(key, loader.apply(key), generation, loadedAt);
+                } catch (RuntimeException e) {
+                    // Typically the row is gone; drop it so the next read sees the error
+                    log.debug("Refresh of {} entry {} failed: {}", name, key, e.getMessage());
+                    synchronized (this) {
+                        entries.remove(key);
+                    }
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The stale entry keeps being served until its TTL; a later hit retries
+            refreshing.remove(key);
+        }
+    }
+
+    private synchronized void put(K key, V value, long generation, long loadedAt) {
+        if (generation != invalidations) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, loadedAt + refreshAfterMillis, loadedAt + ttlMillis));
+    }
+
+    private record Entry<V>(V value, long refreshAt, long expiresAt) {
+    }
+}
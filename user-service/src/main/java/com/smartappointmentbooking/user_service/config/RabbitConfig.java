@@ -0,0 +1,85 @@
+package com.smartappointmentbooking.user_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+        // Listener parameter types decide the payload class, not the sender's type header
+        converter.setAlwaysConvertToInferredType(true);
+        return converter;
+    }
+
+    @Bean
+    public FanoutExchange cacheInvalidationExchange(
+            @Value("${user-cache.invalidation-exchange:user-service.cache-invalidation}") String exchange) {
+        return new FanoutExchange(exchange);
+    }
+
+    // Each instance gets its own auto-deleted queue so every instance sees every invalidation
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding cacheInvalidationBinding(Queue cacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(cacheInvalidationQueue).to(cacheInvalidationExchange);
+    }
+
+    @Bean
+    public TopicExchange userEventsExchange(@Value("${user-events.exchange:user.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    @Bean
+    public Queue userEventsQueue(@Value("${user-events.queue:user-service.user-events}") String queue) {
+        return QueueBuilder.durable(queue).build();
+    }
+
+    // Events that failed to apply on their own are parked here for inspection
+    @Bean
+    public Queue userEventsDeadLetterQueue(
+            @Value("${user-events.dead-letter-queue:user-service.user-events.dlq}") String queue) {
+        return QueueBuilder.durable(queue).build();
+    }
+
+    @Bean
+    public Binding userEventsBinding(Queue userEventsQueue, TopicExchange userEventsExchange) {
+        return BindingBuilder.bind(userEventsQueue).to(userEventsExchange).with("user.*");
+    }
+
+    // Delivers up to batch-size messages per call, or whatever arrived within the receive timeout
+    @Bean
+    public SimpleRabbitListenerContainerFactory userEventsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${user-events.batch-size:200}") int batchSize,
+            @Value("${user-events.receive-timeout-ms:200}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize * 2);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
+    }
+}
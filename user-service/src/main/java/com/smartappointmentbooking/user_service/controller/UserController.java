@@ -5,9 +5,12 @@ import com.smartappointmentbooking.user_service.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @RestController
@@ -17,6 +20,10 @@ import java.util.List;
 public class UserController {
     private final UserService userService;
 
+    // Shared with auth-service; the gateway refuses the internal paths outright
+    @Value("${internal.api-token:}")
+    private String internalApiToken;
+
     @GetMapping("/profile")
     @Operation(summary = "Get user profile (from auth context)")
     public ResponseEntity<UserProfileDTO> getUserProfile(
@@ -38,6 +45,13 @@ public class UserController {
         return ResponseEntity.ok(profile);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get many users by ID in one call; unknown IDs are listed as missing")
+    public ResponseEntity<BatchLookupResponse<UserProfileDTO>> getUsersByIds(@RequestBody BatchLookupRequest request) {
+        BatchLookupResponse<UserProfileDTO> response = userService.getUserProfiles(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID")
     public ResponseEntity<UserProfileDTO> getUserById(@PathVariable Long id) {
@@ -59,6 +73,22 @@ public class UserController {
         return ResponseEntity.ok(doctors);
     }
 
+    @GetMapping("/doctors/search")
+    @Operation(summary = "Search doctors with filters, facet counts and pagination")
+    public ResponseEntity<DoctorSearchResponse> searchDoctors(DoctorSearchCriteria criteria) {
+        DoctorSearchResponse response = userService.searchDoctors(criteria);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/doctors/autocomplete")
+    @Operation(summary = "Suggest doctor names, specializations and qualifications for a typed prefix")
+    public ResponseEntity<List<AutocompleteSuggestionDTO>> autocompleteDoctors(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        List<AutocompleteSuggestionDTO> suggestions = userService.autocompleteDoctors(query, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @GetMapping("/doctors/specialization/{specialization}")
     @Operation(summary = "Get doctors by specialization")
     public ResponseEntity<List<DoctorProfileDTO>> getDoctorsBySpecialization(@PathVariable String specialization) {
@@ -77,6 +107,13 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(profile);
     }
 
+    @PostMapping("/doctors/batch")
+    @Operation(summary = "Get many doctor profiles by ID in one call; unknown IDs are listed as missing")
+    public ResponseEntity<BatchLookupResponse<DoctorProfileDTO>> getDoctorsByIds(@RequestBody BatchLookupRequest request) {
+        BatchLookupResponse<DoctorProfileDTO> response = userService.getDoctorProfiles(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/doctors/profile")
     @Operation(summary = "Get doctor profile of current user")
     public ResponseEntity<DoctorProfileDTO> getDoctorProfile(
@@ -110,9 +147,28 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(profile);
     }
 
+    @PutMapping("/bulk")
+    @Operation(summary = "Create or update users by email (idempotent, used by auth-service provisioning)")
+    public ResponseEntity<List<UserProfileDTO>> upsertUsers(
+            @RequestHeader(value = "X-Internal-Token", required = false) String token,
+            @RequestBody List<UpdateUserProfileRequest> requests) {
+        if (!isInternalCaller(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<UserProfileDTO> profiles = userService.upsertUsers(requests);
+        return ResponseEntity.ok(profiles);
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("User service is running");
     }
+
+    private boolean isInternalCaller(String token) {
+        // No configured token means no internal callers, not open access
+        return internalApiToken != null && !internalApiToken.isBlank() && token != null
+                && MessageDigest.isEqual(internalApiToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
 }
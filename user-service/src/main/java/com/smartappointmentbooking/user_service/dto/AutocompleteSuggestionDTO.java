@@ -0,0 +1,15 @@
+package com.smartappointmentbooking.user_service.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDTO {
+    private String type;
+    private String text;
+    private Long doctorId;
+    private Double score;
+    private Boolean exact;
+}
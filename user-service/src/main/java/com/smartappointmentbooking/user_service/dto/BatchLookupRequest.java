@@ -0,0 +1,12 @@
+package com.smartappointmentbooking.user_service.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupRequest {
+    private List<Long> ids;
+}
@@ -0,0 +1,14 @@
+package com.smartappointmentbooking.user_service.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResponse<T> {
+    private Map<Long, T> found;
+    private List<Long> missing;
+}
@@ -1,6 +1,7 @@
 package com.smartappointmentbooking.user_service.dto;
 
 import lombok.*;
+import java.math.BigDecimal;
 
 @Data
 @Builder
@@ -12,4 +13,5 @@ public class CreateDoctorProfileRequest {
     private Integer yearsOfExperience;
     private String qualifications;
     private String hospitalAffiliation;
+    private BigDecimal consultationFee;
 }
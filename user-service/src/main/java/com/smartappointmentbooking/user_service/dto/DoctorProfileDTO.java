@@ -1,6 +1,7 @@
 package com.smartappointmentbooking.user_service.dto;
 
 import lombok.*;
+import java.math.BigDecimal;
 
 @Data
 @Builder
@@ -9,11 +10,15 @@ import lombok.*;
 public class DoctorProfileDTO {
     private Long id;
     private Long userId;
+    private String firstName;
+    private String lastName;
     private String specialization;
     private String licenseNumber;
     private Integer yearsOfExperience;
     private String qualifications;
     private String hospitalAffiliation;
+    private BigDecimal consultationFee;
     private Double rating;
+    private Boolean verified;
     private Boolean isAvailable;
 }
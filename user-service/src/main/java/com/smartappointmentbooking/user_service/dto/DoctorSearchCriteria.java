@@ -0,0 +1,23 @@
+package com.smartappointmentbooking.user_service.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSearchCriteria {
+    private String q;
+    private String specialization;
+    private String qualification;
+    private Integer minExperience;
+    private Integer maxExperience;
+    private BigDecimal minFee;
+    private BigDecimal maxFee;
+    private Boolean verified;
+    private String sort;
+    private String direction;
+    private Integer page;
+    private Integer size;
+}
@@ -0,0 +1,17 @@
+package com.smartappointmentbooking.user_service.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSearchResponse {
+    private List<DoctorProfileDTO> results;
+    private long total;
+    private int page;
+    private int size;
+    private Map<String, Map<String, Long>> facets;
+}
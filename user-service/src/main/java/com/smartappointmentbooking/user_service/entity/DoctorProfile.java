@@ -2,12 +2,17 @@ package com.smartappointmentbooking.user_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Date;
 
 @Entity
-@Table(name = "doctor_profiles")
+@Table(name = "doctor_profiles", indexes = {
+        @Index(name = "idx_doctor_profiles_specialization_deleted", columnList = "specialization, is_deleted"),
+        @Index(name = "idx_doctor_profiles_verified", columnList = "verified")
+})
+@SQLRestriction("is_deleted = false")
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,7 +22,7 @@ public class DoctorProfile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -2,11 +2,13 @@ package com.smartappointmentbooking.user_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.util.Date;
 
 @Entity
 @Table(name = "users")
+@SQLRestriction("is_deleted = false")
 @Data
 @Builder
 @NoArgsConstructor
@@ -37,6 +39,10 @@ public class User {
     @Column(nullable = false, columnDefinition = "boolean default false")
     private Boolean isDeleted;
 
+    // Id of the last auth-service event applied to this row; older or replayed events are ignored
+    @Column
+    private Long eventVersion;
+
     @Column(nullable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP", updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt;
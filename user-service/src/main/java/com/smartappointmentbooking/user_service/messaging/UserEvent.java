@@ -0,0 +1,25 @@
+package com.smartappointmentbooking.user_service.messaging;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * User lifecycle event published by auth-service on the {@code user.events}
+ * exchange. Profile fields are absent on deletions.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UserEvent(Long eventId,
+                        Type eventType,
+                        Long userId,
+                        String email,
+                        String firstName,
+                        String lastName,
+                        String phoneNumber,
+                        String address,
+                        String role) {
+
+    public enum Type {
+        USER_CREATED,
+        USER_UPDATED,
+        USER_DELETED
+    }
+}
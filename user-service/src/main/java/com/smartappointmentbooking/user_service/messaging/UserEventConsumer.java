@@ -0,0 +1,213 @@
+package com.smartappointmentbooking.user_service.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartappointmentbooking.user_service.repository.UserBatchRepository;
+import com.smartappointmentbooking.user_service.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies user lifecycle events from auth-service in batches. Each batch is
+ * collapsed to the newest event per email and written with bulk JDBC upserts
+ * in one transaction; the broker acknowledges the batch only after it
+ * commits. Rows keep the id of the last event applied, so redelivered or
+ * reordered events are no-ops. If the batch hits a data error, the events
+ * are retried one at a time and any that still fail are parked on the
+ * dead-letter queue, so one bad event cannot wedge the queue. Transient
+ * database errors still fail the batch for redelivery. Malformed messages
+ * are counted and dropped.
+ */
+@Component
+@Slf4j
+public class UserEventConsumer {
+    private final ObjectMapper objectMapper;
+    private final UserBatchRepository userBatchRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final RabbitTemplate rabbitTemplate;
+    private final String queueName;
+    private final String deadLetterQueue;
+    private final Timer lagTimer;
+    private final Timer batchTimer;
+    private final Counter appliedCounter;
+    private final Counter rejectedCounter;
+    private final Counter deadLetteredCounter;
+
+    public UserEventConsumer(ObjectMapper objectMapper,
+                             UserBatchRepository userBatchRepository,
+                             UserService userService,
+                             TransactionTemplate transactionTemplate,
+                             AmqpAdmin amqpAdmin,
+                             RabbitTemplate rabbitTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${user-events.queue:user-service.user-events}") String queueName,
+                             @Value("${user-events.dead-letter-queue:user-service.user-events.dlq}") String deadLetterQueue) {
+        this.objectMapper = objectMapper;
+        this.userBatchRepository = userBatchRepository;
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.rabbitTemplate = rabbitTemplate;
+        this.queueName = queueName;
+        this.deadLetterQueue = deadLetterQueue;
+
+        // Time from the event being written in auth-service to it being applied here
+        this.lagTimer = Timer.builder("user.events.lag").register(meterRegistry);
+        this.batchTimer = Timer.builder("user.events.batch").register(meterRegistry);
+        this.appliedCounter = Counter.builder("user.events.applied").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("user.events.rejected").register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("user.events.dead.lettered").register(meterRegistry);
+        Gauge.builder("user.events.backlog", this, UserEventConsumer::backlog).register(meterRegistry);
+    }
+
+    @RabbitListener(queues = "${user-events.queue:user-service.user-events}",
+            containerFactory = "userEventsContainerFactory")
+    public void onUserEvents(List<Message> messages) {
+        batchTimer.record(() -> apply(messages));
+    }
+
+    private void apply(List<Message> messages) {
+        // The newest event per email supersedes the rest of the batch, whatever the arrival order
+        Map<String, Message> latestMessageByEmail = new LinkedHashMap<>();
+        Map<String, UserEvent> latestByEmail = new LinkedHashMap<>();
+        for (Message message : messages) {
+            UserEvent event = parse(message);
+            if (event == null) {
+                continue;
+            }
+            UserEvent previous = latestByEmail.get(event.email());
+            if (previous == null || previous.eventId() < event.eventId()) {
+                latestByEmail.put(event.email(), event);
+                latestMessageByEmail.put(event.email(), message);
+            }
+        }
+        if (latestByEmail.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> ids;
+        try {
+            ids = write(latestByEmail.values());
+        } catch (TransientDataAccessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("User event batch failed ({}), applying {} events one at a time", e.getMessage(), latestByEmail.size());
+            ids = new LinkedHashMap<>();
+            for (Map.Entry<String, UserEvent> entry : latestByEmail.entrySet()) {
+                try {
+                    ids.putAll(write(List.of(entry.getValue())));
+                } catch (TransientDataAccessException transientError) {
+                    throw transientError;
+                } catch (RuntimeException eventError) {
+                    deadLetter(latestMessageByEmail.get(entry.getKey()), eventError);
+                }
+            }
+        }
+
+        List<Long> changedUserIds = new ArrayList<>();
+        List<Long> deletedUserIds = new ArrayList<>();
+        Map<String, Long> appliedIds = ids;
+        latestByEmail.forEach((email, event) -> {
+            Long id = appliedIds.get(email);
+            if (id != null) {
+                (event.eventType() == UserEvent.Type.USER_DELETED ? deletedUserIds : changedUserIds).add(id);
+            }
+        });
+        userService.onUsersSynchronised(changedUserIds, deletedUserIds);
+
+        long now = System.currentTimeMillis();
+        for (Message message : messages) {
+            if (message.getMessageProperties().getTimestamp() != null) {
+                long lag = now - message.getMessageProperties().getTimestamp().getTime();
+                lagTimer.record(Duration.ofMillis(Math.max(0, lag)));
+            }
+        }
+        appliedCounter.increment(appliedIds.size());
+        log.debug("Applied {} user events ({} users)", messages.size(), appliedIds.size());
+    }
+
+    private Map<String, Long> write(Collection<UserEvent> events) {
+        List<UserBatchRepository.UserRow> upserts = new ArrayList<>();
+        List<UserBatchRepository.Deletion> deletions = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        for (UserEvent event : events) {
+            emails.add(event.email());
+            if (event.eventType() == UserEvent.Type.USER_DELETED) {
+                deletions.add(new UserBatchRepository.Deletion(event.email(), event.eventId()));
+            } else {
+                upserts.add(new UserBatchRepository.UserRow(event.email(), event.firstName(), event.lastName(),
+                        blankToNull(event.phoneNumber()), blankToNull(event.address()), blankToNull(event.role()),
+                        event.eventId()));
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            if (!upserts.isEmpty()) {
+                userBatchRepository.upsertByEmail(upserts);
+            }
+            userBatchRepository.markDeletedByEmail(deletions);
+            return userBatchRepository.findIdsByEmail(emails);
+        });
+    }
+
+    private void deadLetter(Message message, RuntimeException error) {
+        deadLetteredCounter.increment();
+        log.error("Parking user event {} on {}: {}", message.getMessageProperties().getMessageId(),
+                deadLetterQueue, error.getMessage());
+        message.getMessageProperties().setHeader("x-exception-message",
+                error.getMessage() != null && error.getMessage().length() > 1000
+                        ? error.getMessage().substring(0, 1000) : error.getMessage());
+        // Default exchange routes straight to the queue of that name
+        rabbitTemplate.send("", deadLetterQueue, message);
+    }
+
+    private UserEvent parse(Message message) {
+        try {
+            UserEvent event = objectMapper.readValue(message.getBody(), UserEvent.class);
+            if (event.eventId() == null || event.eventType() == null || event.email() == null
+                    || event.email().isBlank()) {
+                throw new IOException("missing eventId, eventType or email");
+            }
+            return event;
+        } catch (IOException e) {
+            rejectedCounter.increment();
+            log.warn("Dropping malformed user event {}: {}", message.getMessageProperties().getMessageId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private double backlog() {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (AmqpException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -1,16 +1,51 @@
 package com.smartappointmentbooking.user_service.repository;
 
 import com.smartappointmentbooking.user_service.entity.DoctorProfile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorProfileRepository extends JpaRepository<DoctorProfile, Long> {
+    String SUMMARY_SELECT = "SELECT new com.smartappointmentbooking.user_service.repository.DoctorSummary("
+            + "d.id, u.id, u.firstName, u.lastName, d.specialization, d.medicalLicenseNumber, "
+            + "d.experienceYears, d.qualification, d.consultationFee, d.verified, d.availabilityStatus) "
+            + "FROM DoctorProfile d JOIN d.user u ";
+
     Optional<DoctorProfile> findByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "user")
+    Optional<DoctorProfile> findWithUserById(Long id);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<DoctorProfile> findWithUserByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    List<DoctorProfile> findWithUserByUserIdIn(Collection<Long> userIds);
+
     List<DoctorProfile> findBySpecialization(String specialization);
 
-    List<DoctorProfile> findByVerifiedTrue();
+    @Query(SUMMARY_SELECT + "ORDER BY d.id")
+    List<DoctorSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE d.specialization = :specialization ORDER BY d.id")
+    List<DoctorSummary> findSummariesBySpecialization(@Param("specialization") String specialization);
+
+    @Query(SUMMARY_SELECT + "WHERE d.id = :id")
+    Optional<DoctorSummary> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE d.id IN :ids")
+    List<DoctorSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId")
+    Optional<DoctorSummary> findSummaryByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT d FROM DoctorProfile d JOIN FETCH d.user u WHERE d.id > :afterId ORDER BY d.id")
+    List<DoctorProfile> findActiveWithUserAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
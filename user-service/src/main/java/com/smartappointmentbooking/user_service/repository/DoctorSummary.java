@@ -0,0 +1,20 @@
+package com.smartappointmentbooking.user_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Column projection for doctor reads: the profile joined with its user's
+ * name, without the bio text or audit columns.
+ */
+public record DoctorSummary(Long id,
+                            Long userId,
+                            String firstName,
+                            String lastName,
+                            String specialization,
+                            String medicalLicenseNumber,
+                            Integer experienceYears,
+                            String qualification,
+                            BigDecimal consultationFee,
+                            Boolean verified,
+                            String availabilityStatus) {
+}
@@ -0,0 +1,114 @@
+package com.smartappointmentbooking.user_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC batch writes for event-driven user synchronisation. Rows are
+ * upserted on the unique email column and each change carries the id of the
+ * event behind it; a row only takes a change newer than the last one it
+ * applied, so redelivered or out-of-order events (a late user.created after
+ * user.deleted) leave it alone. These statements bypass the entities'
+ * soft-delete restriction on purpose: a deleted row still owns its email.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void upsertByEmail(List<UserRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // MySQL applies the assignments left to right, so event_version must be updated last
+        String newer = "COALESCE(event_version, 0) < VALUES(event_version)";
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (email, first_name, last_name, phone_number, address, role, is_deleted, "
+                        + "event_version, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE "
+                        + "first_name = IF(" + newer + ", VALUES(first_name), first_name), "
+                        + "last_name = IF(" + newer + ", VALUES(last_name), last_name), "
+                        + "phone_number = IF(" + newer + ", COALESCE(VALUES(phone_number), phone_number), phone_number), "
+                        + "address = IF(" + newer + ", COALESCE(VALUES(address), address), address), "
+                        + "role = IF(" + newer + ", COALESCE(VALUES(role), role), role), "
+                        + "is_deleted = IF(" + newer + ", false, is_deleted), "
+                        + "updated_at = IF(" + newer + ", VALUES(updated_at), updated_at), "
+                        + "event_version = GREATEST(COALESCE(event_version, 0), VALUES(event_version))",
+                rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.email());
+                    ps.setString(2, row.firstName() != null ? row.firstName() : "");
+                    ps.setString(3, row.lastName() != null ? row.lastName() : "");
+                    ps.setString(4, row.phoneNumber());
+                    ps.setString(5, row.address());
+                    ps.setString(6, row.role());
+                    ps.setLong(7, row.eventVersion());
+                    ps.setTimestamp(8, now);
+                    ps.setTimestamp(9, now);
+                });
+    }
+
+    // Leaves a deleted tombstone even for an unknown email, so a late user.created cannot revive it
+    public void markDeletedByEmail(List<Deletion> deletions) {
+        if (deletions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String newer = "COALESCE(event_version, 0) < VALUES(event_version)";
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (email, first_name, last_name, is_deleted, event_version, created_at, updated_at) "
+                        + "VALUES (?, '', '', true, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE "
+                        + "is_deleted = IF(" + newer + ", true, is_deleted), "
+                        + "updated_at = IF(" + newer + ", VALUES(updated_at), updated_at), "
+                        + "event_version = GREATEST(COALESCE(event_version, 0), VALUES(event_version))",
+                deletions, deletions.size(), (ps, deletion) -> {
+                    ps.setString(1, deletion.email());
+                    ps.setLong(2, deletion.eventVersion());
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, now);
+                });
+    }
+
+    public Map<String, Long> findIdsByEmail(Collection<String> emails) {
+        Map<String, Long> ids = new HashMap<>();
+        if (emails.isEmpty()) {
+            return ids;
+        }
+        namedParameterJdbcTemplate.query("SELECT id, email FROM users WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                (RowCallbackHandler) rs -> ids.put(rs.getString("email"), rs.getLong("id")));
+        return ids;
+    }
+
+    public List<Long> findDoctorIdsByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM doctor_profiles WHERE user_id IN (:userIds)",
+                new MapSqlParameterSource("userIds", userIds), Long.class);
+    }
+
+    public record UserRow(String email,
+                          String firstName,
+                          String lastName,
+                          String phoneNumber,
+                          String address,
+                          String role,
+                          long eventVersion) {
+    }
+
+    public record Deletion(String email, long eventVersion) {
+    }
+}
@@ -2,7 +2,11 @@ package com.smartappointmentbooking.user_service.repository;
 
 import com.smartappointmentbooking.user_service.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +14,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Native so the soft-delete restriction does not hide rows that still own the email
+    @Query(value = "SELECT * FROM users WHERE email IN (:emails)", nativeQuery = true)
+    List<User> findByEmailInIncludingDeleted(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new com.smartappointmentbooking.user_service.repository.UserSummary("
+            + "u.id, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.role) "
+            + "FROM User u WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT new com.smartappointmentbooking.user_service.repository.UserSummary("
+            + "u.id, u.email, u.firstName, u.lastName, u.phoneNumber, u.address, u.role) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
 }
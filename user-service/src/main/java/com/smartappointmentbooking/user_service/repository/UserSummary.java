@@ -0,0 +1,13 @@
+package com.smartappointmentbooking.user_service.repository;
+
+/**
+ * Column projection for profile reads, without the audit columns.
+ */
+public record UserSummary(Long id,
+                          String email,
+                          String firstName,
+                          String lastName,
+                          String phoneNumber,
+                          String address,
+                          String role) {
+}
@@ -0,0 +1,449 @@
+package com.smartappointmentbooking.user_service.search;
+
+import com.smartappointmentbooking.user_service.dto.AutocompleteSuggestionDTO;
+import com.smartappointmentbooking.user_service.entity.DoctorProfile;
+import com.smartappointmentbooking.user_service.repository.DoctorProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Autocomplete over doctor names, specializations and qualifications. Keys
+ * live in a character trie whose nodes cache the best {@link #MAX_RESULTS}
+ * suggestions of their subtree, so an exact prefix costs one walk down the
+ * trie. Typos are handled by a bounded Levenshtein walk that visits only
+ * nodes within one edit of the typed prefix. Doctors are weighted by
+ * verification and experience; specializations and qualifications by how
+ * many doctors carry them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorAutocompleteIndex {
+    public static final int MAX_RESULTS = 10;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // Fuzzy matches on one- or two-letter prefixes would match almost everything
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final double FUZZY_PENALTY = 0.5;
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Trie trie = new Trie();
+    // Mutations made while a rebuild is loading are replayed onto the new trie
+    private List<Consumer<Trie>> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Trie fresh = new Trie();
+        boolean loaded = false;
+        try {
+            long afterId = 0L;
+            List<DoctorProfile> page;
+            do {
+                page = doctorProfileRepository.findActiveWithUserAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (DoctorProfile profile : page) {
+                    fresh.putDoctor(profile);
+                    afterId = profile.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    pendingDuringRebuild.forEach(op -> op.accept(fresh));
+                    trie = fresh;
+                }
+                // Cleared on a failed load too, or every later mutation would be queued forever
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Doctor autocomplete index built with {} doctors in {} ms",
+                fresh.doctors.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void upsert(DoctorProfile profile) {
+        if (Boolean.TRUE.equals(profile.getIsDeleted())
+                || profile.getUser() == null
+                || Boolean.TRUE.equals(profile.getUser().getIsDeleted())) {
+            mutate(index -> index.removeDoctor(profile.getId()));
+        } else {
+            mutate(index -> index.putDoctor(profile));
+        }
+    }
+
+    public void removeByUserId(Long userId) {
+        mutate(index -> {
+            Long doctorId = index.doctorIdByUserId.get(userId);
+            if (doctorId != null) {
+                index.removeDoctor(doctorId);
+            }
+        });
+    }
+
+    public List<AutocompleteSuggestionDTO> suggest(String query, Integer limit) {
+        String prefix = normalize(query);
+        int k = limit != null ? Math.min(MAX_RESULTS, Math.max(1, limit)) : MAX_RESULTS;
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Scored> best = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Node exact = trie.find(prefix);
+            if (exact != null) {
+                collect(exact, 1.0, true, best);
+            }
+            if (prefix.length() >= MIN_FUZZY_LENGTH) {
+                for (Node node : trie.withinOneEdit(prefix)) {
+                    collect(node, FUZZY_PENALTY, false, best);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return best.values().stream()
+                .sorted(Comparator.comparingDouble(Scored::score).reversed()
+                        .thenComparing(scored -> scored.suggestion().text()))
+                .limit(k)
+                .map(scored -> AutocompleteSuggestionDTO.builder()
+                        .type(scored.suggestion().type().name())
+                        .text(scored.suggestion().text())
+                        .doctorId(scored.suggestion().doctorId())
+                        .score(scored.score())
+                        .exact(scored.exact())
+                        .build())
+                .toList();
+    }
+
+    private void mutate(Consumer<Trie> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(trie);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(op);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void collect(Node node, double factor, boolean exact, Map<String, Scored> best) {
+        for (Suggestion suggestion : node.top) {
+            double score = suggestion.weight() * factor;
+            best.merge(suggestion.id(), new Scored(suggestion, score, exact),
+                    (current, candidate) -> candidate.score() > current.score() ? candidate : current);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private enum SuggestionType {
+        DOCTOR,
+        SPECIALIZATION,
+        QUALIFICATION
+    }
+
+    private record Suggestion(String id, SuggestionType type, String text, Long doctorId, double weight) {
+    }
+
+    private record Scored(Suggestion suggestion, double score, boolean exact) {
+    }
+
+    private record DoctorEntry(Long doctorId, Long userId, List<String> nameKeys, List<String> termIds) {
+    }
+
+    private static final class Term {
+        private final String key;
+        private final SuggestionType type;
+        private final String text;
+        private int doctors;
+
+        private Term(String key, SuggestionType type, String text) {
+            this.key = key;
+            this.type = type;
+            this.text = text;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+        // Children are kept in parallel sorted arrays rather than maps to stay compact
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private List<Suggestion> terminals;
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node node = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = node;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return node;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return labels.length == 0 && (terminals == null || terminals.isEmpty());
+        }
+
+        void recomputeTop() {
+            Map<String, Suggestion> candidates = new HashMap<>();
+            if (terminals != null) {
+                terminals.forEach(s -> candidates.merge(s.id(), s, Node::heavier));
+            }
+            for (Node child : children) {
+                for (Suggestion s : child.top) {
+                    candidates.merge(s.id(), s, Node::heavier);
+                }
+            }
+            top = candidates.values().stream()
+                    .sorted(Comparator.comparingDouble(Suggestion::weight).reversed()
+                            .thenComparing(Suggestion::text))
+                    .limit(MAX_RESULTS)
+                    .toArray(Suggestion[]::new);
+        }
+
+        private static Suggestion heavier(Suggestion a, Suggestion b) {
+            return b.weight() > a.weight() ? b : a;
+        }
+    }
+
+    /**
+     * Trie plus the bookkeeping needed to undo a doctor's keys when the doctor
+     * changes. Not thread-safe on its own; guarded by the outer lock.
+     */
+    private static final class Trie {
+        private final Node root = new Node();
+        private final Map<Long, DoctorEntry> doctors = new HashMap<>();
+        private final Map<Long, Long> doctorIdByUserId = new HashMap<>();
+        private final Map<String, Term> terms = new HashMap<>();
+
+        void putDoctor(DoctorProfile profile) {
+            removeDoctor(profile.getId());
+
+            String firstName = profile.getUser().getFirstName() != null ? profile.getUser().getFirstName().trim() : "";
+            String lastName = profile.getUser().getLastName() != null ? profile.getUser().getLastName().trim() : "";
+            String fullName = (firstName + " " + lastName).trim();
+            int experience = profile.getExperienceYears() != null ? profile.getExperienceYears() : 0;
+            double weight = 1.0
+                    + (Boolean.TRUE.equals(profile.getVerified()) ? 1.0 : 0.0)
+                    + Math.min(experience, 30) / 30.0;
+            Suggestion doctor = new Suggestion("DOCTOR:" + profile.getId(), SuggestionType.DOCTOR,
+                    fullName, profile.getId(), weight);
+
+            // Typing either the first or the last name finds the doctor
+            List<String> nameKeys = new ArrayList<>();
+            String normalizedName = normalize(fullName);
+            if (!normalizedName.isEmpty()) {
+                nameKeys.add(normalizedName);
+                String normalizedLast = normalize(lastName);
+                if (!normalizedLast.isEmpty() && !normalizedLast.equals(normalizedName)) {
+                    nameKeys.add(normalizedLast);
+                }
+            }
+            nameKeys.forEach(key -> insert(key, doctor));
+
+            List<String> termIds = new ArrayList<>();
+            addTerm(SuggestionType.SPECIALIZATION, profile.getSpecialization(), termIds);
+            if (profile.getQualification() != null) {
+                for (String qualification : profile.getQualification().split("[,;/]")) {
+                    addTerm(SuggestionType.QUALIFICATION, qualification, termIds);
+                }
+            }
+
+            doctors.put(profile.getId(),
+                    new DoctorEntry(profile.getId(), profile.getUser().getId(), nameKeys, termIds));
+            doctorIdByUserId.put(profile.getUser().getId(), profile.getId());
+        }
+
+        void removeDoctor(Long doctorId) {
+            DoctorEntry entry = doctors.remove(doctorId);
+            if (entry == null) {
+                return;
+            }
+            doctorIdByUserId.remove(entry.userId(), doctorId);
+            entry.nameKeys().forEach(key -> delete(key, "DOCTOR:" + doctorId));
+            for (String termId : entry.termIds()) {
+                Term term = terms.get(termId);
+                term.doctors--;
+                if (term.doctors == 0) {
+                    terms.remove(termId);
+                    delete(term.key, termId);
+                } else {
+                    insert(term.key, termSuggestion(termId, term));
+                }
+            }
+        }
+
+        private void addTerm(SuggestionType type, String text, List<String> termIds) {
+            String key = normalize(text);
+            if (key.isEmpty()) {
+                return;
+            }
+            String termId = type.name() + ":" + key;
+            if (termIds.contains(termId)) {
+                return;
+            }
+            Term term = terms.computeIfAbsent(termId, id -> new Term(key, type, text.trim()));
+            term.doctors++;
+            termIds.add(termId);
+            insert(key, termSuggestion(termId, term));
+        }
+
+        private static Suggestion termSuggestion(String termId, Term term) {
+            return new Suggestion(termId, term.type, term.text, null, term.doctors);
+        }
+
+        Node find(String prefix) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        /**
+         * Nodes whose path is within one insertion, deletion or substitution of
+         * the query. Each returned node stands for its whole subtree, and the
+         * walk stops descending once every cell of the edit-distance row
+         * exceeds one, which keeps it proportional to the prefix length.
+         */
+        List<Node> withinOneEdit(String query) {
+            List<Node> matches = new ArrayList<>();
+            int[] row = new int[query.length() + 1];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = i;
+            }
+            for (int i = 0; i < root.labels.length; i++) {
+                walk(root.children[i], root.labels[i], row, query, matches);
+            }
+            return matches;
+        }
+
+        private static void walk(Node node, char label, int[] previous, String query, List<Node> matches) {
+            int length = query.length();
+            int[] row = new int[length + 1];
+            row[0] = previous[0] + 1;
+            int min = row[0];
+            for (int i = 1; i <= length; i++) {
+                int substitution = previous[i - 1] + (query.charAt(i - 1) == label ? 0 : 1);
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), substitution);
+                min = Math.min(min, row[i]);
+            }
+            if (row[length] <= 1) {
+                matches.add(node);
+                return;
+            }
+            if (min > 1) {
+                return;
+            }
+            for (int i = 0; i < node.labels.length; i++) {
+                walk(node.children[i], node.labels[i], row, query, matches);
+            }
+        }
+
+        private void insert(String key, Suggestion suggestion) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].childOrCreate(key.charAt(i));
+            }
+            Node leaf = path[key.length()];
+            if (leaf.terminals == null) {
+                leaf.terminals = new ArrayList<>(1);
+            }
+            leaf.terminals.removeIf(existing -> existing.id().equals(suggestion.id()));
+            leaf.terminals.add(suggestion);
+            for (int i = path.length - 1; i >= 0; i--) {
+                path[i].recomputeTop();
+            }
+        }
+
+        private void delete(String key, String suggestionId) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+                if (path[i + 1] == null) {
+                    return;
+                }
+            }
+            Node leaf = path[key.length()];
+            if (leaf.terminals != null) {
+                leaf.terminals.removeIf(existing -> existing.id().equals(suggestionId));
+            }
+            for (int i = path.length - 1; i >= 0; i--) {
+                if (i > 0 && path[i].isEmpty()) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                } else {
+                    path[i].recomputeTop();
+                }
+            }
+        }
+    }
+}
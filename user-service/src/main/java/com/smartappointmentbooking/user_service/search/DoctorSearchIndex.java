@@ -0,0 +1,441 @@
+package com.smartappointmentbooking.user_service.search;
+
+import com.smartappointmentbooking.user_service.dto.DoctorProfileDTO;
+import com.smartappointmentbooking.user_service.dto.DoctorSearchCriteria;
+import com.smartappointmentbooking.user_service.dto.DoctorSearchResponse;
+import com.smartappointmentbooking.user_service.entity.DoctorProfile;
+import com.smartappointmentbooking.user_service.repository.DoctorProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over active doctor profiles. Each doctor gets a
+ * dense ordinal and every searchable term maps to a bitmap of ordinals, so a
+ * query is a handful of bitmap intersections followed by one pass over the
+ * matches that applies range filters, counts facets and keeps the requested
+ * page in a bounded heap. The index is loaded at startup and kept current by
+ * {@code UserService} on every doctor mutation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorSearchIndex {
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Deepest result a page may reach; the heap holds every row up to it
+    private static final int MAX_RESULT_WINDOW = 10_000;
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexState state = new IndexState();
+    // Mutations made while a rebuild is loading are replayed onto the new state
+    private List<Consumer<IndexState>> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexState fresh = new IndexState();
+        boolean loaded = false;
+        try {
+            long afterId = 0L;
+            List<DoctorProfile> page;
+            do {
+                page = doctorProfileRepository.findActiveWithUserAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (DoctorProfile profile : page) {
+                    fresh.put(IndexedDoctor.from(profile));
+                    afterId = profile.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    pendingDuringRebuild.forEach(op -> op.accept(fresh));
+                    state = fresh;
+                }
+                // Cleared on a failed load too, or every later mutation would be queued forever
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Doctor search index built with {} doctors in {} ms",
+                fresh.live.cardinality(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void upsert(DoctorProfile profile) {
+        if (Boolean.TRUE.equals(profile.getIsDeleted())
+                || profile.getUser() == null
+                || Boolean.TRUE.equals(profile.getUser().getIsDeleted())) {
+            remove(profile.getId());
+            return;
+        }
+        IndexedDoctor doctor = IndexedDoctor.from(profile);
+        mutate(index -> index.put(doctor));
+    }
+
+    public void remove(Long doctorId) {
+        mutate(index -> index.removeDoctor(doctorId));
+    }
+
+    public void removeByUserId(Long userId) {
+        mutate(index -> {
+            Integer ordinal = index.ordinalByUserId.get(userId);
+            if (ordinal != null) {
+                index.removeDoctor(index.docs.get(ordinal).id());
+            }
+        });
+    }
+
+    public DoctorSearchResponse search(DoctorSearchCriteria criteria) {
+        int page = criteria.getPage() != null ? Math.max(0, criteria.getPage()) : 0;
+        int size = criteria.getSize() != null
+                ? Math.min(MAX_PAGE_SIZE, Math.max(1, criteria.getSize()))
+                : DEFAULT_PAGE_SIZE;
+        if (((long) page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search results are limited to the first " + MAX_RESULT_WINDOW + "; narrow the query instead");
+        }
+        Comparator<IndexedDoctor> order = comparator(criteria.getSort(), criteria.getDirection());
+        double minFee = criteria.getMinFee() != null ? criteria.getMinFee().doubleValue() : Double.NEGATIVE_INFINITY;
+        double maxFee = criteria.getMaxFee() != null ? criteria.getMaxFee().doubleValue() : Double.POSITIVE_INFINITY;
+        boolean feeFiltered = criteria.getMinFee() != null || criteria.getMaxFee() != null;
+        int minExperience = criteria.getMinExperience() != null ? criteria.getMinExperience() : Integer.MIN_VALUE;
+        int maxExperience = criteria.getMaxExperience() != null ? criteria.getMaxExperience() : Integer.MAX_VALUE;
+        boolean experienceFiltered = criteria.getMinExperience() != null || criteria.getMaxExperience() != null;
+
+        Map<String, Long> specializationFacet = new TreeMap<>();
+        Map<String, Long> experienceFacet = new LinkedHashMap<>();
+        Map<String, Long> verifiedFacet = new LinkedHashMap<>();
+        long total = 0;
+        int limit = (page + 1) * size;
+        PriorityQueue<IndexedDoctor> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, order.reversed());
+
+        lock.readLock().lock();
+        try {
+            IndexState index = state;
+            BitSet matches = index.match(criteria);
+
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                IndexedDoctor doctor = index.docs.get(i);
+                if (experienceFiltered
+                        && (doctor.experienceYears() < 0
+                        || doctor.experienceYears() < minExperience
+                        || doctor.experienceYears() > maxExperience)) {
+                    continue;
+                }
+                if (feeFiltered
+                        && (Double.isNaN(doctor.feeValue())
+                        || doctor.feeValue() < minFee
+                        || doctor.feeValue() > maxFee)) {
+                    continue;
+                }
+
+                total++;
+                specializationFacet.merge(doctor.specialization(), 1L, Long::sum);
+                experienceFacet.merge(experienceBucket(doctor.experienceYears()), 1L, Long::sum);
+                verifiedFacet.merge(String.valueOf(doctor.verified()), 1L, Long::sum);
+
+                top.offer(doctor);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<IndexedDoctor> ranked = new ArrayList<>(top);
+        ranked.sort(order);
+        List<DoctorProfileDTO> results = new ArrayList<>(size);
+        for (int i = page * size; i < ranked.size(); i++) {
+            results.add(ranked.get(i).toDto());
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("specialization", specializationFacet);
+        facets.put("experience", experienceFacet);
+        facets.put("verified", verifiedFacet);
+
+        return DoctorSearchResponse.builder()
+                .results(results)
+                .total(total)
+                .page(page)
+                .size(size)
+                .facets(facets)
+                .build();
+    }
+
+    // Ordinal slots allocated, live or free; stays at the peak number of indexed doctors
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return state.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void mutate(Consumer<IndexState> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(state);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(op);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Comparator<IndexedDoctor> comparator(String sort, String direction) {
+        Comparator<IndexedDoctor> order;
+        String key = sort != null ? sort.toLowerCase(Locale.ROOT) : "experience";
+        switch (key) {
+            case "fee" -> order = Comparator.comparingDouble(d -> Double.isNaN(d.feeValue()) ? Double.MAX_VALUE : d.feeValue());
+            case "name" -> order = Comparator.comparing(IndexedDoctor::sortName);
+            default -> order = Comparator.comparingInt(IndexedDoctor::experienceYears).reversed();
+        }
+        if ("desc".equalsIgnoreCase(direction) && !key.equals("experience")
+                || "asc".equalsIgnoreCase(direction) && key.equals("experience")) {
+            order = order.reversed();
+        }
+        // Ties break on id so pages are stable
+        return order.thenComparingLong(IndexedDoctor::id);
+    }
+
+    private static String experienceBucket(int years) {
+        if (years < 0) {
+            return "unknown";
+        } else if (years < 5) {
+            return "0-4";
+        } else if (years < 10) {
+            return "5-9";
+        } else if (years < 20) {
+            return "10-19";
+        }
+        return "20+";
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Mutable index structures, guarded by the outer read/write lock. A
+     * removed doctor's ordinal is handed to the next doctor added, lowest
+     * first, so updates do not grow the arrays and bitmaps.
+     */
+    private static final class IndexState {
+        private final List<IndexedDoctor> docs = new ArrayList<>();
+        private final Map<Long, Integer> ordinalByDoctorId = new HashMap<>();
+        private final Map<Long, Integer> ordinalByUserId = new HashMap<>();
+        private final Map<String, BitSet> bySpecialization = new HashMap<>();
+        private final Map<String, BitSet> byQualificationToken = new HashMap<>();
+        // Sorted so the last query token can match as a prefix
+        private final TreeMap<String, BitSet> byToken = new TreeMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet verified = new BitSet();
+        private final BitSet free = new BitSet();
+
+        void put(IndexedDoctor doctor) {
+            removeDoctor(doctor.id());
+            int ordinal = free.nextSetBit(0);
+            if (ordinal < 0) {
+                ordinal = docs.size();
+                docs.add(doctor);
+            } else {
+                free.clear(ordinal);
+                docs.set(ordinal, doctor);
+            }
+            ordinalByDoctorId.put(doctor.id(), ordinal);
+            ordinalByUserId.put(doctor.userId(), ordinal);
+            live.set(ordinal);
+            if (doctor.verified()) {
+                verified.set(ordinal);
+            }
+            bySpecialization.computeIfAbsent(normalize(doctor.specialization()), k -> new BitSet()).set(ordinal);
+            for (String token : tokenize(doctor.qualification())) {
+                byQualificationToken.computeIfAbsent(token, k -> new BitSet()).set(ordinal);
+            }
+            for (String token : doctor.searchTokens()) {
+                byToken.computeIfAbsent(token, k -> new BitSet()).set(ordinal);
+            }
+        }
+
+        void removeDoctor(Long doctorId) {
+            Integer ordinal = ordinalByDoctorId.remove(doctorId);
+            if (ordinal == null) {
+                return;
+            }
+            IndexedDoctor doctor = docs.set(ordinal, null);
+            ordinalByUserId.remove(doctor.userId(), ordinal);
+            live.clear(ordinal);
+            verified.clear(ordinal);
+            free.set(ordinal);
+            clear(bySpecialization, normalize(doctor.specialization()), ordinal);
+            for (String token : tokenize(doctor.qualification())) {
+                clear(byQualificationToken, token, ordinal);
+            }
+            for (String token : doctor.searchTokens()) {
+                clear(byToken, token, ordinal);
+            }
+        }
+
+        BitSet match(DoctorSearchCriteria criteria) {
+            BitSet matches = (BitSet) live.clone();
+
+            if (criteria.getSpecialization() != null && !criteria.getSpecialization().isBlank()) {
+                intersect(matches, bySpecialization.get(normalize(criteria.getSpecialization())));
+            }
+            for (String token : tokenize(criteria.getQualification())) {
+                intersect(matches, byQualificationToken.get(token));
+            }
+            if (criteria.getVerified() != null) {
+                if (criteria.getVerified()) {
+                    matches.and(verified);
+                } else {
+                    matches.andNot(verified);
+                }
+            }
+
+            List<String> terms = new ArrayList<>(tokenize(criteria.getQ()));
+            for (int i = 0; i < terms.size() && !matches.isEmpty(); i++) {
+                String term = terms.get(i);
+                if (i < terms.size() - 1) {
+                    intersect(matches, byToken.get(term));
+                } else {
+                    BitSet prefixMatches = new BitSet();
+                    byToken.subMap(term, true, term + Character.MAX_VALUE, false)
+                            .values()
+                            .forEach(prefixMatches::or);
+                    matches.and(prefixMatches);
+                }
+            }
+            return matches;
+        }
+
+        private static void intersect(BitSet matches, BitSet postings) {
+            if (postings == null) {
+                matches.clear();
+            } else {
+                matches.and(postings);
+            }
+        }
+
+        private static void clear(Map<String, BitSet> postings, String key, int ordinal) {
+            BitSet bits = postings.get(key);
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    private record IndexedDoctor(Long id,
+                                 Long userId,
+                                 String firstName,
+                                 String lastName,
+                                 String specialization,
+                                 String licenseNumber,
+                                 int experienceYears,
+                                 String qualification,
+                                 BigDecimal consultationFee,
+                                 double feeValue,
+                                 boolean verified,
+                                 boolean available,
+                                 String sortName) {
+
+        static IndexedDoctor from(DoctorProfile profile) {
+            String firstName = profile.getUser().getFirstName();
+            String lastName = profile.getUser().getLastName();
+            BigDecimal fee = profile.getConsultationFee();
+            return new IndexedDoctor(
+                    profile.getId(),
+                    profile.getUser().getId(),
+                    firstName,
+                    lastName,
+                    profile.getSpecialization(),
+                    profile.getMedicalLicenseNumber(),
+                    profile.getExperienceYears() != null ? profile.getExperienceYears() : -1,
+                    profile.getQualification(),
+                    fee,
+                    fee != null ? fee.doubleValue() : Double.NaN,
+                    Boolean.TRUE.equals(profile.getVerified()),
+                    "AVAILABLE".equals(profile.getAvailabilityStatus()),
+                    normalize(lastName) + " " + normalize(firstName));
+        }
+
+        Set<String> searchTokens() {
+            Set<String> tokens = tokenize(firstName);
+            tokens.addAll(tokenize(lastName));
+            tokens.addAll(tokenize(specialization));
+            tokens.addAll(tokenize(qualification));
+            return tokens;
+        }
+
+        DoctorProfileDTO toDto() {
+            return DoctorProfileDTO.builder()
+                    .id(id)
+                    .userId(userId)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .specialization(specialization)
+                    .licenseNumber(licenseNumber)
+                    .yearsOfExperience(experienceYears >= 0 ? experienceYears : null)
+                    .qualifications(qualification)
+                    .hospitalAffiliation(qualification)
+                    .consultationFee(consultationFee)
+                    .verified(verified)
+                    .isAvailable(available)
+                    .build();
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.smartappointmentbooking.user_service.service;
 
+import com.smartappointmentbooking.user_service.cache.ProfileCache;
 import com.smartappointmentbooking.user_service.dto.*;
 import com.smartappointmentbooking.user_service.entity.User;
 import com.smartappointmentbooking.user_service.entity.DoctorProfile;
 import com.smartappointmentbooking.user_service.repository.UserRepository;
 import com.smartappointmentbooking.user_service.repository.DoctorProfileRepository;
+import com.smartappointmentbooking.user_service.repository.DoctorSummary;
+import com.smartappointmentbooking.user_service.repository.UserBatchRepository;
+import com.smartappointmentbooking.user_service.repository.UserSummary;
+import com.smartappointmentbooking.user_service.search.DoctorAutocompleteIndex;
+import com.smartappointmentbooking.user_service.search.DoctorSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,9 +35,20 @@ import java.util.stream.Collectors;
 public class UserService {
     private final UserRepository userRepository;
     private final DoctorProfileRepository doctorProfileRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorAutocompleteIndex doctorAutocompleteIndex;
+    private final ProfileCache profileCache;
+
+    @Value("${user.batch.max-ids:200}")
+    private int maxBatchIds;
 
     public UserProfileDTO getUserProfileById(Long userId) {
-        User user = userRepository.findById(userId)
+        return profileCache.getUser(userId, this::loadUserProfile);
+    }
+
+    private UserProfileDTO loadUserProfile(Long userId) {
+        UserSummary user = userRepository.findSummaryById(userId)
                 .orElseThrow(() -> {
                     log.error("User not found with ID: {}", userId);
                     return new RuntimeException("User not found with ID: " + userId);
@@ -27,6 +56,14 @@ public class UserService {
         return mapToUserProfileDTO(user);
     }
 
+    public BatchLookupResponse<UserProfileDTO> getUserProfiles(List<Long> ids) {
+        List<Long> requested = distinctIds(ids);
+        Map<Long, UserProfileDTO> found = profileCache.getUsers(requested, missing ->
+                userRepository.findSummariesByIdIn(missing).stream()
+                        .collect(Collectors.toMap(UserSummary::id, this::mapToUserProfileDTO)));
+        return toBatchResponse(requested, found);
+    }
+
     public UserProfileDTO updateUserProfile(Long userId, UpdateUserProfileRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -45,6 +82,12 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        profileCache.evictUser(userId);
+        // Doctor names are indexed for search and autocomplete, and cached in doctor profiles
+        doctorProfileRepository.findWithUserByUserId(userId).ifPresent(doctorProfile -> {
+            profileCache.evictDoctor(doctorProfile.getId(), userId);
+            reindexDoctor(doctorProfile);
+        });
         log.info("User profile updated: {}", userId);
         return mapToUserProfileDTO(user);
     }
@@ -59,30 +102,49 @@ public class UserService {
                 .medicalLicenseNumber(request.getLicenseNumber())
                 .experienceYears(request.getYearsOfExperience())
                 .qualification(request.getQualifications())
+                .consultationFee(request.getConsultationFee())
                 .availabilityStatus("AVAILABLE")
                 .verified(false)
                 .isDeleted(false)
                 .build();
 
         doctorProfile = doctorProfileRepository.save(doctorProfile);
+        profileCache.evictDoctor(doctorProfile.getId(), userId);
+        reindexDoctor(doctorProfile);
         log.info("Doctor profile created for user: {}", userId);
         return mapToDoctorProfileDTO(doctorProfile);
     }
 
     public DoctorProfileDTO getDoctorProfile(Long doctorId) {
-        DoctorProfile doctorProfile = doctorProfileRepository.findById(doctorId)
+        return profileCache.getDoctor(doctorId, this::loadDoctorProfile);
+    }
+
+    private DoctorProfileDTO loadDoctorProfile(Long doctorId) {
+        DoctorSummary doctor = doctorProfileRepository.findSummaryById(doctorId)
                 .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
-        return mapToDoctorProfileDTO(doctorProfile);
+        return mapToDoctorProfileDTO(doctor);
+    }
+
+    public BatchLookupResponse<DoctorProfileDTO> getDoctorProfiles(List<Long> ids) {
+        List<Long> requested = distinctIds(ids);
+        Map<Long, DoctorProfileDTO> found = profileCache.getDoctors(requested, missing ->
+                doctorProfileRepository.findSummariesByIdIn(missing).stream()
+                        .collect(Collectors.toMap(DoctorSummary::id, this::mapToDoctorProfileDTO)));
+        return toBatchResponse(requested, found);
     }
 
     public DoctorProfileDTO getDoctorProfileByUserId(Long userId) {
-        DoctorProfile doctorProfile = doctorProfileRepository.findByUserId(userId)
+        return profileCache.getDoctorByUserId(userId, this::loadDoctorProfileByUserId);
+    }
+
+    private DoctorProfileDTO loadDoctorProfileByUserId(Long userId) {
+        DoctorSummary doctor = doctorProfileRepository.findSummaryByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
-        return mapToDoctorProfileDTO(doctorProfile);
+        return mapToDoctorProfileDTO(doctor);
     }
 
     public DoctorProfileDTO updateDoctorProfile(Long doctorId, CreateDoctorProfileRequest request) {
-        DoctorProfile doctorProfile = doctorProfileRepository.findById(doctorId)
+        DoctorProfile doctorProfile = doctorProfileRepository.findWithUserById(doctorId)
                 .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
 
         if (request.getSpecialization() != null) {
@@ -94,34 +156,128 @@ public class UserService {
         if (request.getQualifications() != null) {
             doctorProfile.setQualification(request.getQualifications());
         }
+        if (request.getConsultationFee() != null) {
+            doctorProfile.setConsultationFee(request.getConsultationFee());
+        }
 
         doctorProfile = doctorProfileRepository.save(doctorProfile);
+        profileCache.evictDoctor(doctorId, doctorProfile.getUser().getId());
+        reindexDoctor(doctorProfile);
         log.info("Doctor profile updated: {}", doctorId);
         return mapToDoctorProfileDTO(doctorProfile);
     }
 
     public List<DoctorProfileDTO> getAllDoctors() {
-        return doctorProfileRepository.findAll().stream()
-                .filter(d -> !d.getIsDeleted())
+        // Soft-deleted rows are excluded by the entities' @SQLRestriction
+        return doctorProfileRepository.findAllSummaries().stream()
                 .map(this::mapToDoctorProfileDTO)
                 .collect(Collectors.toList());
     }
 
     public List<DoctorProfileDTO> getDoctorsBySpecialization(String specialization) {
-        return doctorProfileRepository.findBySpecialization(specialization).stream()
-                .filter(d -> !d.getIsDeleted())
+        return doctorProfileRepository.findSummariesBySpecialization(specialization).stream()
                 .map(this::mapToDoctorProfileDTO)
                 .collect(Collectors.toList());
     }
 
+    public DoctorSearchResponse searchDoctors(DoctorSearchCriteria criteria) {
+        return doctorSearchIndex.search(criteria);
+    }
+
+    public List<AutocompleteSuggestionDTO> autocompleteDoctors(String query, Integer limit) {
+        return doctorAutocompleteIndex.suggest(query, limit);
+    }
+
     public void deleteUserAccount(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        // Looked up first; once the user is soft-deleted the join no longer matches
+        Long doctorId = doctorProfileRepository.findByUserId(userId).map(DoctorProfile::getId).orElse(null);
         user.setIsDeleted(true);
         userRepository.save(user);
+        profileCache.evictUser(userId);
+        profileCache.evictDoctor(doctorId, userId);
+        doctorSearchIndex.removeByUserId(userId);
+        doctorAutocompleteIndex.removeByUserId(userId);
         log.info("User account deleted: {}", userId);
     }
 
+    /**
+     * Refreshes caches and search indexes after users were changed by the
+     * event consumer's bulk writes, which bypass the JPA entities. Inside a
+     * transaction the indexes are only touched once it commits, like the
+     * cache evictions, so a rollback cannot leave them ahead of the database.
+     */
+    public void onUsersSynchronised(Collection<Long> changedUserIds, Collection<Long> deletedUserIds) {
+        List<DoctorProfile> changedDoctors = List.of();
+        if (!changedUserIds.isEmpty()) {
+            changedUserIds.forEach(profileCache::evictUser);
+            changedDoctors = doctorProfileRepository.findWithUserByUserIdIn(changedUserIds);
+            for (DoctorProfile doctorProfile : changedDoctors) {
+                profileCache.evictDoctor(doctorProfile.getId(), doctorProfile.getUser().getId());
+            }
+        }
+
+        if (!deletedUserIds.isEmpty()) {
+            userBatchRepository.findDoctorIdsByUserIds(deletedUserIds)
+                    .forEach(doctorId -> profileCache.evictDoctor(doctorId, null));
+            for (Long userId : deletedUserIds) {
+                profileCache.evictUser(userId);
+                profileCache.evictDoctor(null, userId);
+            }
+        }
+
+        List<DoctorProfile> reindexed = changedDoctors;
+        afterCommit(() -> {
+            reindexed.forEach(this::reindexDoctor);
+            for (Long userId : deletedUserIds) {
+                doctorSearchIndex.removeByUserId(userId);
+                doctorAutocompleteIndex.removeByUserId(userId);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private List<Long> distinctIds(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        if (distinct.size() > maxBatchIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchIds + " ids can be requested at once");
+        }
+        return distinct;
+    }
+
+    private <T> BatchLookupResponse<T> toBatchResponse(List<Long> requested, Map<Long, T> found) {
+        List<Long> missing = requested.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        return BatchLookupResponse.<T>builder()
+                .found(found)
+                .missing(missing)
+                .build();
+    }
+
+    private void reindexDoctor(DoctorProfile doctorProfile) {
+        doctorSearchIndex.upsert(doctorProfile);
+        doctorAutocompleteIndex.upsert(doctorProfile);
+    }
+
     private UserProfileDTO mapToUserProfileDTO(User user) {
         return UserProfileDTO.builder()
                 .id(user.getId())
@@ -134,15 +290,48 @@ public class UserService {
                 .build();
     }
 
+    private UserProfileDTO mapToUserProfileDTO(UserSummary user) {
+        return UserProfileDTO.builder()
+                .id(user.id())
+                .email(user.email())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .phoneNumber(user.phoneNumber())
+                .address(user.address())
+                .role(user.role())
+                .build();
+    }
+
+    private DoctorProfileDTO mapToDoctorProfileDTO(DoctorSummary doctor) {
+        return DoctorProfileDTO.builder()
+                .id(doctor.id())
+                .userId(doctor.userId())
+                .firstName(doctor.firstName())
+                .lastName(doctor.lastName())
+                .specialization(doctor.specialization())
+                .licenseNumber(doctor.medicalLicenseNumber())
+                .yearsOfExperience(doctor.experienceYears())
+                .qualifications(doctor.qualification())
+                .hospitalAffiliation(doctor.qualification())
+                .consultationFee(doctor.consultationFee())
+                .verified(doctor.verified())
+                .isAvailable("AVAILABLE".equals(doctor.availabilityStatus()))
+                .build();
+    }
+
     private DoctorProfileDTO mapToDoctorProfileDTO(DoctorProfile doctorProfile) {
         return DoctorProfileDTO.builder()
                 .id(doctorProfile.getId())
                 .userId(doctorProfile.getUser().getId())
+                .firstName(doctorProfile.getUser().getFirstName())
+                .lastName(doctorProfile.getUser().getLastName())
                 .specialization(doctorProfile.getSpecialization())
                 .licenseNumber(doctorProfile.getMedicalLicenseNumber())
                 .yearsOfExperience(doctorProfile.getExperienceYears())
                 .qualifications(doctorProfile.getQualification())
                 .hospitalAffiliation(doctorProfile.getQualification())
+                .consultationFee(doctorProfile.getConsultationFee())
+                .verified(doctorProfile.getVerified())
                 .isAvailable(doctorProfile.getAvailabilityStatus().equals("AVAILABLE"))
                 .build();
     }
@@ -163,4 +352,47 @@ public class UserService {
         log.info("User created: {} with ID: {}", user.getEmail(), user.getId());
         return mapToUserProfileDTO(user);
     }
+
+    /**
+     * Creates or updates users keyed by email in one round trip. Replaying the
+     * same batch leaves the table unchanged, so callers can retry freely.
+     */
+    @Transactional
+    public List<UserProfileDTO> upsertUsers(List<UpdateUserProfileRequest> requests) {
+        List<String> emails = requests.stream()
+                .map(UpdateUserProfileRequest::getEmail)
+                .collect(Collectors.toList());
+        Map<String, User> existing = userRepository.findByEmailInIncludingDeleted(emails).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity()));
+
+        List<User> users = new ArrayList<>(requests.size());
+        for (UpdateUserProfileRequest request : requests) {
+            User user = existing.get(request.getEmail());
+            if (user == null) {
+                user = User.builder()
+                        .email(request.getEmail())
+                        .isDeleted(false)
+                        .build();
+                existing.put(request.getEmail(), user);
+            }
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+            user.setPhoneNumber(request.getPhoneNumber());
+            if (request.getAddress() != null) {
+                user.setAddress(request.getAddress());
+            }
+            user.setRole(request.getRole() != null ? request.getRole() : "ROLE_PATIENT");
+            // Upserting a deleted user brings the account back
+            user.setIsDeleted(false);
+            users.add(user);
+        }
+
+        users = userRepository.saveAll(users);
+        // Doctor names live in the doctor caches and search indexes too, as in updateUserProfile
+        onUsersSynchronised(users.stream().map(User::getId).toList(), List.of());
+        log.info("Upserted {} users", users.size());
+        return users.stream()
+                .map(this::mapToUserProfileDTO)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,143 @@
+package com.smartappointmentbooking.user_service.search;
+
+import com.smartappointmentbooking.user_service.dto.AutocompleteSuggestionDTO;
+import com.smartappointmentbooking.user_service.entity.DoctorProfile;
+import com.smartappointmentbooking.user_service.entity.User;
+import com.smartappointmentbooking.user_service.repository.DoctorProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorAutocompleteIndexTest {
+
+	private final DoctorProfileRepository repository = mock(DoctorProfileRepository.class);
+	private final DoctorAutocompleteIndex index = new DoctorAutocompleteIndex(repository);
+
+	@Test
+	void completesFirstAndLastNamePrefixes() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0));
+
+		assertThat(texts(index.suggest("ali", null))).containsExactly("Alice Smith");
+		assertThat(texts(index.suggest("  SMI ", null))).containsExactly("Alice Smith");
+		assertThat(index.suggest("ali", null).get(0).getExact()).isTrue();
+	}
+
+	@Test
+	void toleratesOneTypoAtReducedScore() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0));
+
+		List<AutocompleteSuggestionDTO> suggestions = index.suggest("alise", null);
+
+		assertThat(texts(suggestions)).containsExactly("Alice Smith");
+		assertThat(suggestions.get(0).getExact()).isFalse();
+		assertThat(suggestions.get(0).getScore()).isEqualTo(0.5);
+	}
+
+	@Test
+	void skipsFuzzyMatchingForVeryShortQueries() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0));
+
+		assertThat(index.suggest("al", null)).hasSize(1);
+		assertThat(index.suggest("xl", null)).isEmpty();
+	}
+
+	@Test
+	void ranksVerifiedExperiencedDoctorsFirst() {
+		index.upsert(doctor(1L, "Bob", "Jones", "Dermatology", null, false, 0));
+		index.upsert(doctor(2L, "Bob", "Brown", "Dermatology", null, true, 20));
+
+		assertThat(texts(index.suggest("bob", null))).containsExactly("Bob Brown", "Bob Jones");
+	}
+
+	@Test
+	void weighsTermsByNumberOfDoctors() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", "MBBS, MD", false, 0));
+		index.upsert(doctor(2L, "Bob", "Brown", "cardiology", "MBBS", false, 0));
+
+		AutocompleteSuggestionDTO specialization = index.suggest("cardio", null).get(0);
+		assertThat(specialization.getType()).isEqualTo("SPECIALIZATION");
+		assertThat(specialization.getScore()).isEqualTo(2.0);
+		assertThat(index.suggest("mbbs", null).get(0).getScore()).isEqualTo(2.0);
+		assertThat(index.suggest("md", null).get(0).getScore()).isEqualTo(1.0);
+	}
+
+	@Test
+	void forgetsRemovedDoctorsAndTheirTerms() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0));
+		index.upsert(doctor(2L, "Bob", "Brown", "Cardiology", null, false, 0));
+
+		DoctorProfile deleted = doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0);
+		deleted.setIsDeleted(true);
+		index.upsert(deleted);
+		assertThat(index.suggest("ali", null)).isEmpty();
+		assertThat(index.suggest("cardio", null).get(0).getScore()).isEqualTo(1.0);
+
+		index.removeByUserId(102L);
+		assertThat(index.suggest("bob", null)).isEmpty();
+		assertThat(index.suggest("cardio", null)).isEmpty();
+	}
+
+	@Test
+	void reindexesRenamedDoctor() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0));
+		index.upsert(doctor(1L, "Alice", "Walker", "Cardiology", null, false, 0));
+
+		assertThat(index.suggest("smi", null)).isEmpty();
+		assertThat(texts(index.suggest("walk", null))).containsExactly("Alice Walker");
+	}
+
+	@Test
+	void capsResultsAtLimit() {
+		for (long id = 1; id <= 15; id++) {
+			index.upsert(doctor(id, "Sam", "Lee" + id, "Pediatrics", null, false, (int) id));
+		}
+
+		assertThat(index.suggest("sam", 3)).hasSize(3);
+		assertThat(index.suggest("sam", null)).hasSize(DoctorAutocompleteIndex.MAX_RESULTS);
+	}
+
+	@Test
+	void keepsServingAndAcceptingUpdatesAfterFailedRebuild() {
+		when(repository.findActiveWithUserAfter(anyLong(), any(Pageable.class)))
+				.thenReturn(List.of(doctor(1L, "Alice", "Smith", "Cardiology", null, false, 0)))
+				.thenThrow(new IllegalStateException("database unavailable"));
+		index.rebuild();
+
+		assertThatThrownBy(index::rebuild).isInstanceOf(IllegalStateException.class);
+		index.upsert(doctor(2L, "Bob", "Brown", "Dermatology", null, false, 0));
+
+		assertThat(texts(index.suggest("ali", null))).containsExactly("Alice Smith");
+		assertThat(texts(index.suggest("bob", null))).containsExactly("Bob Brown");
+	}
+
+	private static DoctorProfile doctor(Long id, String firstName, String lastName, String specialization,
+			String qualification, boolean verified, int experienceYears) {
+		User user = User.builder()
+				.id(100L + id)
+				.firstName(firstName)
+				.lastName(lastName)
+				.isDeleted(false)
+				.build();
+		return DoctorProfile.builder()
+				.id(id)
+				.user(user)
+				.specialization(specialization)
+				.qualification(qualification)
+				.verified(verified)
+				.experienceYears(experienceYears)
+				.isDeleted(false)
+				.build();
+	}
+
+	private static List<String> texts(List<AutocompleteSuggestionDTO> suggestions) {
+		return suggestions.stream().map(AutocompleteSuggestionDTO::getText).toList();
+	}
+}
@@ -0,0 +1,108 @@
+package com.smartappointmentbooking.user_service.search;
+
+import com.smartappointmentbooking.user_service.dto.DoctorProfileDTO;
+import com.smartappointmentbooking.user_service.dto.DoctorSearchCriteria;
+import com.smartappointmentbooking.user_service.dto.DoctorSearchResponse;
+import com.smartappointmentbooking.user_service.entity.DoctorProfile;
+import com.smartappointmentbooking.user_service.entity.User;
+import com.smartappointmentbooking.user_service.repository.DoctorProfileRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class DoctorSearchIndexTest {
+
+	private final DoctorSearchIndex index = new DoctorSearchIndex(mock(DoctorProfileRepository.class));
+
+	@Test
+	void matchesNamePrefixesAndFilters() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", 12, "150.00", true));
+		index.upsert(doctor(2L, "Alan", "Jones", "Cardiology", 3, "80.00", false));
+		index.upsert(doctor(3L, "Bob", "Brown", "Dermatology", 8, "120.00", true));
+
+		assertThat(ids(search(DoctorSearchCriteria.builder().q("al").build()))).containsExactly(1L, 2L);
+		assertThat(ids(search(DoctorSearchCriteria.builder().specialization("cardiology").verified(true).build())))
+				.containsExactly(1L);
+		assertThat(ids(search(DoctorSearchCriteria.builder().minFee(new BigDecimal("100")).build())))
+				.containsExactly(1L, 3L);
+		assertThat(ids(search(DoctorSearchCriteria.builder().q("smith cardio").build()))).containsExactly(1L);
+	}
+
+	@Test
+	void countsFacetsOverAllMatchesNotJustThePage() {
+		for (long id = 1; id <= 5; id++) {
+			index.upsert(doctor(id, "Sam", "Lee" + id, id % 2 == 0 ? "Pediatrics" : "Surgery", (int) id, null, false));
+		}
+
+		DoctorSearchResponse response = search(DoctorSearchCriteria.builder().q("sam").size(2).page(1).build());
+
+		assertThat(response.getTotal()).isEqualTo(5);
+		assertThat(response.getResults()).hasSize(2);
+		// Default order is most experienced first, so page 1 holds the third and fourth
+		assertThat(ids(response)).containsExactly(3L, 2L);
+		assertThat(response.getFacets().get("specialization"))
+				.containsEntry("Pediatrics", 2L)
+				.containsEntry("Surgery", 3L);
+	}
+
+	@Test
+	void reusesOrdinalsAcrossUpdatesAndRemovals() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", 12, null, true));
+		index.upsert(doctor(2L, "Bob", "Brown", "Dermatology", 8, null, true));
+
+		for (int i = 0; i < 100; i++) {
+			index.upsert(doctor(1L, "Alice", "Smith" + i, "Cardiology", 12, null, true));
+		}
+		index.remove(2L);
+		index.upsert(doctor(3L, "Carol", "White", "Neurology", 5, null, false));
+
+		assertThat(index.slotCount()).isEqualTo(2);
+		assertThat(ids(search(DoctorSearchCriteria.builder().q("smith99").build()))).containsExactly(1L);
+		assertThat(ids(search(DoctorSearchCriteria.builder().q("bob").build()))).isEmpty();
+		assertThat(ids(search(DoctorSearchCriteria.builder().q("carol").build()))).containsExactly(3L);
+	}
+
+	@Test
+	void rejectsPagesBeyondTheResultWindow() {
+		index.upsert(doctor(1L, "Alice", "Smith", "Cardiology", 12, null, true));
+
+		assertThatThrownBy(() -> search(DoctorSearchCriteria.builder().page(Integer.MAX_VALUE).size(100).build()))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> search(DoctorSearchCriteria.builder().page(100).size(100).build()))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThat(search(DoctorSearchCriteria.builder().page(99).size(100).build()).getResults()).isEmpty();
+	}
+
+	private DoctorSearchResponse search(DoctorSearchCriteria criteria) {
+		return index.search(criteria);
+	}
+
+	private static List<Long> ids(DoctorSearchResponse response) {
+		return response.getResults().stream().map(DoctorProfileDTO::getId).toList();
+	}
+
+	private static DoctorProfile doctor(Long id, String firstName, String lastName, String specialization,
+			int experienceYears, String fee, boolean verified) {
+		User user = User.builder()
+				.id(100L + id)
+				.firstName(firstName)
+				.lastName(lastName)
+				.isDeleted(false)
+				.build();
+		return DoctorProfile.builder()
+				.id(id)
+				.user(user)
+				.specialization(specialization)
+				.experienceYears(experienceYears)
+				.consultationFee(fee != null ? new BigDecimal(fee) : null)
+				.verified(verified)
+				.isDeleted(false)
+				.build();
+	}
+}